@@ -0,0 +1,125 @@
+package com.nequi.franquicias.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.nequi.franquicias.drivenadapter.cache.EntityCache;
+import com.nequi.franquicias.drivenadapter.cache.ExistenceCache;
+import com.nequi.franquicias.drivenadapter.cache.NegativeCache;
+import com.nequi.franquicias.model.Franchise;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cachés en memoria que {@link UseCaseConfig} coloca delante de los puertos. Cada una se activa por
+ * separado; las activas publican sus estadísticas como métricas {@code cache.*} (aciertos, fallos,
+ * desalojos, tiempo de carga y tamaño) con la etiqueta {@code cache} (p. ej. {@code franchise-entity}).
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public ExistenceCache franchiseExistenceCache(
+            MeterRegistry meterRegistry,
+            @Value("${franquicias.existence-cache.enabled:false}") boolean enabled,
+            @Value("${franquicias.existence-cache.maximum-size:100000}") long maximumSize,
+            @Value("${franquicias.existence-cache.ttl:10m}") Duration ttl) {
+        return enabled
+                ? monitored(new ExistenceCache(maximumSize, ttl), "franchise-exists", meterRegistry)
+                : ExistenceCache.disabled();
+    }
+
+    @Bean
+    public ExistenceCache branchExistenceCache(
+            MeterRegistry meterRegistry,
+            @Value("${franquicias.existence-cache.enabled:false}") boolean enabled,
+            @Value("${franquicias.existence-cache.maximum-size:100000}") long maximumSize,
+            @Value("${franquicias.existence-cache.ttl:10m}") Duration ttl) {
+        return enabled
+                ? monitored(new ExistenceCache(maximumSize, ttl), "branch-exists", meterRegistry)
+                : ExistenceCache.disabled();
+    }
+
+    @Bean
+    public EntityCache<Franchise> franchiseEntityCache(
+            MeterRegistry meterRegistry,
+            @Value("${franquicias.entity-cache.enabled:false}") boolean enabled,
+            @Value("${franquicias.entity-cache.franchises.maximum-size:1000}") long maximumSize,
+            @Value("${franquicias.entity-cache.ttl:10m}") Duration ttl) {
+        return enabled
+                ? monitored(new EntityCache<>(maximumSize, ttl, Franchise::id, Franchise::version),
+                        "franchise-entity", meterRegistry)
+                : EntityCache.disabled();
+    }
+
+    @Bean
+    public NegativeCache franchiseNegativeCache(
+            MeterRegistry meterRegistry,
+            @Value("${franquicias.negative-cache.enabled:false}") boolean enabled,
+            @Value("${franquicias.negative-cache.maximum-size:100000}") long maximumSize,
+            @Value("${franquicias.negative-cache.ttl:30s}") Duration ttl) {
+        return enabled
+                ? monitored(new NegativeCache(maximumSize, ttl), "franchise-missing", meterRegistry)
+                : NegativeCache.disabled();
+    }
+
+    @Bean
+    public NegativeCache branchNegativeCache(
+            MeterRegistry meterRegistry,
+            @Value("${franquicias.negative-cache.enabled:false}") boolean enabled,
+            @Value("${franquicias.negative-cache.maximum-size:100000}") long maximumSize,
+            @Value("${franquicias.negative-cache.ttl:30s}") Duration ttl) {
+        return enabled
+                ? monitored(new NegativeCache(maximumSize, ttl), "branch-missing", meterRegistry)
+                : NegativeCache.disabled();
+    }
+
+    @Bean
+    public NegativeCache productNegativeCache(
+            MeterRegistry meterRegistry,
+            @Value("${franquicias.negative-cache.enabled:false}") boolean enabled,
+            @Value("${franquicias.negative-cache.maximum-size:100000}") long maximumSize,
+            @Value("${franquicias.negative-cache.ttl:30s}") Duration ttl) {
+        return enabled
+                ? monitored(new NegativeCache(maximumSize, ttl), "product-missing", meterRegistry)
+                : NegativeCache.disabled();
+    }
+
+    /**
+     * Sin cargas: aquí un acierto ({@code cache.gets}, {@code result=hit}) es un id rechazado en memoria.
+     */
+    private static NegativeCache monitored(NegativeCache cache, String name, MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.cache(), name);
+        return cache;
+    }
+
+    private static ExistenceCache monitored(ExistenceCache cache, String name, MeterRegistry meterRegistry) {
+        monitor(cache.asyncCache(), name, meterRegistry);
+        return cache;
+    }
+
+    private static <T> EntityCache<T> monitored(EntityCache<T> cache, String name, MeterRegistry meterRegistry) {
+        monitor(cache.asyncCache(), name, meterRegistry);
+        return cache;
+    }
+
+    /**
+     * CaffeineCacheMetrics solo publica el tiempo de carga de una LoadingCache; aquí cada lectura trae
+     * su propia carga, así que se registra aparte como temporizador (cantidad y tiempo total de cargas).
+     */
+    private static void monitor(AsyncCache<Long, ?> cache, String name, MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Cache<Long, ?> synchronous = cache.synchronous();
+        FunctionTimer.builder("cache.load.duration", synchronous,
+                        c -> c.stats().loadCount(), c -> c.stats().totalLoadTime(), TimeUnit.NANOSECONDS)
+                .tag("cache", name)
+                .description("Tiempo de carga desde la base de datos en los fallos de la caché")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.nequi.franquicias.config;
+
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del índice en memoria de productos con mayor stock.
+ * Se activa con {@code franquicias.max-stock-index.enabled}; la reconstrucción inicial
+ * corre en segundo plano y, mientras termina, las lecturas van a la base de datos.
+ * Solo sirve con una instancia: el índice no ve las escrituras hechas por otras.
+ */
+@Configuration
+public class MaxStockIndexConfig {
+
+    @Bean
+    public MaxStockIndex maxStockIndex(ProductRepository productRepository,
+                                       @Value("${franquicias.max-stock-index.enabled:false}") boolean enabled) {
+        return enabled ? new MaxStockIndex(productRepository) : MaxStockIndex.disabled();
+    }
+
+    @Bean
+    public ApplicationRunner maxStockIndexRebuild(MaxStockIndex maxStockIndex) {
+        return args -> maxStockIndex.rebuildInBackground();
+    }
+}
@@ -0,0 +1,34 @@
+package com.nequi.franquicias.config;
+
+import com.nequi.franquicias.usecase.FoldStockStripesUseCase;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Plegado periódico del stock repartido en franjas ({@code franquicias.stock-stripes.fold-interval}).
+ * Se activa con {@code franquicias.stock-stripes.enabled}, la misma propiedad que permite repartir
+ * productos: la tabla resumen del top de mayor stock solo ve los ajustes sobre franjas a través del plegado.
+ * Si una pasada tarda más que el intervalo, los ticks intermedios se descartan en lugar de acumularse.
+ */
+@Configuration
+public class StockStripesConfig {
+
+    @Bean
+    public ApplicationRunner stockStripesFold(FoldStockStripesUseCase foldStockStripesUseCase,
+                                              @Value("${franquicias.stock-stripes.enabled:false}") boolean enabled,
+                                              @Value("${franquicias.stock-stripes.fold-interval:1s}") Duration interval) {
+        if (!enabled) {
+            return args -> { };
+        }
+        return args -> Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> foldStockStripesUseCase.execute().onErrorResume(e -> Mono.empty()), 1)
+                .subscribe();
+    }
+}
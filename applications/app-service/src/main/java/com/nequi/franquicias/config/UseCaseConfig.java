@@ -1,11 +1,30 @@
 package com.nequi.franquicias.config;
 
+import com.nequi.franquicias.drivenadapter.cache.CachingBranchRepository;
+import com.nequi.franquicias.drivenadapter.cache.CachingCatalogImportRepository;
+import com.nequi.franquicias.drivenadapter.cache.CachingFranchiseRepository;
+import com.nequi.franquicias.drivenadapter.cache.CachingProductRepository;
+import com.nequi.franquicias.drivenadapter.cache.EntityCache;
+import com.nequi.franquicias.drivenadapter.cache.ExistenceCache;
+import com.nequi.franquicias.drivenadapter.cache.NegativeCache;
+import com.nequi.franquicias.drivenadapter.r2dbc.BranchRepositoryAdapter;
+import com.nequi.franquicias.drivenadapter.r2dbc.CatalogImportRepositoryAdapter;
+import com.nequi.franquicias.drivenadapter.r2dbc.FranchiseRepositoryAdapter;
+import com.nequi.franquicias.drivenadapter.r2dbc.ProductRepositoryAdapter;
+import com.nequi.franquicias.model.Franchise;
 import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.model.port.CatalogImportRepository;
 import com.nequi.franquicias.model.port.FranchiseRepository;
+import com.nequi.franquicias.model.port.IdAllocator;
 import com.nequi.franquicias.model.port.ProductRepository;
 import com.nequi.franquicias.usecase.*;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
 
 /**
  * Configuración de beans para los casos de uso.
@@ -14,6 +33,58 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class UseCaseConfig {
 
+    /**
+     * Si alguna caché de {@link CacheConfig} está activa, los casos de uso reciben el adaptador R2DBC
+     * envuelto en su decorador; si no, el adaptador tal cual.
+     */
+    @Bean
+    @Primary
+    public FranchiseRepository franchiseRepository(FranchiseRepositoryAdapter adapter,
+                                                   ExistenceCache franchiseExistenceCache,
+                                                   EntityCache<Franchise> franchiseEntityCache,
+                                                   NegativeCache franchiseNegativeCache) {
+        return franchiseExistenceCache.isEnabled() || franchiseEntityCache.isEnabled()
+                || franchiseNegativeCache.isEnabled()
+                ? new CachingFranchiseRepository(adapter, franchiseExistenceCache, franchiseEntityCache,
+                        franchiseNegativeCache)
+                : adapter;
+    }
+
+    @Bean
+    @Primary
+    public BranchRepository branchRepository(BranchRepositoryAdapter adapter,
+                                             ExistenceCache branchExistenceCache,
+                                             NegativeCache branchNegativeCache) {
+        return branchExistenceCache.isEnabled() || branchNegativeCache.isEnabled()
+                ? new CachingBranchRepository(adapter, branchExistenceCache, branchNegativeCache)
+                : adapter;
+    }
+
+    @Bean
+    @Primary
+    public ProductRepository productRepository(ProductRepositoryAdapter adapter,
+                                               NegativeCache productNegativeCache) {
+        return productNegativeCache.isEnabled()
+                ? new CachingProductRepository(adapter, productNegativeCache)
+                : adapter;
+    }
+
+    /**
+     * Con la caché negativa activa, cada importación limpia los ids inexistentes recordados de su entidad.
+     */
+    @Bean
+    @Primary
+    public CatalogImportRepository catalogImportRepository(CatalogImportRepositoryAdapter adapter,
+                                                           NegativeCache franchiseNegativeCache,
+                                                           NegativeCache branchNegativeCache,
+                                                           NegativeCache productNegativeCache) {
+        return franchiseNegativeCache.isEnabled() || branchNegativeCache.isEnabled()
+                || productNegativeCache.isEnabled()
+                ? new CachingCatalogImportRepository(adapter, franchiseNegativeCache, branchNegativeCache,
+                        productNegativeCache)
+                : adapter;
+    }
+
     @Bean
     public AddFranchiseUseCase addFranchiseUseCase(FranchiseRepository franchiseRepository) {
         return new AddFranchiseUseCase(franchiseRepository);
@@ -25,40 +96,128 @@ public class UseCaseConfig {
     }
 
     @Bean
-    public AddBranchUseCase addBranchUseCase(FranchiseRepository franchiseRepository, BranchRepository branchRepository) {
-        return new AddBranchUseCase(franchiseRepository, branchRepository);
+    public AddBranchUseCase addBranchUseCase(BranchRepository branchRepository) {
+        return new AddBranchUseCase(branchRepository);
     }
 
     @Bean
-    public UpdateBranchNameUseCase updateBranchNameUseCase(BranchRepository branchRepository) {
-        return new UpdateBranchNameUseCase(branchRepository);
+    public UpdateBranchNameUseCase updateBranchNameUseCase(BranchRepository branchRepository, MaxStockIndex maxStockIndex) {
+        return new UpdateBranchNameUseCase(branchRepository, maxStockIndex);
     }
 
     @Bean
-    public AddProductUseCase addProductUseCase(BranchRepository branchRepository, ProductRepository productRepository) {
-        return new AddProductUseCase(branchRepository, productRepository);
+    public AddProductUseCase addProductUseCase(ProductRepository productRepository, MaxStockIndex maxStockIndex) {
+        return new AddProductUseCase(productRepository, maxStockIndex);
     }
 
     @Bean
-    public UpdateProductNameUseCase updateProductNameUseCase(ProductRepository productRepository) {
-        return new UpdateProductNameUseCase(productRepository);
+    public UpdateProductNameUseCase updateProductNameUseCase(ProductRepository productRepository, MaxStockIndex maxStockIndex) {
+        return new UpdateProductNameUseCase(productRepository, maxStockIndex);
     }
 
+    /**
+     * Con {@code franquicias.stock-coalescing.enabled} las escrituras de stock absoluto se agrupan
+     * por ventana ({@code franquicias.stock-coalescing.window}).
+     */
     @Bean
-    public UpdateProductStockUseCase updateProductStockUseCase(ProductRepository productRepository) {
-        return new UpdateProductStockUseCase(productRepository);
+    public UpdateProductStockUseCase updateProductStockUseCase(
+            ProductRepository productRepository,
+            MaxStockIndex maxStockIndex,
+            @Value("${franquicias.stock-coalescing.enabled:false}") boolean coalescingEnabled,
+            @Value("${franquicias.stock-coalescing.window:20ms}") Duration coalescingWindow) {
+        return coalescingEnabled
+                ? new CoalescingUpdateProductStockUseCase(productRepository, maxStockIndex, coalescingWindow)
+                : new UpdateProductStockUseCase(productRepository, maxStockIndex);
     }
 
     @Bean
-    public DeleteProductUseCase deleteProductUseCase(ProductRepository productRepository, BranchRepository branchRepository) {
-        return new DeleteProductUseCase(productRepository, branchRepository);
+    public DeleteProductUseCase deleteProductUseCase(ProductRepository productRepository, BranchRepository branchRepository,
+                                                     MaxStockIndex maxStockIndex) {
+        return new DeleteProductUseCase(productRepository, branchRepository, maxStockIndex);
     }
 
     @Bean
     public GetMaxStockProductsByFranchiseUseCase getMaxStockProductsByFranchiseUseCase(
             FranchiseRepository franchiseRepository,
             BranchRepository branchRepository,
-            ProductRepository productRepository) {
-        return new GetMaxStockProductsByFranchiseUseCase(franchiseRepository, branchRepository, productRepository);
+            ProductRepository productRepository,
+            MaxStockIndex maxStockIndex) {
+        return new GetMaxStockProductsByFranchiseUseCase(franchiseRepository, branchRepository, productRepository,
+                maxStockIndex);
+    }
+
+    @Bean
+    public GetFranchiseStockStatisticsUseCase getFranchiseStockStatisticsUseCase(FranchiseRepository franchiseRepository,
+                                                                                 ProductRepository productRepository) {
+        return new GetFranchiseStockStatisticsUseCase(franchiseRepository, productRepository);
+    }
+
+    @Bean
+    public GetFranchiseTreeUseCase getFranchiseTreeUseCase(FranchiseRepository franchiseRepository,
+                                                           BranchRepository branchRepository,
+                                                           ProductRepository productRepository) {
+        return new GetFranchiseTreeUseCase(franchiseRepository, branchRepository, productRepository);
+    }
+
+    @Bean
+    public ListFranchisesUseCase listFranchisesUseCase(FranchiseRepository franchiseRepository) {
+        return new ListFranchisesUseCase(franchiseRepository);
+    }
+
+    @Bean
+    public ListBranchesByFranchiseUseCase listBranchesByFranchiseUseCase(FranchiseRepository franchiseRepository,
+                                                                         BranchRepository branchRepository) {
+        return new ListBranchesByFranchiseUseCase(franchiseRepository, branchRepository);
+    }
+
+    @Bean
+    public ListProductsByBranchUseCase listProductsByBranchUseCase(BranchRepository branchRepository,
+                                                                   ProductRepository productRepository) {
+        return new ListProductsByBranchUseCase(branchRepository, productRepository);
+    }
+
+    @Bean
+    public AdjustProductStockUseCase adjustProductStockUseCase(ProductRepository productRepository,
+                                                               MaxStockIndex maxStockIndex) {
+        return new AdjustProductStockUseCase(productRepository, maxStockIndex);
+    }
+
+    @Bean
+    public ConfigureProductStockStripesUseCase configureProductStockStripesUseCase(
+            ProductRepository productRepository,
+            MaxStockIndex maxStockIndex,
+            @Value("${franquicias.stock-stripes.enabled:false}") boolean stripingEnabled) {
+        return new ConfigureProductStockStripesUseCase(productRepository, maxStockIndex, stripingEnabled);
+    }
+
+    @Bean
+    public FoldStockStripesUseCase foldStockStripesUseCase(ProductRepository productRepository,
+                                                           MaxStockIndex maxStockIndex) {
+        return new FoldStockStripesUseCase(productRepository, maxStockIndex);
+    }
+
+    @Bean
+    public BulkUpdateProductStockUseCase bulkUpdateProductStockUseCase(ProductRepository productRepository,
+                                                                       MaxStockIndex maxStockIndex) {
+        return new BulkUpdateProductStockUseCase(productRepository, maxStockIndex);
+    }
+
+    @Bean
+    public AddProductsBatchUseCase addProductsBatchUseCase(BranchRepository branchRepository,
+                                                           ProductRepository productRepository,
+                                                           MaxStockIndex maxStockIndex) {
+        return new AddProductsBatchUseCase(branchRepository, productRepository, maxStockIndex);
+    }
+
+    @Bean
+    public ImportCatalogUseCase importCatalogUseCase(CatalogImportRepository catalogImportRepository,
+                                                     IdAllocator idAllocator,
+                                                     MaxStockIndex maxStockIndex) {
+        return new ImportCatalogUseCase(catalogImportRepository, idAllocator, maxStockIndex);
+    }
+
+    @Bean
+    public ExportFranchiseCatalogUseCase exportFranchiseCatalogUseCase(FranchiseRepository franchiseRepository) {
+        return new ExportFranchiseCatalogUseCase(franchiseRepository);
     }
 }
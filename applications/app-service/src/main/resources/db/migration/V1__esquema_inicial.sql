@@ -1,4 +1,4 @@
--- Schema para PostgreSQL - Franquicias API
+-- V1: esquema inicial de la Franquicias API (tablas e índices base)
 
 CREATE TABLE IF NOT EXISTS franchises (
     id BIGSERIAL PRIMARY KEY,
@@ -0,0 +1,8 @@
+-- V2: índice de cobertura para el ranking de stock por sucursal.
+-- Permite resolver "producto(s) con mayor stock por sucursal" con un index-only scan
+-- (branch_id, stock DESC, id) sin leer ni ordenar todos los productos de la sucursal.
+-- CONCURRENTLY evita bloquear escrituras sobre products en bases existentes;
+-- Flyway ejecuta esta sentencia fuera de transacción.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_branch_stock
+    ON products (branch_id, stock DESC, id) INCLUDE (nombre);
@@ -0,0 +1,3 @@
+-- V3: idx_products_branch_id queda cubierto por el prefijo de idx_products_branch_stock (V2).
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_products_branch_id;
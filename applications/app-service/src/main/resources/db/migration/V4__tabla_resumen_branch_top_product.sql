@@ -0,0 +1,131 @@
+-- V4: tabla resumen con el producto de mayor stock de cada sucursal, mantenida por triggers.
+-- La lectura "mayor stock por franquicia" pasa a ser un rango sobre idx_branches_franchise_id
+-- unido por clave primaria a esta tabla, independiente del volumen de products.
+
+CREATE TABLE IF NOT EXISTS branch_top_product (
+    branch_id    BIGINT PRIMARY KEY REFERENCES branches(id) ON DELETE CASCADE,
+    product_id   BIGINT       NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    stock        INTEGER      NOT NULL,
+    updated_at   TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Recalcula el líder de una sucursal con el mismo criterio que la API: mayor stock y,
+-- en empate, menor id. Usa idx_products_branch_stock (V2), por lo que lee una sola entrada.
+-- Bloquea la fila resumen de la sucursal hasta el commit, de modo que el último en recalcular
+-- siempre ve los cambios del anterior. Si la sucursal aún no tiene fila resumen se inserta una
+-- provisional, que se completa o se borra antes de terminar la función; nunca es visible
+-- fuera de la transacción.
+--
+-- Costo: toda escritura que cambie stock, nombre o sucursal de un producto espera, durante el
+-- resto de su transacción, a la anterior que tocó la misma sucursal. Con escrituras de una sola
+-- sentencia el tramo serializado es el recálculo (una entrada de índice) más el commit, así que
+-- el techo por sucursal lo fija la latencia del commit: del orden de 1 000 escrituras/s con
+-- synchronous_commit activo. Sucursales distintas no se esperan entre sí y los triggers las
+-- recorren en orden de id, por lo que no hay interbloqueos entre ellas. Ni siquiera una escritura
+-- que no toca al líder puede saltarse el candado: un recálculo concurrente de la misma sucursal
+-- no ve su fila sin confirmar y dejaría un líder desactualizado. Para sucursales con más carga
+-- que eso están las franjas de stock (V7) y el índice en memoria (MAX_STOCK_INDEX_ENABLED).
+CREATE OR REPLACE FUNCTION refresh_branch_top_product(p_branch_id BIGINT) RETURNS void AS $$
+DECLARE
+    v_top RECORD;
+BEGIN
+    LOOP
+        PERFORM 1 FROM branch_top_product t WHERE t.branch_id = p_branch_id FOR UPDATE;
+        EXIT WHEN FOUND;
+
+        INSERT INTO branch_top_product (branch_id, product_id, product_name, stock)
+        SELECT p_branch_id, 0, '', 0
+        WHERE EXISTS (SELECT 1 FROM branches b WHERE b.id = p_branch_id)
+        ON CONFLICT (branch_id) DO NOTHING;
+        EXIT WHEN FOUND;
+
+        -- La sucursal se eliminó (p. ej. en esta misma transacción, por cascada): no hay resumen.
+        IF NOT EXISTS (SELECT 1 FROM branches b WHERE b.id = p_branch_id) THEN
+            RETURN;
+        END IF;
+    END LOOP;
+
+    SELECT p.id, p.nombre, p.stock INTO v_top
+    FROM products p
+    WHERE p.branch_id = p_branch_id
+    ORDER BY p.stock DESC, p.id
+    LIMIT 1;
+
+    IF NOT FOUND THEN
+        DELETE FROM branch_top_product WHERE branch_id = p_branch_id;
+        RETURN;
+    END IF;
+
+    UPDATE branch_top_product t
+    SET product_id   = v_top.id,
+        product_name = v_top.nombre,
+        stock        = v_top.stock,
+        updated_at   = CURRENT_TIMESTAMP
+    WHERE t.branch_id = p_branch_id
+      AND (t.product_id, t.product_name, t.stock) IS DISTINCT FROM (v_top.id, v_top.nombre, v_top.stock);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Trigger por sentencia con tablas de transición: una carga o actualización masiva
+-- recalcula cada sucursal afectada una sola vez, en orden de id para evitar interbloqueos.
+CREATE OR REPLACE FUNCTION trg_products_branch_top_product() RETURNS trigger AS $$
+DECLARE
+    v_branch_id BIGINT;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        FOR v_branch_id IN SELECT DISTINCT branch_id FROM new_rows ORDER BY branch_id LOOP
+            PERFORM refresh_branch_top_product(v_branch_id);
+        END LOOP;
+    ELSIF TG_OP = 'DELETE' THEN
+        FOR v_branch_id IN SELECT DISTINCT branch_id FROM old_rows ORDER BY branch_id LOOP
+            PERFORM refresh_branch_top_product(v_branch_id);
+        END LOOP;
+    ELSE
+        FOR v_branch_id IN
+            SELECT b.branch_id
+            FROM (
+                SELECT o.branch_id AS old_branch_id, n.branch_id AS new_branch_id
+                FROM old_rows o
+                JOIN new_rows n ON n.id = o.id
+                WHERE (o.stock, o.nombre, o.branch_id) IS DISTINCT FROM (n.stock, n.nombre, n.branch_id)
+            ) c
+            CROSS JOIN LATERAL (VALUES (c.old_branch_id), (c.new_branch_id)) AS b(branch_id)
+            GROUP BY b.branch_id
+            ORDER BY b.branch_id
+        LOOP
+            PERFORM refresh_branch_top_product(v_branch_id);
+        END LOOP;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS products_branch_top_product_ins ON products;
+DROP TRIGGER IF EXISTS products_branch_top_product_upd ON products;
+DROP TRIGGER IF EXISTS products_branch_top_product_del ON products;
+
+CREATE TRIGGER products_branch_top_product_ins
+    AFTER INSERT ON products
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_products_branch_top_product();
+
+CREATE TRIGGER products_branch_top_product_upd
+    AFTER UPDATE ON products
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_products_branch_top_product();
+
+CREATE TRIGGER products_branch_top_product_del
+    AFTER DELETE ON products
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_products_branch_top_product();
+
+-- Carga inicial: se bloquean las escrituras sobre products solo durante esta migración
+-- para que ninguna fila quede fuera del resumen.
+LOCK TABLE products IN SHARE ROW EXCLUSIVE MODE;
+
+INSERT INTO branch_top_product (branch_id, product_id, product_name, stock)
+SELECT DISTINCT ON (p.branch_id) p.branch_id, p.id, p.nombre, p.stock
+FROM products p
+ORDER BY p.branch_id, p.stock DESC, p.id
+ON CONFLICT (branch_id) DO NOTHING;
@@ -0,0 +1,8 @@
+-- V5: índices para paginación por cursor (WHERE padre = ? AND id > ? ORDER BY id LIMIT ?).
+-- Con (padre, id) cada página es un rango contiguo del índice, sin ordenar en memoria.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_branches_franchise_id_id ON branches (franchise_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_branch_id_id ON products (branch_id, id);
+
+-- idx_branches_franchise_id queda cubierto por el prefijo de idx_branches_franchise_id_id.
+DROP INDEX CONCURRENTLY IF EXISTS idx_branches_franchise_id;
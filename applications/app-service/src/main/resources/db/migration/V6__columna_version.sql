@@ -0,0 +1,6 @@
+-- V6: versión por fila para control de concurrencia optimista (ETag / If-Match).
+-- Cada UPDATE la incrementa; los PATCH condicionales exigen WHERE version = :esperada.
+
+ALTER TABLE franchises ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE branches ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
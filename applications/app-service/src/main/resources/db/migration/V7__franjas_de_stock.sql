@@ -0,0 +1,139 @@
+-- V7: stock repartido en franjas para productos muy concurridos.
+-- Un producto con stock_stripes = N > 0 guarda su stock en N filas de product_stock_stripes;
+-- cada ajuste toca una franja al azar, así que las ventas concurrentes no se serializan sobre
+-- la fila de products. products.stock queda como total plegado por la pasada periódica de la
+-- aplicación (franquicias.stock-stripes.enabled, obligatoria para repartir), y solo lo lee la
+-- tabla resumen branch_top_product (V4); las demás lecturas suman las franjas con
+-- product_effective_stock.
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS stock_stripes SMALLINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS product_stock_stripes (
+    product_id BIGINT   NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    stripe     SMALLINT NOT NULL,
+    stock      INTEGER  NOT NULL CHECK (stock >= 0),
+    PRIMARY KEY (product_id, stripe)
+);
+
+-- Stock vigente de un producto: la columna o, si está repartido, la suma de sus franjas.
+CREATE OR REPLACE FUNCTION product_effective_stock(p_id BIGINT, p_stock INTEGER, p_stripes SMALLINT)
+RETURNS INTEGER AS $$
+    SELECT CASE WHEN p_stripes = 0 THEN p_stock
+                ELSE (SELECT CAST(LEAST(COALESCE(SUM(s.stock), 0), 2147483647) AS INTEGER)
+                      FROM product_stock_stripes s
+                      WHERE s.product_id = p_id)
+           END
+$$ LANGUAGE sql STABLE;
+
+-- Aplica un delta a una franja. Primero una franja al azar; si no alcanza, la de mayor saldo
+-- que no esté bloqueada; y solo si ninguna alcanza por sí sola se bloquean todas (en orden de
+-- franja) y se reparte de nuevo el total. Nunca bloquea la fila de products.
+CREATE OR REPLACE FUNCTION adjust_stock_stripe(p_id BIGINT, p_stripes SMALLINT, p_delta INTEGER)
+RETURNS BOOLEAN AS $$
+DECLARE
+    v_stripe SMALLINT := floor(random() * p_stripes);
+    v_total  BIGINT;
+BEGIN
+    UPDATE product_stock_stripes s SET stock = s.stock + p_delta
+    WHERE s.product_id = p_id AND s.stripe = v_stripe
+      AND CAST(s.stock AS BIGINT) + p_delta BETWEEN 0 AND 2147483647;
+    IF FOUND THEN
+        RETURN TRUE;
+    END IF;
+
+    UPDATE product_stock_stripes s SET stock = s.stock + p_delta
+    WHERE s.product_id = p_id
+      AND s.stripe = (SELECT c.stripe
+                      FROM product_stock_stripes c
+                      WHERE c.product_id = p_id
+                        AND CAST(c.stock AS BIGINT) + p_delta BETWEEN 0 AND 2147483647
+                      ORDER BY c.stock DESC
+                      LIMIT 1
+                      FOR UPDATE SKIP LOCKED)
+      AND CAST(s.stock AS BIGINT) + p_delta BETWEEN 0 AND 2147483647;
+    IF FOUND THEN
+        RETURN TRUE;
+    END IF;
+
+    PERFORM 1 FROM product_stock_stripes s WHERE s.product_id = p_id ORDER BY s.stripe FOR UPDATE;
+    SELECT SUM(s.stock) + p_delta INTO v_total FROM product_stock_stripes s WHERE s.product_id = p_id;
+    IF v_total IS NULL OR v_total NOT BETWEEN 0 AND 2147483647 THEN
+        RETURN FALSE;
+    END IF;
+
+    UPDATE product_stock_stripes s
+    SET stock = v_total / p_stripes + CASE WHEN s.stripe < v_total % p_stripes THEN 1 ELSE 0 END
+    WHERE s.product_id = p_id;
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Ajuste relativo de stock para cualquier producto. Sin franjas es el UPDATE condicional de
+-- siempre; con franjas delega en adjust_stock_stripe y devuelve el stock sumado. Si las franjas
+-- se activan o desactivan entre la lectura y la escritura se reintenta una vez.
+-- Devuelve cero filas si el producto no existe o si el stock quedaría fuera de rango.
+CREATE OR REPLACE FUNCTION adjust_product_stock(p_id BIGINT, p_delta INTEGER)
+RETURNS TABLE (id BIGINT, nombre VARCHAR, stock INTEGER, branch_id BIGINT, version BIGINT) AS $$
+#variable_conflict use_column
+DECLARE
+    v_stripes SMALLINT;
+BEGIN
+    FOR v_attempt IN 1..2 LOOP
+        SELECT p.stock_stripes INTO v_stripes FROM products p WHERE p.id = p_id;
+        IF NOT FOUND THEN
+            RETURN;
+        END IF;
+
+        IF v_stripes = 0 THEN
+            RETURN QUERY
+                UPDATE products p SET stock = p.stock + p_delta, version = p.version + 1
+                WHERE p.id = p_id AND p.stock_stripes = 0
+                  AND CAST(p.stock AS BIGINT) + p_delta BETWEEN 0 AND 2147483647
+                RETURNING p.id, p.nombre, p.stock, p.branch_id, p.version;
+            IF FOUND OR NOT EXISTS (SELECT 1 FROM products p WHERE p.id = p_id AND p.stock_stripes > 0) THEN
+                RETURN;
+            END IF;
+        ELSIF adjust_stock_stripe(p_id, v_stripes, p_delta) THEN
+            RETURN QUERY
+                SELECT p.id, p.nombre, product_effective_stock(p.id, p.stock, p.stock_stripes), p.branch_id, p.version
+                FROM products p
+                WHERE p.id = p_id;
+            RETURN;
+        ELSIF EXISTS (SELECT 1 FROM product_stock_stripes s WHERE s.product_id = p_id) THEN
+            RETURN;
+        END IF;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Activa (N > 0), cambia o desactiva (0) el reparto de un producto conservando su stock total.
+-- Bloquea la fila de products y luego las franjas en orden, igual que las escrituras absolutas.
+CREATE OR REPLACE FUNCTION set_product_stock_stripes(p_id BIGINT, p_stripes INTEGER)
+RETURNS TABLE (id BIGINT, nombre VARCHAR, stock INTEGER, branch_id BIGINT, version BIGINT) AS $$
+#variable_conflict use_column
+DECLARE
+    v_current SMALLINT;
+    v_stock   INTEGER;
+    v_total   BIGINT;
+BEGIN
+    SELECT p.stock_stripes, p.stock INTO v_current, v_stock FROM products p WHERE p.id = p_id FOR UPDATE;
+    IF NOT FOUND THEN
+        RETURN;
+    END IF;
+
+    PERFORM 1 FROM product_stock_stripes s WHERE s.product_id = p_id ORDER BY s.stripe FOR UPDATE;
+    v_total := LEAST(product_effective_stock(p_id, v_stock, v_current), 2147483647);
+
+    DELETE FROM product_stock_stripes s WHERE s.product_id = p_id;
+    IF p_stripes > 0 THEN
+        INSERT INTO product_stock_stripes (product_id, stripe, stock)
+        SELECT p_id, g, v_total / p_stripes + CASE WHEN g < v_total % p_stripes THEN 1 ELSE 0 END
+        FROM generate_series(0, p_stripes - 1) AS g;
+    END IF;
+
+    RETURN QUERY
+        UPDATE products p SET stock = v_total, stock_stripes = p_stripes, version = p.version + 1
+        WHERE p.id = p_id
+        RETURNING p.id, p.nombre, p.stock, p.branch_id, p.version;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,8 @@
+-- V8: índice parcial de los productos repartidos en franjas (V7).
+-- El top de mayor stock por sucursal toma los primeros productos sin franjas de
+-- idx_products_branch_stock y suma aparte los repartidos, cuyo stock vigente está en
+-- product_stock_stripes; este índice los encuentra sin recorrer la sucursal completa.
+-- CONCURRENTLY evita bloquear escrituras; Flyway ejecuta esta sentencia fuera de transacción.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_branch_striped
+    ON products (branch_id) WHERE stock_stripes > 0;
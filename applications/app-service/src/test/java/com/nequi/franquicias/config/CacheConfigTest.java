@@ -0,0 +1,42 @@
+package com.nequi.franquicias.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("CacheConfig")
+class CacheConfigTest {
+
+    private final CacheConfig config = new CacheConfig();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("publica las métricas de las cachés activas")
+    void publicaMetricasDeCachesActivas() {
+        assertTrue(config.branchExistenceCache(registry, true, 10, Duration.ofMinutes(1)).isEnabled());
+        assertTrue(config.franchiseEntityCache(registry, true, 10, Duration.ofMinutes(1)).isEnabled());
+        assertTrue(config.productNegativeCache(registry, true, 10, Duration.ofSeconds(30)).isEnabled());
+
+        assertNotNull(registry.find("cache.gets").tag("cache", "branch-exists").meter());
+        assertNotNull(registry.find("cache.size").tag("cache", "franchise-entity").meter());
+        assertNotNull(registry.find("cache.load.duration").tag("cache", "franchise-entity").meter());
+        assertNotNull(registry.find("cache.gets").tag("cache", "product-missing").meter());
+    }
+
+    @Test
+    @DisplayName("no crea cachés ni métricas si están inactivas")
+    void noCreaCachesInactivas() {
+        assertFalse(config.franchiseExistenceCache(registry, false, 10, Duration.ofMinutes(1)).isEnabled());
+        assertFalse(config.franchiseEntityCache(registry, false, 10, Duration.ofMinutes(1)).isEnabled());
+        assertFalse(config.branchNegativeCache(registry, false, 10, Duration.ofSeconds(30)).isEnabled());
+
+        assertNull(registry.find("cache.gets").meter());
+    }
+}
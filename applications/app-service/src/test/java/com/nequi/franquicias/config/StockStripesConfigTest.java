@@ -0,0 +1,33 @@
+package com.nequi.franquicias.config;
+
+import com.nequi.franquicias.usecase.FoldStockStripesUseCase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockStripesConfig")
+class StockStripesConfigTest {
+
+    @Mock
+    private FoldStockStripesUseCase foldStockStripesUseCase;
+
+    @Test
+    @DisplayName("desactivado no programa el plegado")
+    void desactivadoNoPlegaFranjas() throws Exception {
+        new StockStripesConfig()
+                .stockStripesFold(foldStockStripesUseCase, false, Duration.ofMillis(1))
+                .run(new DefaultApplicationArguments());
+
+        Thread.sleep(50);
+        verify(foldStockStripesUseCase, never()).execute();
+    }
+}
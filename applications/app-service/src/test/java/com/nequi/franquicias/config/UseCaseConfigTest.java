@@ -1,9 +1,23 @@
 package com.nequi.franquicias.config;
 
+import com.nequi.franquicias.drivenadapter.cache.CachingBranchRepository;
+import com.nequi.franquicias.drivenadapter.cache.CachingCatalogImportRepository;
+import com.nequi.franquicias.drivenadapter.cache.CachingFranchiseRepository;
+import com.nequi.franquicias.drivenadapter.cache.CachingProductRepository;
+import com.nequi.franquicias.drivenadapter.cache.EntityCache;
+import com.nequi.franquicias.drivenadapter.cache.ExistenceCache;
+import com.nequi.franquicias.drivenadapter.cache.NegativeCache;
+import com.nequi.franquicias.drivenadapter.r2dbc.BranchRepositoryAdapter;
+import com.nequi.franquicias.drivenadapter.r2dbc.CatalogImportRepositoryAdapter;
+import com.nequi.franquicias.drivenadapter.r2dbc.FranchiseRepositoryAdapter;
+import com.nequi.franquicias.drivenadapter.r2dbc.ProductRepositoryAdapter;
 import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.model.port.CatalogImportRepository;
 import com.nequi.franquicias.model.port.FranchiseRepository;
+import com.nequi.franquicias.model.port.IdAllocator;
 import com.nequi.franquicias.model.port.ProductRepository;
 import com.nequi.franquicias.usecase.*;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,7 +25,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("UseCaseConfig")
@@ -26,6 +44,24 @@ class UseCaseConfigTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private CatalogImportRepository catalogImportRepository;
+
+    @Mock
+    private IdAllocator idAllocator;
+
+    @Mock
+    private FranchiseRepositoryAdapter franchiseRepositoryAdapter;
+
+    @Mock
+    private BranchRepositoryAdapter branchRepositoryAdapter;
+
+    @Mock
+    private ProductRepositoryAdapter productRepositoryAdapter;
+
+    @Mock
+    private CatalogImportRepositoryAdapter catalogImportRepositoryAdapter;
+
     private UseCaseConfig config;
 
     @BeforeEach
@@ -33,6 +69,34 @@ class UseCaseConfigTest {
         config = new UseCaseConfig();
     }
 
+    @Test
+    @DisplayName("decora los repositorios si alguna caché está activa")
+    void decoraRepositoriosConCache() {
+        NegativeCache negativeCache = new NegativeCache(10, Duration.ofSeconds(30));
+
+        assertInstanceOf(CachingFranchiseRepository.class, config.franchiseRepository(franchiseRepositoryAdapter,
+                new ExistenceCache(10, Duration.ofMinutes(1)), EntityCache.disabled(), NegativeCache.disabled()));
+        assertInstanceOf(CachingBranchRepository.class, config.branchRepository(branchRepositoryAdapter,
+                new ExistenceCache(10, Duration.ofMinutes(1)), NegativeCache.disabled()));
+        assertInstanceOf(CachingProductRepository.class,
+                config.productRepository(productRepositoryAdapter, negativeCache));
+        assertInstanceOf(CachingCatalogImportRepository.class, config.catalogImportRepository(catalogImportRepositoryAdapter,
+                NegativeCache.disabled(), NegativeCache.disabled(), negativeCache));
+    }
+
+    @Test
+    @DisplayName("usa los adaptadores sin decorar si las cachés están inactivas")
+    void usaAdaptadoresSinCache() {
+        assertSame(franchiseRepositoryAdapter, config.franchiseRepository(franchiseRepositoryAdapter,
+                ExistenceCache.disabled(), EntityCache.disabled(), NegativeCache.disabled()));
+        assertSame(branchRepositoryAdapter, config.branchRepository(branchRepositoryAdapter,
+                ExistenceCache.disabled(), NegativeCache.disabled()));
+        assertSame(productRepositoryAdapter,
+                config.productRepository(productRepositoryAdapter, NegativeCache.disabled()));
+        assertSame(catalogImportRepositoryAdapter, config.catalogImportRepository(catalogImportRepositoryAdapter,
+                NegativeCache.disabled(), NegativeCache.disabled(), NegativeCache.disabled()));
+    }
+
     @Test
     @DisplayName("crea AddFranchiseUseCase")
     void creaAddFranchiseUseCase() {
@@ -48,43 +112,107 @@ class UseCaseConfigTest {
     @Test
     @DisplayName("crea AddBranchUseCase")
     void creaAddBranchUseCase() {
-        assertNotNull(config.addBranchUseCase(franchiseRepository, branchRepository));
+        assertNotNull(config.addBranchUseCase(branchRepository));
     }
 
     @Test
     @DisplayName("crea UpdateBranchNameUseCase")
     void creaUpdateBranchNameUseCase() {
-        assertNotNull(config.updateBranchNameUseCase(branchRepository));
+        assertNotNull(config.updateBranchNameUseCase(branchRepository, MaxStockIndex.disabled()));
     }
 
     @Test
     @DisplayName("crea AddProductUseCase")
     void creaAddProductUseCase() {
-        assertNotNull(config.addProductUseCase(branchRepository, productRepository));
+        assertNotNull(config.addProductUseCase(productRepository, MaxStockIndex.disabled()));
     }
 
     @Test
     @DisplayName("crea UpdateProductNameUseCase")
     void creaUpdateProductNameUseCase() {
-        assertNotNull(config.updateProductNameUseCase(productRepository));
+        assertNotNull(config.updateProductNameUseCase(productRepository, MaxStockIndex.disabled()));
     }
 
     @Test
     @DisplayName("crea UpdateProductStockUseCase")
     void creaUpdateProductStockUseCase() {
-        assertNotNull(config.updateProductStockUseCase(productRepository));
+        assertNotNull(config.updateProductStockUseCase(productRepository, MaxStockIndex.disabled(), false, Duration.ofMillis(20)));
+    }
+
+    @Test
+    @DisplayName("crea la variante con agrupación de escrituras si está activa")
+    void creaUpdateProductStockUseCaseConAgrupacion() {
+        assertInstanceOf(CoalescingUpdateProductStockUseCase.class,
+                config.updateProductStockUseCase(productRepository, MaxStockIndex.disabled(), true, Duration.ofMillis(20)));
     }
 
     @Test
     @DisplayName("crea DeleteProductUseCase")
     void creaDeleteProductUseCase() {
-        assertNotNull(config.deleteProductUseCase(productRepository, branchRepository));
+        assertNotNull(config.deleteProductUseCase(productRepository, branchRepository, MaxStockIndex.disabled()));
     }
 
     @Test
     @DisplayName("crea GetMaxStockProductsByFranchiseUseCase")
     void creaGetMaxStockProductsByFranchiseUseCase() {
         assertNotNull(config.getMaxStockProductsByFranchiseUseCase(
-                franchiseRepository, branchRepository, productRepository));
+                franchiseRepository, branchRepository, productRepository, MaxStockIndex.disabled()));
+    }
+
+    @Test
+    @DisplayName("crea GetFranchiseStockStatisticsUseCase")
+    void creaGetFranchiseStockStatisticsUseCase() {
+        assertNotNull(config.getFranchiseStockStatisticsUseCase(franchiseRepository, productRepository));
+    }
+
+    @Test
+    @DisplayName("crea GetFranchiseTreeUseCase")
+    void creaGetFranchiseTreeUseCase() {
+        assertNotNull(config.getFranchiseTreeUseCase(franchiseRepository, branchRepository, productRepository));
+    }
+
+    @Test
+    @DisplayName("crea casos de uso de listados paginados")
+    void creaListadosPaginados() {
+        assertNotNull(config.listFranchisesUseCase(franchiseRepository));
+        assertNotNull(config.listBranchesByFranchiseUseCase(franchiseRepository, branchRepository));
+        assertNotNull(config.listProductsByBranchUseCase(branchRepository, productRepository));
+    }
+
+    @Test
+    @DisplayName("crea AdjustProductStockUseCase")
+    void creaAdjustProductStockUseCase() {
+        assertNotNull(config.adjustProductStockUseCase(productRepository, MaxStockIndex.disabled()));
+    }
+
+    @Test
+    @DisplayName("crea casos de uso de franjas de stock")
+    void creaCasosDeUsoDeFranjas() {
+        assertNotNull(config.configureProductStockStripesUseCase(productRepository, MaxStockIndex.disabled(), true));
+        assertNotNull(config.foldStockStripesUseCase(productRepository, MaxStockIndex.disabled()));
+    }
+
+    @Test
+    @DisplayName("crea BulkUpdateProductStockUseCase")
+    void creaBulkUpdateProductStockUseCase() {
+        assertNotNull(config.bulkUpdateProductStockUseCase(productRepository, MaxStockIndex.disabled()));
+    }
+
+    @Test
+    @DisplayName("crea AddProductsBatchUseCase")
+    void creaAddProductsBatchUseCase() {
+        assertNotNull(config.addProductsBatchUseCase(branchRepository, productRepository, MaxStockIndex.disabled()));
+    }
+
+    @Test
+    @DisplayName("crea ImportCatalogUseCase")
+    void creaImportCatalogUseCase() {
+        assertNotNull(config.importCatalogUseCase(catalogImportRepository, idAllocator, MaxStockIndex.disabled()));
+    }
+
+    @Test
+    @DisplayName("crea ExportFranchiseCatalogUseCase")
+    void creaExportFranchiseCatalogUseCase() {
+        assertNotNull(config.exportFranchiseCatalogUseCase(franchiseRepository));
     }
 }
@@ -5,9 +5,10 @@ import java.util.Objects;
 
 /**
  * Entidad de dominio que representa una sucursal.
- * Contiene productos ofertados.
+ * Contiene productos ofertados. {@code version} aumenta con cada modificación
+ * (control de concurrencia optimista); es nula si no se conoce.
  */
-public record Branch(Long id, String nombre, Long franchiseId, List<Product> productos) {
+public record Branch(Long id, String nombre, Long franchiseId, List<Product> productos, Long version) {
 
     public Branch {
         Objects.requireNonNull(nombre, "El nombre de la sucursal no puede ser nulo");
@@ -15,7 +16,11 @@ public record Branch(Long id, String nombre, Long franchiseId, List<Product> pro
         productos = productos != null ? List.copyOf(productos) : List.of();
     }
 
+    public Branch(Long id, String nombre, Long franchiseId, List<Product> productos) {
+        this(id, nombre, franchiseId, productos, null);
+    }
+
     public Branch withProductos(List<Product> nuevosProductos) {
-        return new Branch(id, nombre, franchiseId, nuevosProductos);
+        return new Branch(id, nombre, franchiseId, nuevosProductos, version);
     }
 }
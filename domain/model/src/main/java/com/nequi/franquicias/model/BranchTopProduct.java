@@ -0,0 +1,25 @@
+package com.nequi.franquicias.model;
+
+import java.util.Objects;
+
+/**
+ * Proyección de dominio: producto con mayor stock de una sucursal.
+ * Incluye el nombre de la sucursal para no requerir consultas adicionales.
+ */
+public record BranchTopProduct(Long productId, String productName, Integer stock,
+                               Long branchId, String branchName, Long franchiseId) {
+
+    public BranchTopProduct {
+        Objects.requireNonNull(productId, "El productId no puede ser nulo");
+        Objects.requireNonNull(stock, "El stock no puede ser nulo");
+        Objects.requireNonNull(branchId, "El branchId no puede ser nulo");
+    }
+
+    public BranchTopProduct withProduct(Product product) {
+        return new BranchTopProduct(product.id(), product.nombre(), product.stock(), branchId, branchName, franchiseId);
+    }
+
+    public BranchTopProduct withBranchName(String nuevoNombre) {
+        return new BranchTopProduct(productId, productName, stock, branchId, nuevoNombre, franchiseId);
+    }
+}
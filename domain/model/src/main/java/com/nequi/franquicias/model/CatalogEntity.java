@@ -0,0 +1,22 @@
+package com.nequi.franquicias.model;
+
+/**
+ * Entidades del catálogo que admiten importación masiva.
+ * Cada una define el encabezado CSV canónico: las columnas deben llegar en ese orden.
+ */
+public enum CatalogEntity {
+
+    FRANCHISES("id,nombre"),
+    BRANCHES("id,franquicia_id,nombre"),
+    PRODUCTS("id,sucursal_id,nombre,stock");
+
+    private final String csvHeader;
+
+    CatalogEntity(String csvHeader) {
+        this.csvHeader = csvHeader;
+    }
+
+    public String csvHeader() {
+        return csvHeader;
+    }
+}
@@ -0,0 +1,34 @@
+package com.nequi.franquicias.model;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de un listado por cursor (keyset): elementos ordenados por id y el id a partir del
+ * cual continúa la siguiente página, o {@code null} si no hay más elementos.
+ */
+public record CursorPage<T>(List<T> items, Long nextAfterId) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    public CursorPage {
+        items = items != null ? List.copyOf(items) : List.of();
+    }
+
+    /**
+     * Construye la página a partir de una lectura de {@code limit + 1} filas: la fila extra
+     * solo indica que existe una página siguiente y no se devuelve.
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, Long> idOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> page = fetched.subList(0, limit);
+        return new CursorPage<>(page, idOf.apply(page.get(limit - 1)));
+    }
+
+    public boolean hasNext() {
+        return nextAfterId != null;
+    }
+}
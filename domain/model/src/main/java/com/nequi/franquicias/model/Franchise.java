@@ -5,12 +5,17 @@ import java.util.Objects;
 
 /**
  * Entidad de dominio que representa una franquicia.
- * Contiene sucursales con sus productos.
+ * Contiene sucursales con sus productos. {@code version} aumenta con cada modificación
+ * (control de concurrencia optimista); es nula si no se conoce.
  */
-public record Franchise(Long id, String nombre, List<Branch> sucursales) {
+public record Franchise(Long id, String nombre, List<Branch> sucursales, Long version) {
 
     public Franchise {
         Objects.requireNonNull(nombre, "El nombre de la franquicia no puede ser nulo");
         sucursales = sucursales != null ? List.copyOf(sucursales) : List.of();
     }
+
+    public Franchise(Long id, String nombre, List<Branch> sucursales) {
+        this(id, nombre, sucursales, null);
+    }
 }
@@ -0,0 +1,25 @@
+package com.nequi.franquicias.model;
+
+import java.util.Objects;
+
+/**
+ * Proyección de dominio: una línea del catálogo plano de una franquicia (franquicia, sucursal, producto).
+ * Una sucursal sin productos aparece con los datos de producto nulos y una franquicia sin
+ * sucursales, con los de sucursal y producto nulos.
+ */
+public record FranchiseCatalogEntry(Long franchiseId, String franchiseName,
+                                    Long branchId, String branchName,
+                                    Long productId, String productName, Integer stock) {
+
+    public FranchiseCatalogEntry {
+        Objects.requireNonNull(franchiseId, "El franchiseId no puede ser nulo");
+    }
+
+    public boolean hasBranch() {
+        return branchId != null;
+    }
+
+    public boolean hasProduct() {
+        return productId != null;
+    }
+}
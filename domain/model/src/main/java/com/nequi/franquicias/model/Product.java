@@ -4,9 +4,10 @@ import java.util.Objects;
 
 /**
  * Entidad de dominio que representa un producto.
- * Inmutable - cumple principios de programación funcional.
+ * Inmutable - cumple principios de programación funcional. {@code version} aumenta con cada
+ * modificación (control de concurrencia optimista); es nula si no se conoce.
  */
-public record Product(Long id, String nombre, Integer stock, Long branchId) {
+public record Product(Long id, String nombre, Integer stock, Long branchId, Long version) {
 
     public Product {
         Objects.requireNonNull(nombre, "El nombre del producto no puede ser nulo");
@@ -17,10 +18,14 @@ public record Product(Long id, String nombre, Integer stock, Long branchId) {
         }
     }
 
+    public Product(Long id, String nombre, Integer stock, Long branchId) {
+        this(id, nombre, stock, branchId, null);
+    }
+
     public Product withStock(Integer newStock) {
         if (newStock < 0) {
             throw new IllegalArgumentException("El stock no puede ser negativo");
         }
-        return new Product(id, nombre, newStock, branchId);
+        return new Product(id, nombre, newStock, branchId, version);
     }
 }
@@ -0,0 +1,21 @@
+package com.nequi.franquicias.model;
+
+import java.util.Objects;
+
+/**
+ * Proyección de dominio: estadísticas de stock de una sucursal o, si {@code branchId} es nulo,
+ * de la franquicia completa. Los valores de stock son nulos cuando no hay productos.
+ */
+public record StockStatistics(Long branchId, String branchName, Long productCount, Long totalStock,
+                              Integer minStock, Integer maxStock, Double avgStock,
+                              Double p50Stock, Double p95Stock) {
+
+    public StockStatistics {
+        Objects.requireNonNull(productCount, "El productCount no puede ser nulo");
+        Objects.requireNonNull(totalStock, "El totalStock no puede ser nulo");
+    }
+
+    public boolean isFranchiseTotal() {
+        return branchId == null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.nequi.franquicias.model;
+
+import java.util.Objects;
+
+/**
+ * Valor de stock absoluto a fijar en un producto dentro de una actualización masiva.
+ */
+public record StockUpdate(Long productId, Integer stock) {
+
+    public StockUpdate {
+        Objects.requireNonNull(productId, "El productId no puede ser nulo");
+        Objects.requireNonNull(stock, "El stock no puede ser nulo");
+        if (stock < 0) {
+            throw new IllegalArgumentException("El stock no puede ser negativo");
+        }
+    }
+}
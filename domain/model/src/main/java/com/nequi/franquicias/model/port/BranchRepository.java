@@ -1,6 +1,7 @@
 package com.nequi.franquicias.model.port;
 
 import com.nequi.franquicias.model.Branch;
+import com.nequi.franquicias.model.BranchTopProduct;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -10,8 +11,33 @@ import reactor.core.publisher.Mono;
 public interface BranchRepository {
 
     Mono<Branch> save(Branch branch);
+
+    /**
+     * Cambia solo el nombre y retorna la fila actualizada; vacío si no existe o si
+     * {@code expectedVersion} no es nulo y no coincide con la versión actual.
+     */
+    Mono<Branch> updateNombre(Long id, String nombre, Long expectedVersion);
+
+    /**
+     * Inserta la sucursal solo si su franquicia existe, en una única sentencia.
+     * Vacío si la franquicia no existe o se elimina en paralelo.
+     */
+    Mono<Branch> insertIfFranchiseExists(Branch branch);
     Mono<Branch> findById(Long id);
     Flux<Branch> findByFranchiseId(Long franchiseId);
+
+    /**
+     * Hasta {@code limit} sucursales de la franquicia con id mayor que {@code afterId}, ordenadas por id.
+     */
+    Flux<Branch> findPageByFranchiseId(Long franchiseId, Long afterId, int limit);
     Mono<Boolean> existsById(Long id);
     Mono<Boolean> existsByIdAndFranchiseId(Long id, Long franchiseId);
+
+    /**
+     * Producto con mayor stock de cada sucursal de la franquicia, leído de la tabla resumen
+     * que mantiene la base de datos. Las sucursales sin productos no aparecen.
+     * La tabla resumen usa el stock plegado: para un producto repartido en franjas refleja los ajustes
+     * recién en el siguiente plegado ({@link ProductRepository#foldStockStripes()}).
+     */
+    Flux<BranchTopProduct> findTopProductsByFranchiseId(Long franchiseId);
 }
@@ -0,0 +1,20 @@
+package com.nequi.franquicias.model.port;
+
+import com.nequi.franquicias.model.CatalogEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Puerto de salida para la carga masiva del catálogo.
+ * Recibe el contenido como CSV con encabezado (ver {@link CatalogEntity#csvHeader()}) y conserva
+ * los ids de origen; la carga es atómica por llamada.
+ */
+public interface CatalogImportRepository {
+
+    /**
+     * Carga el CSV en streaming y retorna la cantidad de filas insertadas.
+     */
+    Mono<Long> importCsv(CatalogEntity entity, Flux<ByteBuffer> csv);
+}
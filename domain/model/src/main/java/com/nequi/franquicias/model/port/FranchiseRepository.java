@@ -1,6 +1,7 @@
 package com.nequi.franquicias.model.port;
 
 import com.nequi.franquicias.model.Franchise;
+import com.nequi.franquicias.model.FranchiseCatalogEntry;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -11,7 +12,25 @@ import reactor.core.publisher.Mono;
 public interface FranchiseRepository {
 
     Mono<Franchise> save(Franchise franchise);
+
+    /**
+     * Cambia solo el nombre y retorna la fila actualizada; vacío si no existe o si
+     * {@code expectedVersion} no es nulo y no coincide con la versión actual.
+     */
+    Mono<Franchise> updateNombre(Long id, String nombre, Long expectedVersion);
+
     Mono<Franchise> findById(Long id);
     Flux<Franchise> findAll();
+
+    /**
+     * Hasta {@code limit} franquicias con id mayor que {@code afterId}, ordenadas por id.
+     */
+    Flux<Franchise> findPage(Long afterId, int limit);
     Mono<Boolean> existsById(Long id);
+
+    /**
+     * Catálogo plano de la franquicia ordenado por sucursal y producto, leído con un único cursor.
+     * Vacío si la franquicia no existe.
+     */
+    Flux<FranchiseCatalogEntry> streamCatalog(Long franchiseId);
 }
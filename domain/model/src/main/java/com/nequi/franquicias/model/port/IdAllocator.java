@@ -0,0 +1,25 @@
+package com.nequi.franquicias.model.port;
+
+import com.nequi.franquicias.model.CatalogEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Puerto de salida para reservar ids antes de insertar. Las cargas multi-fila y COPY
+ * conocen así los ids de antemano y no necesitan recuperarlos fila a fila.
+ */
+public interface IdAllocator {
+
+    /**
+     * Reserva {@code count} ids nuevos para la entidad. Un id entregado no se vuelve a entregar,
+     * aunque la inserción que lo usa falle (quedan huecos, igual que con la secuencia).
+     */
+    Mono<List<Long>> allocate(CatalogEntity entity, int count);
+
+    /**
+     * Olvida los ids reservados y aún no entregados de la entidad. Una importación puede haber
+     * insertado algunos con sus ids de origen; los siguientes se reservan de la secuencia ya ajustada.
+     */
+    void discard(CatalogEntity entity);
+}
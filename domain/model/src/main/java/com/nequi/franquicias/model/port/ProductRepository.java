@@ -1,18 +1,116 @@
 package com.nequi.franquicias.model.port;
 
+import com.nequi.franquicias.model.BranchTopProduct;
 import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.StockStatistics;
+import com.nequi.franquicias.model.StockUpdate;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * Puerto de salida para persistencia de productos.
  */
 public interface ProductRepository {
 
     Mono<Product> save(Product product);
+
+    /**
+     * Cambia solo el nombre y retorna la fila actualizada; vacío si no existe o si
+     * {@code expectedVersion} no es nulo y no coincide con la versión actual.
+     */
+    Mono<Product> updateNombre(Long id, String nombre, Long expectedVersion);
+
+    /**
+     * Inserta el producto solo si su sucursal existe, en una única sentencia.
+     * Vacío si la sucursal no existe o se elimina en paralelo.
+     */
+    Mono<Product> insertIfBranchExists(Product product);
+
+    /**
+     * Inserta productos nuevos de una sucursal en una sola sentencia con ids reservados de antemano
+     * y los devuelve con su id, en el orden recibido. Si la sucursal no existe (también si se eliminó
+     * después de validarla) no inserta nada y retorna vacío.
+     */
+    Flux<Product> insertAll(Long branchId, List<Product> products);
     Mono<Product> findById(Long id);
+
+    /**
+     * Fija el stock de un producto en una sola sentencia y devuelve la fila actualizada,
+     * o vacío si el producto no existe o si {@code expectedVersion} no es nulo y no coincide.
+     * Con {@code expectedVersion} un producto repartido en franjas siempre devuelve vacío: sus ajustes
+     * relativos no cambian la versión, que por tanto no cubre su stock.
+     */
+    Mono<Product> updateStock(Long id, Integer stock, Long expectedVersion);
+
+    /**
+     * Suma {@code delta} al stock en una sola sentencia condicional y devuelve la fila actualizada.
+     * Devuelve vacío si el producto no existe o si el stock resultante quedaría negativo
+     * (o fuera del rango de la columna); en ese caso no se modifica nada.
+     */
+    Mono<Product> adjustStock(Long id, Integer delta);
+
+    /**
+     * Reparte el stock del producto en {@code stripes} franjas (0 lo devuelve a una sola fila),
+     * conservando el total. Vacío si el producto no existe.
+     */
+    Mono<Product> setStockStripes(Long id, int stripes);
+
+    /**
+     * Alinea el stock plegado de los productos repartidos con la suma de sus franjas y
+     * devuelve los que cambiaron. Las lecturas de este puerto ya suman las franjas; el plegado
+     * solo alimenta la tabla resumen de {@link BranchRepository#findTopProductsByFranchiseId(Long)}.
+     */
+    Flux<Product> foldStockStripes();
+
+    /**
+     * Aplica un lote de stocks absolutos en una sola sentencia y devuelve los productos
+     * actualizados; los ids inexistentes simplemente no aparecen. Los ids del lote deben ser únicos.
+     */
+    Flux<Product> updateStocks(List<StockUpdate> updates);
     Flux<Product> findByBranchId(Long branchId);
+
+    /**
+     * Hasta {@code limit} productos de la sucursal con id mayor que {@code afterId}, ordenados por id.
+     */
+    Flux<Product> findPageByBranchId(Long branchId, Long afterId, int limit);
     Mono<Void> deleteById(Long id);
+
+    /**
+     * Elimina el producto solo si pertenece a la sucursal, en una única sentencia.
+     * Retorna la cantidad de filas eliminadas (0 o 1).
+     */
+    Mono<Long> deleteByIdAndBranchId(Long id, Long branchId);
     Mono<Boolean> existsById(Long id);
     Mono<Boolean> existsByIdAndBranchId(Long id, Long branchId);
+
+    /**
+     * Todos los productos de las sucursales de una franquicia en una sola consulta,
+     * ordenados por sucursal e id.
+     */
+    Flux<Product> findByFranchiseId(Long franchiseId);
+
+    /**
+     * Los {@code limitPerBranch} productos con mayor stock de cada sucursal de la franquicia,
+     * resueltos en una sola consulta y ordenados por sucursal y posición.
+     * Las sucursales sin productos no aparecen; los empates se resuelven por el menor id de producto.
+     */
+    Flux<BranchTopProduct> findTopStockByFranchiseId(Long franchiseId, int limitPerBranch);
+
+    /**
+     * Producto con mayor stock de todas las sucursales; usado para reconstruir índices en memoria.
+     */
+    Flux<BranchTopProduct> findTopStockPerBranch();
+
+    /**
+     * Producto con mayor stock de una sucursal, o vacío si la sucursal no tiene productos.
+     */
+    Mono<BranchTopProduct> findTopStockByBranchId(Long branchId);
+
+    /**
+     * Estadísticas de stock agregadas en la base de datos: una fila por sucursal de la franquicia
+     * (ordenadas por id) seguida de la fila total de la franquicia, con {@code branchId} nulo.
+     */
+    Flux<StockStatistics> findStockStatisticsByFranchiseId(Long franchiseId);
 }
@@ -0,0 +1,39 @@
+package com.nequi.franquicias.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BranchTopProduct - Modelo de dominio")
+class BranchTopProductTest {
+
+    @Test
+    @DisplayName("crea proyección con valores válidos")
+    void creaProyeccionValida() {
+        BranchTopProduct top = new BranchTopProduct(1L, "Producto", 10, 5L, "Sucursal", 2L);
+
+        assertEquals(1L, top.productId());
+        assertEquals(10, top.stock());
+        assertEquals("Sucursal", top.branchName());
+    }
+
+    @Test
+    @DisplayName("rechaza branchId nulo")
+    void rechazaBranchIdNulo() {
+        assertThrows(NullPointerException.class, () ->
+                new BranchTopProduct(1L, "Producto", 10, null, "Sucursal", 2L));
+    }
+
+    @Test
+    @DisplayName("withProduct conserva datos de la sucursal")
+    void withProductConservaSucursal() {
+        BranchTopProduct top = new BranchTopProduct(1L, "Producto", 10, 5L, "Sucursal", 2L);
+        BranchTopProduct actualizado = top.withProduct(new Product(3L, "Otro", 20, 5L));
+
+        assertEquals(3L, actualizado.productId());
+        assertEquals(20, actualizado.stock());
+        assertEquals("Sucursal", actualizado.branchName());
+        assertEquals(2L, actualizado.franchiseId());
+    }
+}
@@ -0,0 +1,27 @@
+package com.nequi.franquicias.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("CatalogEntity")
+class CatalogEntityTest {
+
+    @Test
+    @DisplayName("define el encabezado CSV canónico de cada entidad")
+    void defineEncabezadoCsv() {
+        assertEquals("id,nombre", CatalogEntity.FRANCHISES.csvHeader());
+        assertEquals("id,franquicia_id,nombre", CatalogEntity.BRANCHES.csvHeader());
+        assertEquals("id,sucursal_id,nombre,stock", CatalogEntity.PRODUCTS.csvHeader());
+    }
+
+    @Test
+    @DisplayName("todas las entidades empiezan por el id de origen")
+    void todasEmpiezanPorId() {
+        for (CatalogEntity entity : CatalogEntity.values()) {
+            assertTrue(entity.csvHeader().startsWith("id,"));
+        }
+    }
+}
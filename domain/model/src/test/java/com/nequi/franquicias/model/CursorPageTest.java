@@ -0,0 +1,32 @@
+package com.nequi.franquicias.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CursorPage - Modelo de dominio")
+class CursorPageTest {
+
+    @Test
+    @DisplayName("con fila extra expone cursor al último elemento de la página")
+    void conFilaExtraExponeCursor() {
+        CursorPage<Long> page = CursorPage.of(List.of(3L, 5L, 8L), 2, id -> id);
+
+        assertEquals(List.of(3L, 5L), page.items());
+        assertEquals(5L, page.nextAfterId());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    @DisplayName("sin fila extra es la última página")
+    void sinFilaExtraEsUltimaPagina() {
+        CursorPage<Long> page = CursorPage.of(List.of(3L, 5L), 2, id -> id);
+
+        assertEquals(2, page.items().size());
+        assertNull(page.nextAfterId());
+        assertFalse(page.hasNext());
+    }
+}
@@ -0,0 +1,36 @@
+package com.nequi.franquicias.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FranchiseCatalogEntry - Modelo de dominio")
+class FranchiseCatalogEntryTest {
+
+    @Test
+    @DisplayName("crea línea completa de catálogo")
+    void creaLineaCompleta() {
+        FranchiseCatalogEntry entry = new FranchiseCatalogEntry(1L, "Franquicia", 2L, "Sucursal", 3L, "Producto", 10);
+
+        assertTrue(entry.hasBranch());
+        assertTrue(entry.hasProduct());
+        assertEquals(10, entry.stock());
+    }
+
+    @Test
+    @DisplayName("representa sucursal sin productos")
+    void representaSucursalSinProductos() {
+        FranchiseCatalogEntry entry = new FranchiseCatalogEntry(1L, "Franquicia", 2L, "Sucursal", null, null, null);
+
+        assertTrue(entry.hasBranch());
+        assertFalse(entry.hasProduct());
+    }
+
+    @Test
+    @DisplayName("rechaza franchiseId nulo")
+    void rechazaFranchiseIdNulo() {
+        assertThrows(NullPointerException.class, () ->
+                new FranchiseCatalogEntry(null, "Franquicia", null, null, null, null, null));
+    }
+}
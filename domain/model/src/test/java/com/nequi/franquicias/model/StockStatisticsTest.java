@@ -0,0 +1,35 @@
+package com.nequi.franquicias.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StockStatistics - Modelo de dominio")
+class StockStatisticsTest {
+
+    @Test
+    @DisplayName("fila de sucursal no es total de franquicia")
+    void filaDeSucursal() {
+        StockStatistics stats = new StockStatistics(5L, "Sucursal", 3L, 60L, 10, 30, 20.0, 20.0, 29.0);
+
+        assertFalse(stats.isFranchiseTotal());
+        assertEquals(60L, stats.totalStock());
+    }
+
+    @Test
+    @DisplayName("fila sin branchId es el total de la franquicia")
+    void filaTotalDeFranquicia() {
+        StockStatistics stats = new StockStatistics(null, null, 0L, 0L, null, null, null, null, null);
+
+        assertTrue(stats.isFranchiseTotal());
+        assertNull(stats.maxStock());
+    }
+
+    @Test
+    @DisplayName("rechaza productCount nulo")
+    void rechazaProductCountNulo() {
+        assertThrows(NullPointerException.class, () ->
+                new StockStatistics(5L, "Sucursal", null, 0L, null, null, null, null, null));
+    }
+}
@@ -0,0 +1,31 @@
+package com.nequi.franquicias.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StockUpdate - Modelo de dominio")
+class StockUpdateTest {
+
+    @Test
+    @DisplayName("crea actualización válida")
+    void creaActualizacionValida() {
+        StockUpdate update = new StockUpdate(1L, 0);
+
+        assertEquals(1L, update.productId());
+        assertEquals(0, update.stock());
+    }
+
+    @Test
+    @DisplayName("rechaza stock negativo")
+    void rechazaStockNegativo() {
+        assertThrows(IllegalArgumentException.class, () -> new StockUpdate(1L, -1));
+    }
+
+    @Test
+    @DisplayName("rechaza productId nulo")
+    void rechazaProductIdNulo() {
+        assertThrows(NullPointerException.class, () -> new StockUpdate(null, 5));
+    }
+}
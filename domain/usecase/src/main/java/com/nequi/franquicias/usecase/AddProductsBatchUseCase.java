@@ -0,0 +1,82 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Caso de uso: Crear muchos productos en una sucursal (alta de catálogo).
+ * La sucursal se valida una sola vez y los productos se insertan en bloques de
+ * {@link #CHUNK_SIZE} con una sentencia multi-fila por bloque; cada producto creado se
+ * emite en cuanto su bloque se confirma. Cada bloque vuelve a comprobar la sucursal en su
+ * sentencia: si se eliminó a mitad del lote, los bloques ya confirmados se conservan y el
+ * resto falla como sucursal inexistente.
+ */
+public class AddProductsBatchUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(AddProductsBatchUseCase.class);
+
+    public static final int CHUNK_SIZE = 1_000;
+    public static final int MAX_PRODUCTS = 10_000;
+
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+    private final MaxStockIndex maxStockIndex;
+
+    public AddProductsBatchUseCase(BranchRepository branchRepository, ProductRepository productRepository,
+                                   MaxStockIndex maxStockIndex) {
+        this.branchRepository = branchRepository;
+        this.productRepository = productRepository;
+        this.maxStockIndex = maxStockIndex;
+    }
+
+    /**
+     * Datos de un producto a crear.
+     */
+    public record NewProduct(String nombre, Integer stock) {}
+
+    public Flux<Product> execute(Long branchId, List<NewProduct> products) {
+        return Mono.justOrEmpty(branchId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID de sucursal es requerido")))
+                .zipWith(Mono.fromCallable(() -> toProducts(branchId, products)))
+                .flatMap(tuple -> branchRepository.existsById(tuple.getT1())
+                        .flatMap(exists -> Boolean.TRUE.equals(exists)
+                                ? Mono.just(tuple.getT2())
+                                : Mono.error(new IllegalArgumentException("Sucursal no encontrada: " + tuple.getT1()))))
+                .flatMapMany(Flux::fromIterable)
+                .buffer(CHUNK_SIZE)
+                .concatMap(chunk -> productRepository.insertAll(branchId, chunk)
+                        .switchIfEmpty(Flux.error(new IllegalArgumentException("Sucursal no encontrada: " + branchId))))
+                .concatMap(p -> maxStockIndex.onProductSaved(p).thenReturn(p))
+                .doOnComplete(() -> log.info("Productos creados en lote: branchId={}, cantidad={}", branchId, products.size()))
+                .doOnError(e -> log.error("Error creando productos en lote: {}", e.getMessage()));
+    }
+
+    private List<Product> toProducts(Long branchId, List<NewProduct> products) {
+        if (products == null || products.isEmpty() || products.size() > MAX_PRODUCTS) {
+            throw new IllegalArgumentException("El lote debe tener entre 1 y " + MAX_PRODUCTS + " productos");
+        }
+        return IntStream.range(0, products.size())
+                .mapToObj(i -> toProduct(branchId, i, products.get(i)))
+                .toList();
+    }
+
+    private Product toProduct(Long branchId, int position, NewProduct item) {
+        if (item == null || item.nombre() == null || item.nombre().isBlank()) {
+            throw new IllegalArgumentException("El nombre del producto es requerido (posición " + position + ")");
+        }
+        int stock = item.stock() != null ? item.stock() : 0;
+        if (stock < 0) {
+            throw new IllegalArgumentException("El stock no puede ser negativo (posición " + position + ")");
+        }
+        return new Product(null, item.nombre().trim(), stock, branchId);
+    }
+}
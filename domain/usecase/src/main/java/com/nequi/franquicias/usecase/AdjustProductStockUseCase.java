@@ -0,0 +1,50 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso: Ajustar el stock de un producto de forma relativa (p. ej. "se vendieron 3").
+ * El ajuste es una sola sentencia condicional en la base de datos, sin lectura previa, por lo
+ * que ventas concurrentes sobre el mismo producto no pierden actualizaciones. Solo cuando el
+ * ajuste no se aplica se consulta si el producto existe, para distinguir 404 de conflicto.
+ */
+public class AdjustProductStockUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(AdjustProductStockUseCase.class);
+
+    private final ProductRepository productRepository;
+    private final MaxStockIndex maxStockIndex;
+
+    public AdjustProductStockUseCase(ProductRepository productRepository, MaxStockIndex maxStockIndex) {
+        this.productRepository = productRepository;
+        this.maxStockIndex = maxStockIndex;
+    }
+
+    public Mono<Product> execute(Long productId, Integer delta) {
+        return Mono.justOrEmpty(productId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID del producto es requerido")))
+                .zipWith(Mono.justOrEmpty(delta)
+                        .filter(d -> d != 0)
+                        .switchIfEmpty(Mono.error(new IllegalArgumentException("El ajuste de stock es requerido y no puede ser cero"))))
+                .flatMap(tuple -> productRepository.adjustStock(tuple.getT1(), tuple.getT2())
+                        .switchIfEmpty(Mono.defer(() -> rejectAdjustment(tuple.getT1(), tuple.getT2()))))
+                .flatMap(p -> maxStockIndex.onProductSaved(p).thenReturn(p))
+                .doOnNext(p -> log.info("Stock ajustado: productId={}, delta={}, nuevoStock={}", p.id(), delta, p.stock()))
+                .doOnError(e -> log.error("Error ajustando stock: {}", e.getMessage()));
+    }
+
+    private Mono<Product> rejectAdjustment(Long productId, Integer delta) {
+        return productRepository.existsById(productId)
+                .flatMap(exists -> Mono.error(Boolean.TRUE.equals(exists)
+                        ? new ResponseStatusException(HttpStatus.CONFLICT,
+                                "Stock insuficiente: el ajuste " + delta + " dejaría el producto " + productId + " con stock negativo")
+                        : new IllegalArgumentException("Producto no encontrado: " + productId)));
+    }
+}
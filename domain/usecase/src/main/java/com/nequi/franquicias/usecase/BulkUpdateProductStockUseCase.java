@@ -0,0 +1,86 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.StockUpdate;
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Caso de uso: Actualizar el stock de muchos productos en lote (sincronizaciones de inventario).
+ * El lote se divide en bloques de {@link #CHUNK_SIZE} y cada bloque es una sola sentencia por
+ * conjunto; cada bloque se confirma por separado. Si un producto aparece varias veces gana el
+ * último valor. Se emite un resultado por producto indicando si existía.
+ */
+public class BulkUpdateProductStockUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkUpdateProductStockUseCase.class);
+
+    public static final int CHUNK_SIZE = 1_000;
+    public static final int MAX_UPDATES = 50_000;
+
+    private final ProductRepository productRepository;
+    private final MaxStockIndex maxStockIndex;
+
+    public BulkUpdateProductStockUseCase(ProductRepository productRepository, MaxStockIndex maxStockIndex) {
+        this.productRepository = productRepository;
+        this.maxStockIndex = maxStockIndex;
+    }
+
+    /**
+     * Resultado por producto: {@code updated} es falso cuando el producto no existe.
+     */
+    public record Result(Long productId, Integer stock, boolean updated) {}
+
+    public Flux<Result> execute(List<StockUpdate> updates) {
+        return Mono.justOrEmpty(updates)
+                .filter(list -> !list.isEmpty() && list.size() <= MAX_UPDATES && list.stream().noneMatch(Objects::isNull))
+                .switchIfEmpty(Mono.error(new IllegalArgumentException(
+                        "El lote debe tener entre 1 y " + MAX_UPDATES + " actualizaciones válidas")))
+                .flatMapMany(list -> Flux.fromIterable(lastValuePerProduct(list)))
+                .buffer(CHUNK_SIZE)
+                .concatMap(this::applyChunk)
+                .doOnComplete(() -> log.info("Actualización masiva de stock completada: solicitados={}", updates.size()))
+                .doOnError(e -> log.error("Error en actualización masiva de stock: {}", e.getMessage()));
+    }
+
+    /**
+     * Una sentencia UPDATE ... FROM unnest con ids repetidos actualizaría la fila con un valor
+     * arbitrario; se conserva el último valor recibido para cada producto.
+     */
+    private List<StockUpdate> lastValuePerProduct(List<StockUpdate> updates) {
+        Map<Long, StockUpdate> byProduct = new LinkedHashMap<>();
+        updates.forEach(u -> byProduct.put(u.productId(), u));
+        return List.copyOf(byProduct.values());
+    }
+
+    /**
+     * Los ids se envían ordenados para que lotes concurrentes bloqueen filas en el mismo orden.
+     */
+    private Flux<Result> applyChunk(List<StockUpdate> chunk) {
+        List<StockUpdate> ordered = chunk.stream()
+                .sorted(Comparator.comparing(StockUpdate::productId))
+                .toList();
+        return productRepository.updateStocks(ordered)
+                .collectMap(Product::id, Function.identity())
+                .flatMapMany(updated -> Flux.fromIterable(chunk)
+                        .concatMap(u -> {
+                            Product product = updated.get(u.productId());
+                            return product == null
+                                    ? Mono.just(new Result(u.productId(), u.stock(), false))
+                                    : maxStockIndex.onProductSaved(product)
+                                            .thenReturn(new Result(product.id(), product.stock(), true));
+                        }))
+                .doOnComplete(() -> log.debug("Bloque de stock aplicado: tamaño={}", chunk.size()));
+    }
+}
@@ -0,0 +1,145 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.StockUpdate;
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Variante de {@link UpdateProductStockUseCase} que agrupa escrituras de stock absoluto.
+ * Las peticiones que llegan dentro de una ventana se acumulan por producto (gana el último valor)
+ * y se escriben juntas con una sentencia por conjunto; cada petición en espera recibe el valor
+ * persistido. Solo hay una escritura en curso a la vez, así que un valor recibido después de
+ * cerrar una ventana nunca se aplica antes que los de esa ventana. Una petición cancelada antes
+ * de cerrar la ventana retira su valor; si ya se está escribiendo, la escritura sigue su curso.
+ */
+public class CoalescingUpdateProductStockUseCase extends UpdateProductStockUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(CoalescingUpdateProductStockUseCase.class);
+
+    private final Duration window;
+
+    /** Guardado por {@code this}. */
+    private Map<Long, Pending> pending = new HashMap<>();
+    /** Verdadero desde que se programa una escritura hasta que termina; guardado por {@code this}. */
+    private boolean flushScheduled;
+
+    public CoalescingUpdateProductStockUseCase(ProductRepository productRepository, MaxStockIndex maxStockIndex,
+                                               Duration window) {
+        super(productRepository, maxStockIndex);
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("La ventana de agrupación debe ser positiva");
+        }
+        this.window = window;
+    }
+
+    /**
+     * Peticiones de un producto que esperan su escritura, en orden de llegada; se escribe el valor
+     * de la última.
+     */
+    private static final class Pending {
+        private final List<Waiter> waiters = new ArrayList<>();
+
+        private Integer stock() {
+            return waiters.get(waiters.size() - 1).stock();
+        }
+    }
+
+    private record Waiter(Integer stock, MonoSink<Product> sink) {
+    }
+
+    /**
+     * Una escritura condicionada por versión no se puede fusionar con otras: va directa.
+     */
+    @Override
+    protected Mono<Product> persist(Long productId, Integer stock, Long expectedVersion) {
+        if (expectedVersion != null) {
+            return super.persist(productId, stock, expectedVersion);
+        }
+        return Mono.create(sink -> enqueue(productId, stock, sink));
+    }
+
+    private synchronized void enqueue(Long productId, Integer stock, MonoSink<Product> sink) {
+        Waiter waiter = new Waiter(stock, sink);
+        pending.computeIfAbsent(productId, id -> new Pending()).waiters.add(waiter);
+        sink.onCancel(() -> withdraw(productId, waiter));
+        if (!flushScheduled) {
+            flushScheduled = true;
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Retira una petición cancelada que sigue en la ventana abierta; si era la última del producto,
+     * el producto no se escribe.
+     */
+    private synchronized void withdraw(Long productId, Waiter waiter) {
+        Pending entry = pending.get(productId);
+        if (entry != null && entry.waiters.remove(waiter) && entry.waiters.isEmpty()) {
+            pending.remove(productId);
+        }
+    }
+
+    private void scheduleFlush() {
+        Mono.delay(window)
+                .then(Mono.defer(this::flush))
+                .subscribe(v -> { }, e -> log.error("Error inesperado agrupando stock: {}", e.getMessage()));
+    }
+
+    private Mono<Void> flush() {
+        Map<Long, Pending> batch = takePending();
+        List<StockUpdate> updates = batch.entrySet().stream()
+                .map(e -> new StockUpdate(e.getKey(), e.getValue().stock()))
+                .sorted(Comparator.comparing(StockUpdate::productId))
+                .toList();
+        int requests = batch.values().stream().mapToInt(p -> p.waiters.size()).sum();
+        return Flux.fromIterable(updates)
+                .buffer(BulkUpdateProductStockUseCase.CHUNK_SIZE)
+                .concatMap(productRepository::updateStocks)
+                .concatMap(p -> maxStockIndex.onProductSaved(p).thenReturn(p))
+                .collectMap(Product::id, Function.identity())
+                .doOnNext(saved -> {
+                    log.debug("Stock agrupado: peticiones={}, escrituras={}", requests, saved.size());
+                    batch.forEach((id, entry) -> complete(entry, saved.get(id), id));
+                })
+                .doOnError(e -> batch.values().forEach(entry -> entry.waiters.forEach(w -> w.sink().error(e))))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> afterFlush())
+                .then();
+    }
+
+    private void complete(Pending entry, Product saved, Long productId) {
+        if (saved == null) {
+            entry.waiters.forEach(w -> w.sink().error(new IllegalArgumentException("Producto no encontrado: " + productId)));
+        } else {
+            entry.waiters.forEach(w -> w.sink().success(saved));
+        }
+    }
+
+    private synchronized Map<Long, Pending> takePending() {
+        Map<Long, Pending> batch = pending;
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    private synchronized void afterFlush() {
+        if (pending.isEmpty()) {
+            flushScheduled = false;
+        } else {
+            scheduleFlush();
+        }
+    }
+}
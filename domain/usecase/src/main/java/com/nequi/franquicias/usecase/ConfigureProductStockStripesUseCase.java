@@ -0,0 +1,54 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso: Repartir el stock de un producto muy concurrido en franjas.
+ * Con N franjas cada ajuste relativo toca una de ellas al azar, de modo que las ventas
+ * simultáneas del mismo producto dejan de esperar por un único candado de fila.
+ * Con 0 franjas el producto vuelve a guardar su stock en una sola fila. El total no cambia.
+ * Repartir solo se permite con el plegado periódico activo ({@code stripingEnabled}): sin él la tabla
+ * resumen del top quedaría con el total anterior al reparto. Volver a 0 franjas siempre se permite.
+ */
+public class ConfigureProductStockStripesUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigureProductStockStripesUseCase.class);
+
+    public static final int MAX_STRIPES = 64;
+
+    private final ProductRepository productRepository;
+    private final MaxStockIndex maxStockIndex;
+    private final boolean stripingEnabled;
+
+    public ConfigureProductStockStripesUseCase(ProductRepository productRepository, MaxStockIndex maxStockIndex,
+                                               boolean stripingEnabled) {
+        this.productRepository = productRepository;
+        this.maxStockIndex = maxStockIndex;
+        this.stripingEnabled = stripingEnabled;
+    }
+
+    public Mono<Product> execute(Long productId, Integer stripes) {
+        return Mono.justOrEmpty(productId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID del producto es requerido")))
+                .zipWith(Mono.justOrEmpty(stripes)
+                        .filter(n -> n >= 0 && n <= MAX_STRIPES)
+                        .switchIfEmpty(Mono.error(new IllegalArgumentException(
+                                "La cantidad de franjas debe estar entre 0 y " + MAX_STRIPES)))
+                        .filter(n -> n == 0 || stripingEnabled)
+                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+                                "El reparto de stock en franjas está desactivado"))))
+                .flatMap(tuple -> productRepository.setStockStripes(tuple.getT1(), tuple.getT2())
+                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
+                                "Producto no encontrado: " + tuple.getT1()))))
+                .flatMap(p -> maxStockIndex.onProductSaved(p).thenReturn(p))
+                .doOnNext(p -> log.info("Franjas de stock configuradas: productId={}, franjas={}, stock={}", p.id(), stripes, p.stock()))
+                .doOnError(e -> log.error("Error configurando franjas de stock: {}", e.getMessage()));
+    }
+}
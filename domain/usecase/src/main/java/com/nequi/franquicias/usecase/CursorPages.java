@@ -0,0 +1,24 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.CursorPage;
+import reactor.core.publisher.Mono;
+
+/**
+ * Validaciones comunes de los listados paginados por cursor.
+ */
+final class CursorPages {
+
+    private CursorPages() {
+    }
+
+    static Mono<Integer> requireLimit(Integer limit) {
+        return Mono.justOrEmpty(limit)
+                .filter(l -> l >= 1 && l <= CursorPage.MAX_LIMIT)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException(
+                        "El tamaño de página debe estar entre 1 y " + CursorPage.MAX_LIMIT)));
+    }
+
+    static long afterIdOrStart(Long afterId) {
+        return afterId != null ? afterId : 0L;
+    }
+}
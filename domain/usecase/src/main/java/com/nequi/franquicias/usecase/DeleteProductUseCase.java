@@ -2,13 +2,15 @@ package com.nequi.franquicias.usecase;
 
 import com.nequi.franquicias.model.port.BranchRepository;
 import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
 
 /**
  * Caso de uso: Eliminar un producto de una sucursal.
- * Valida que el producto pertenezca a la sucursal antes de eliminar.
+ * La pertenencia a la sucursal se comprueba en la misma sentencia DELETE: si no se elimina
+ * ninguna fila el producto no existe o pertenece a otra sucursal.
  */
 public class DeleteProductUseCase {
 
@@ -16,10 +18,13 @@ public class DeleteProductUseCase {
 
     private final ProductRepository productRepository;
     private final BranchRepository branchRepository;
+    private final MaxStockIndex maxStockIndex;
 
-    public DeleteProductUseCase(ProductRepository productRepository, BranchRepository branchRepository) {
+    public DeleteProductUseCase(ProductRepository productRepository, BranchRepository branchRepository,
+                                MaxStockIndex maxStockIndex) {
         this.productRepository = productRepository;
         this.branchRepository = branchRepository;
+        this.maxStockIndex = maxStockIndex;
     }
 
     public Mono<Void> execute(Long productId, Long branchId) {
@@ -27,9 +32,9 @@ public class DeleteProductUseCase {
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID del producto es requerido")))
                 .flatMap(pid -> Mono.justOrEmpty(branchId)
                         .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID de sucursal es requerido")))
-                        .flatMap(bid -> productRepository.existsByIdAndBranchId(pid, bid)
-                                .flatMap(exists -> Boolean.TRUE.equals(exists)
-                                        ? productRepository.deleteById(pid)
+                        .flatMap(bid -> productRepository.deleteByIdAndBranchId(pid, bid)
+                                .flatMap(deleted -> deleted > 0
+                                        ? maxStockIndex.onProductDeleted(pid, bid)
                                         : Mono.error(new IllegalArgumentException("Producto no encontrado en la sucursal indicada")))))
                 .doOnSuccess(v -> log.info("Producto eliminado: productId={}, branchId={}", productId, branchId))
                 .doOnError(e -> log.error("Error eliminando producto: {}", e.getMessage()))
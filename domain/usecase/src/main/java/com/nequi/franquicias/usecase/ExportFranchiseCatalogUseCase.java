@@ -0,0 +1,36 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.FranchiseCatalogEntry;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso: Exportar el catálogo completo de una franquicia (sucursales y productos).
+ * Las líneas se emiten según la demanda del consumidor directamente desde el cursor del puerto,
+ * sin acumularse. La consulta siempre trae la fila de la franquicia, así que un resultado vacío
+ * significa franquicia inexistente y el error se produce antes de emitir nada.
+ */
+public class ExportFranchiseCatalogUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportFranchiseCatalogUseCase.class);
+
+    private final FranchiseRepository franchiseRepository;
+
+    public ExportFranchiseCatalogUseCase(FranchiseRepository franchiseRepository) {
+        this.franchiseRepository = franchiseRepository;
+    }
+
+    public Flux<FranchiseCatalogEntry> execute(Long franchiseId) {
+        return Mono.justOrEmpty(franchiseId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID de franquicia es requerido")))
+                .flatMapMany(franchiseRepository::streamCatalog)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Franquicia no encontrada: " + franchiseId)))
+                .doOnComplete(() -> log.info("Catálogo exportado: franchiseId={}", franchiseId))
+                .doOnError(e -> log.error("Error exportando catálogo: {}", e.getMessage()));
+    }
+}
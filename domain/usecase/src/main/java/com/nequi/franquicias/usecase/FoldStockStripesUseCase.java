@@ -0,0 +1,41 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso: Plegar el stock de los productos repartidos en franjas.
+ * Los ajustes sobre franjas no tocan la fila de products; esta pasada periódica copia la suma
+ * a products.stock (de donde lee la tabla resumen) y avisa al índice en memoria. Cada producto
+ * repartido bloquea su fila una vez por pasada, no por venta.
+ */
+public class FoldStockStripesUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(FoldStockStripesUseCase.class);
+
+    private final ProductRepository productRepository;
+    private final MaxStockIndex maxStockIndex;
+
+    public FoldStockStripesUseCase(ProductRepository productRepository, MaxStockIndex maxStockIndex) {
+        this.productRepository = productRepository;
+        this.maxStockIndex = maxStockIndex;
+    }
+
+    /**
+     * Retorna la cantidad de productos cuyo stock plegado cambió.
+     */
+    public Mono<Long> execute() {
+        return productRepository.foldStockStripes()
+                .concatMap(p -> maxStockIndex.onProductSaved(p).thenReturn(p))
+                .count()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.debug("Stock plegado desde franjas: productos={}", count);
+                    }
+                })
+                .doOnError(e -> log.error("Error plegando franjas de stock: {}", e.getMessage()));
+    }
+}
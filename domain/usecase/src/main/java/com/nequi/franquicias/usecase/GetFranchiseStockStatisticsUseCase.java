@@ -0,0 +1,40 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.StockStatistics;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import com.nequi.franquicias.model.port.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso: Obtener estadísticas de stock de una franquicia.
+ * Emite una fila por sucursal y una fila total de la franquicia; el cálculo completo
+ * (conteo, suma, mínimo, máximo, promedio y percentiles) se hace en la base de datos.
+ */
+public class GetFranchiseStockStatisticsUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(GetFranchiseStockStatisticsUseCase.class);
+
+    private final FranchiseRepository franchiseRepository;
+    private final ProductRepository productRepository;
+
+    public GetFranchiseStockStatisticsUseCase(FranchiseRepository franchiseRepository,
+                                              ProductRepository productRepository) {
+        this.franchiseRepository = franchiseRepository;
+        this.productRepository = productRepository;
+    }
+
+    public Flux<StockStatistics> execute(Long franchiseId) {
+        return Flux.from(Mono.justOrEmpty(franchiseId)
+                        .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID de franquicia es requerido")))
+                        .filterWhen(franchiseRepository::existsById)
+                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Franquicia no encontrada: " + franchiseId))))
+                .flatMap(productRepository::findStockStatisticsByFranchiseId)
+                .doOnComplete(() -> log.debug("Estadísticas de stock emitidas para franchiseId={}", franchiseId))
+                .doOnError(e -> log.error("Error obteniendo estadísticas de stock: {}", e.getMessage()));
+    }
+}
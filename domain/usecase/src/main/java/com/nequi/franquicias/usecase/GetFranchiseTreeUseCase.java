@@ -0,0 +1,64 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Branch;
+import com.nequi.franquicias.model.Franchise;
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import com.nequi.franquicias.model.port.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Caso de uso: Obtener el árbol completo de una franquicia (sucursales con sus productos).
+ * Se resuelve con tres consultas por conjunto lanzadas en paralelo (franquicia, sucursales y
+ * productos de la franquicia) y se ensambla en memoria con una sola agrupación, de modo que
+ * el número de consultas no crece con la cantidad de sucursales.
+ */
+public class GetFranchiseTreeUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(GetFranchiseTreeUseCase.class);
+
+    private final FranchiseRepository franchiseRepository;
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+
+    public GetFranchiseTreeUseCase(FranchiseRepository franchiseRepository,
+                                   BranchRepository branchRepository,
+                                   ProductRepository productRepository) {
+        this.franchiseRepository = franchiseRepository;
+        this.branchRepository = branchRepository;
+        this.productRepository = productRepository;
+    }
+
+    public Mono<Franchise> execute(Long franchiseId) {
+        return Mono.justOrEmpty(franchiseId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID de franquicia es requerido")))
+                .flatMap(id -> Mono.zip(
+                                franchiseRepository.findById(id)
+                                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Franquicia no encontrada: " + id))),
+                                branchRepository.findByFranchiseId(id).collectList(),
+                                productRepository.findByFranchiseId(id).collectList())
+                        .map(tuple -> assemble(tuple.getT1(), tuple.getT2(), tuple.getT3())))
+                .doOnNext(f -> log.info("Árbol de franquicia obtenido: id={}, sucursales={}", f.id(), f.sucursales().size()))
+                .doOnError(e -> log.error("Error obteniendo árbol de franquicia: {}", e.getMessage()));
+    }
+
+    private Franchise assemble(Franchise franchise, List<Branch> branches, List<Product> products) {
+        Map<Long, List<Product>> productsByBranch = products.stream()
+                .collect(Collectors.groupingBy(Product::branchId));
+        List<Branch> sucursales = branches.stream()
+                .sorted(Comparator.comparing(Branch::id))
+                .map(b -> b.withProductos(productsByBranch.getOrDefault(b.id(), List.of())))
+                .toList();
+        return new Franchise(franchise.id(), franchise.nombre(), sucursales);
+    }
+}
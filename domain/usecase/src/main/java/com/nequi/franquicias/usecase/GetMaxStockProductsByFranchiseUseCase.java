@@ -1,36 +1,46 @@
 package com.nequi.franquicias.usecase;
 
-import com.nequi.franquicias.model.Branch;
-import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.BranchTopProduct;
 import com.nequi.franquicias.model.port.BranchRepository;
 import com.nequi.franquicias.model.port.FranchiseRepository;
 import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
- * Caso de uso: Obtener el producto con más stock por sucursal para una franquicia.
- * Retorna listado de productos indicando a qué sucursal pertenece cada uno.
- * Encadena flujos con operadores: flatMap, map, switchIfEmpty, reduce, collectList.
- * Usa señales onNext, onError, onComplete correctamente.
+ * Caso de uso: Obtener los productos con más stock por sucursal para una franquicia.
+ * Retorna listado de productos indicando a qué sucursal pertenece cada uno; por defecto
+ * uno por sucursal y hasta {@link #MAX_PRODUCTS_PER_BRANCH} si se solicita un top-K.
+ * Para K=1, si el índice en memoria está activo y listo responde sin consultar la base de datos;
+ * si no, lee la tabla resumen que la base de datos mantiene por sucursal. Para K&gt;1 el cálculo
+ * se delega al puerto de productos en una única consulta. La existencia de la franquicia
+ * solo se verifica cuando el resultado llega vacío.
  */
 public class GetMaxStockProductsByFranchiseUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(GetMaxStockProductsByFranchiseUseCase.class);
 
+    public static final int MAX_PRODUCTS_PER_BRANCH = 100;
+
     private final FranchiseRepository franchiseRepository;
     private final BranchRepository branchRepository;
     private final ProductRepository productRepository;
+    private final MaxStockIndex maxStockIndex;
 
     public GetMaxStockProductsByFranchiseUseCase(FranchiseRepository franchiseRepository,
                                                  BranchRepository branchRepository,
-                                                 ProductRepository productRepository) {
+                                                 ProductRepository productRepository,
+                                                 MaxStockIndex maxStockIndex) {
         this.franchiseRepository = franchiseRepository;
         this.branchRepository = branchRepository;
         this.productRepository = productRepository;
+        this.maxStockIndex = maxStockIndex;
     }
 
     /**
@@ -39,40 +49,57 @@ public class GetMaxStockProductsByFranchiseUseCase {
     public record ProductWithBranch(Long productId, String productName, Integer stock, Long branchId, String branchName) {}
 
     public Mono<List<ProductWithBranch>> execute(Long franchiseId) {
-        return Mono.justOrEmpty(franchiseId)
-                .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID de franquicia es requerido")))
-                .flatMap(id -> franchiseRepository.existsById(id)
-                        .flatMap(exists -> Boolean.TRUE.equals(exists)
-                                ? Mono.just(id)
-                                : Mono.error(new IllegalArgumentException("Franquicia no encontrada: " + id))))
-                .flatMapMany(branchRepository::findByFranchiseId)
-                .flatMap(this::findMaxStockProductInBranch)
+        return execute(franchiseId, 1);
+    }
+
+    public Mono<List<ProductWithBranch>> execute(Long franchiseId, Integer productsPerBranch) {
+        return stream(franchiseId, productsPerBranch)
                 .collectList()
                 .doOnNext(list -> log.info("Productos con mayor stock por sucursal: franchiseId={}, cantidad={}", franchiseId, list.size()))
-                .doOnError(e -> log.error("Error obteniendo productos con mayor stock: {}", e.getMessage()))
                 .doOnSuccess(list -> log.debug("Flujo completado para franchiseId={}", franchiseId));
     }
 
     /**
-     * Encuentra el producto con mayor stock en una sucursal.
-     * Usa reduce para encadenar y comparar productos, map para transformar,
-     * switchIfEmpty para manejar sucursales sin productos.
+     * Variante en streaming: emite cada producto en cuanto se resuelve, sin acumular la lista.
+     * La demanda del consumidor (p. ej. el socket HTTP) se propaga hasta el puerto.
      */
-    private Mono<ProductWithBranch> findMaxStockProductInBranch(Branch branch) {
-        return productRepository.findByBranchId(branch.id())
-                .reduce((a, b) -> a.stock() >= b.stock() ? a : b)
-                .map(product -> new ProductWithBranch(
-                        product.id(),
-                        product.nombre(),
-                        product.stock(),
-                        branch.id(),
-                        branch.nombre()))
-                .switchIfEmpty(Mono.defer(() -> {
-                    log.debug("Sucursal {} no tiene productos, omitiendo", branch.nombre());
-                    return Mono.empty();
-                }))
-                .doOnNext(pwb -> log.debug("Producto con mayor stock: branch={}, product={}, stock={}",
-                        branch.nombre(), pwb.productName(), pwb.stock()))
-                .doOnError(e -> log.error("Error procesando sucursal {}: {}", branch.nombre(), e.getMessage()));
+    public Flux<ProductWithBranch> stream(Long franchiseId, Integer productsPerBranch) {
+        return Mono.justOrEmpty(franchiseId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID de franquicia es requerido")))
+                .zipWith(Mono.justOrEmpty(productsPerBranch)
+                        .filter(k -> k >= 1 && k <= MAX_PRODUCTS_PER_BRANCH)
+                        .switchIfEmpty(Mono.error(new IllegalArgumentException(
+                                "La cantidad de productos por sucursal debe estar entre 1 y " + MAX_PRODUCTS_PER_BRANCH))))
+                .flatMapMany(tuple -> findTopProducts(tuple.getT1(), tuple.getT2()))
+                .map(this::toProductWithBranch)
+                .doOnError(e -> log.error("Error obteniendo productos con mayor stock: {}", e.getMessage()));
+    }
+
+    private Flux<BranchTopProduct> findTopProducts(Long franchiseId, int productsPerBranch) {
+        return (productsPerBranch == 1 ? maxStockIndex.findByFranchiseId(franchiseId) : Optional.<List<BranchTopProduct>>empty())
+                .map(Flux::fromIterable)
+                .orElseGet(() -> queryTopProducts(franchiseId, productsPerBranch)
+                        .switchIfEmpty(Flux.defer(() -> requireFranchise(franchiseId).thenMany(Flux.empty()))));
+    }
+
+    private Flux<BranchTopProduct> queryTopProducts(Long franchiseId, int productsPerBranch) {
+        return productsPerBranch == 1
+                ? branchRepository.findTopProductsByFranchiseId(franchiseId)
+                : productRepository.findTopStockByFranchiseId(franchiseId, productsPerBranch);
+    }
+
+    /**
+     * Un resultado vacío puede significar franquicia sin productos o franquicia inexistente;
+     * solo en ese caso se paga la consulta de existencia.
+     */
+    private Mono<Long> requireFranchise(Long franchiseId) {
+        return franchiseRepository.existsById(franchiseId)
+                .flatMap(exists -> Boolean.TRUE.equals(exists)
+                        ? Mono.just(franchiseId)
+                        : Mono.error(new IllegalArgumentException("Franquicia no encontrada: " + franchiseId)));
+    }
+
+    private ProductWithBranch toProductWithBranch(BranchTopProduct top) {
+        return new ProductWithBranch(top.productId(), top.productName(), top.stock(), top.branchId(), top.branchName());
     }
 }
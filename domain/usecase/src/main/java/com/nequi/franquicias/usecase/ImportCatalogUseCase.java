@@ -0,0 +1,133 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.CatalogEntity;
+import com.nequi.franquicias.model.port.CatalogImportRepository;
+import com.nequi.franquicias.model.port.IdAllocator;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Caso de uso: Importar masivamente franquicias, sucursales o productos desde un sistema externo.
+ * El contenido fluye en streaming hasta el puerto sin acumularse en memoria. El CSV se entrega
+ * tal cual; las filas estructuradas (p. ej. NDJSON) se validan y se codifican a CSV en bloques de
+ * {@link #ROWS_PER_BUFFER}. Las filas estructuradas sin id reciben uno reservado por bloque, con una
+ * sola petición al {@link IdAllocator} por cada bloque. Al terminar se descartan los ids que el
+ * {@link IdAllocator} tenía reservados para la entidad, porque la carga pudo traer alguno de ellos
+ * como id de origen. Al importar sucursales o productos se reconstruye el índice de stock.
+ */
+public class ImportCatalogUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportCatalogUseCase.class);
+
+    public static final int ROWS_PER_BUFFER = 512;
+
+    private final CatalogImportRepository catalogImportRepository;
+    private final IdAllocator idAllocator;
+    private final MaxStockIndex maxStockIndex;
+
+    public ImportCatalogUseCase(CatalogImportRepository catalogImportRepository, IdAllocator idAllocator,
+                                MaxStockIndex maxStockIndex) {
+        this.catalogImportRepository = catalogImportRepository;
+        this.idAllocator = idAllocator;
+        this.maxStockIndex = maxStockIndex;
+    }
+
+    /**
+     * Fila de importación. {@code id} es opcional (si falta se reserva uno); {@code parentId} es la
+     * franquicia de una sucursal o la sucursal de un producto; {@code stock} solo aplica a productos.
+     */
+    public record ImportRow(Long id, Long parentId, String nombre, Integer stock) {}
+
+    public Mono<Long> importCsv(CatalogEntity entity, Flux<ByteBuffer> csv) {
+        return Mono.justOrEmpty(entity)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("La entidad a importar es requerida")))
+                .flatMap(e -> catalogImportRepository.importCsv(e, csv))
+                .flatMap(count -> afterImport(entity, count));
+    }
+
+    public Mono<Long> importRows(CatalogEntity entity, Flux<ImportRow> rows) {
+        return Mono.justOrEmpty(entity)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("La entidad a importar es requerida")))
+                .flatMap(e -> catalogImportRepository.importCsv(e, Flux.concat(
+                        Mono.fromCallable(() -> encode(e.csvHeader() + "\n")),
+                        rows.index()
+                                .map(t -> validate(e, t.getT1(), t.getT2()))
+                                .buffer(ROWS_PER_BUFFER)
+                                .concatMap(block -> assignIds(e, block))
+                                .map(block -> join(block.stream().map(row -> toCsvLine(e, row)).toList())))))
+                .flatMap(count -> afterImport(entity, count));
+    }
+
+    private Mono<Long> afterImport(CatalogEntity entity, Long count) {
+        log.info("Importación completada: entidad={}, filas={}", entity, count);
+        idAllocator.discard(entity);
+        return entity == CatalogEntity.FRANCHISES
+                ? Mono.just(count)
+                : maxStockIndex.rebuild().thenReturn(count);
+    }
+
+    /**
+     * Completa los ids faltantes del bloque con una sola reserva; las filas con id se conservan tal cual.
+     */
+    private Mono<List<ImportRow>> assignIds(CatalogEntity entity, List<ImportRow> block) {
+        int missing = (int) block.stream().filter(row -> row.id() == null).count();
+        if (missing == 0) {
+            return Mono.just(block);
+        }
+        return idAllocator.allocate(entity, missing).map(ids -> {
+            Iterator<Long> next = ids.iterator();
+            return block.stream()
+                    .map(row -> row.id() != null ? row : new ImportRow(next.next(), row.parentId(), row.nombre(), row.stock()))
+                    .toList();
+        });
+    }
+
+    private static ImportRow validate(CatalogEntity entity, long position, ImportRow row) {
+        if (row == null) {
+            throw new IllegalArgumentException("La fila es requerida (fila " + position + ")");
+        }
+        if (row.id() != null && row.id() <= 0) {
+            throw new IllegalArgumentException("El id debe ser positivo (fila " + position + ")");
+        }
+        if (row.nombre() == null || row.nombre().isBlank()) {
+            throw new IllegalArgumentException("El nombre es requerido (fila " + position + ")");
+        }
+        if (entity != CatalogEntity.FRANCHISES && (row.parentId() == null || row.parentId() <= 0)) {
+            throw new IllegalArgumentException("El id de la entidad padre es requerido (fila " + position + ")");
+        }
+        if (row.stock() != null && row.stock() < 0) {
+            throw new IllegalArgumentException("El stock no puede ser negativo (fila " + position + ")");
+        }
+        return row;
+    }
+
+    private static String toCsvLine(CatalogEntity entity, ImportRow row) {
+        int stock = row.stock() != null ? row.stock() : 0;
+        String nombre = quote(row.nombre().trim());
+        return switch (entity) {
+            case FRANCHISES -> row.id() + "," + nombre + "\n";
+            case BRANCHES -> row.id() + "," + row.parentId() + "," + nombre + "\n";
+            case PRODUCTS -> row.id() + "," + row.parentId() + "," + nombre + "," + stock + "\n";
+        };
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static ByteBuffer join(List<String> lines) {
+        return encode(String.join("", lines));
+    }
+
+    private static ByteBuffer encode(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,41 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Branch;
+import com.nequi.franquicias.model.CursorPage;
+import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso: Listar las sucursales de una franquicia paginadas por cursor.
+ * La existencia de la franquicia solo se verifica cuando la página llega vacía.
+ */
+public class ListBranchesByFranchiseUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(ListBranchesByFranchiseUseCase.class);
+
+    private final FranchiseRepository franchiseRepository;
+    private final BranchRepository branchRepository;
+
+    public ListBranchesByFranchiseUseCase(FranchiseRepository franchiseRepository, BranchRepository branchRepository) {
+        this.franchiseRepository = franchiseRepository;
+        this.branchRepository = branchRepository;
+    }
+
+    public Mono<CursorPage<Branch>> execute(Long franchiseId, Long afterId, Integer limit) {
+        return Mono.justOrEmpty(franchiseId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID de franquicia es requerido")))
+                .zipWith(CursorPages.requireLimit(limit))
+                .flatMap(tuple -> branchRepository.findPageByFranchiseId(tuple.getT1(), CursorPages.afterIdOrStart(afterId), tuple.getT2() + 1)
+                        .collectList()
+                        .map(list -> CursorPage.of(list, tuple.getT2(), Branch::id)))
+                .filterWhen(page -> page.items().isEmpty() ? franchiseRepository.existsById(franchiseId) : Mono.just(true))
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Franquicia no encontrada: " + franchiseId)))
+                .doOnNext(page -> log.debug("Página de sucursales: franchiseId={}, afterId={}, cantidad={}", franchiseId, afterId, page.items().size()))
+                .doOnError(e -> log.error("Error listando sucursales: {}", e.getMessage()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.CursorPage;
+import com.nequi.franquicias.model.Franchise;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso: Listar franquicias paginadas por cursor (id de la última franquicia vista).
+ */
+public class ListFranchisesUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(ListFranchisesUseCase.class);
+
+    private final FranchiseRepository franchiseRepository;
+
+    public ListFranchisesUseCase(FranchiseRepository franchiseRepository) {
+        this.franchiseRepository = franchiseRepository;
+    }
+
+    public Mono<CursorPage<Franchise>> execute(Long afterId, Integer limit) {
+        return CursorPages.requireLimit(limit)
+                .flatMap(l -> franchiseRepository.findPage(CursorPages.afterIdOrStart(afterId), l + 1)
+                        .collectList()
+                        .map(list -> CursorPage.of(list, l, Franchise::id)))
+                .doOnNext(page -> log.debug("Página de franquicias: afterId={}, cantidad={}", afterId, page.items().size()))
+                .doOnError(e -> log.error("Error listando franquicias: {}", e.getMessage()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.CursorPage;
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.model.port.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso: Listar los productos de una sucursal paginados por cursor.
+ * La existencia de la sucursal solo se verifica cuando la página llega vacía.
+ */
+public class ListProductsByBranchUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(ListProductsByBranchUseCase.class);
+
+    private final BranchRepository branchRepository;
+    private final ProductRepository productRepository;
+
+    public ListProductsByBranchUseCase(BranchRepository branchRepository, ProductRepository productRepository) {
+        this.branchRepository = branchRepository;
+        this.productRepository = productRepository;
+    }
+
+    public Mono<CursorPage<Product>> execute(Long branchId, Long afterId, Integer limit) {
+        return Mono.justOrEmpty(branchId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID de sucursal es requerido")))
+                .zipWith(CursorPages.requireLimit(limit))
+                .flatMap(tuple -> productRepository.findPageByBranchId(tuple.getT1(), CursorPages.afterIdOrStart(afterId), tuple.getT2() + 1)
+                        .collectList()
+                        .map(list -> CursorPage.of(list, tuple.getT2(), Product::id)))
+                .filterWhen(page -> page.items().isEmpty() ? branchRepository.existsById(branchId) : Mono.just(true))
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Sucursal no encontrada: " + branchId)))
+                .doOnNext(page -> log.debug("Página de productos: branchId={}, afterId={}, cantidad={}", branchId, afterId, page.items().size()))
+                .doOnError(e -> log.error("Error listando productos: {}", e.getMessage()));
+    }
+}
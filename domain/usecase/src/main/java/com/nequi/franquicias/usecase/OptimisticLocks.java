@@ -0,0 +1,33 @@
+package com.nequi.franquicias.usecase;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Interpretación común de un UPDATE condicional por versión que no afectó filas.
+ */
+final class OptimisticLocks {
+
+    private OptimisticLocks() {
+    }
+
+    /**
+     * Sin versión esperada el UPDATE solo falla si la fila no existe. Con versión esperada se
+     * consulta la existencia para distinguir una versión obsoleta (412) de una fila inexistente.
+     */
+    static <T> Mono<T> rejectNotUpdated(Long id, Long expectedVersion, Function<Long, Mono<Boolean>> existsById,
+                                        Supplier<? extends Throwable> notFound) {
+        if (expectedVersion == null) {
+            return Mono.error(notFound);
+        }
+        return existsById.apply(id)
+                .flatMap(exists -> Mono.error(Boolean.TRUE.equals(exists)
+                        ? new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                                "La versión " + expectedVersion + " no es la vigente para id=" + id)
+                        : notFound.get()));
+    }
+}
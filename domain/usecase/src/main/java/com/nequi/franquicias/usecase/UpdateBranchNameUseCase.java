@@ -2,6 +2,7 @@ package com.nequi.franquicias.usecase;
 
 import com.nequi.franquicias.model.Branch;
 import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -10,27 +11,38 @@ import reactor.core.publisher.Mono;
 
 /**
  * Caso de uso: Actualizar el nombre de una sucursal.
+ * Solo se escribe la columna nombre, en una sentencia que además indica si la fila existe.
  */
 public class UpdateBranchNameUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(UpdateBranchNameUseCase.class);
 
     private final BranchRepository branchRepository;
+    private final MaxStockIndex maxStockIndex;
 
-    public UpdateBranchNameUseCase(BranchRepository branchRepository) {
+    public UpdateBranchNameUseCase(BranchRepository branchRepository, MaxStockIndex maxStockIndex) {
         this.branchRepository = branchRepository;
+        this.maxStockIndex = maxStockIndex;
     }
 
     public Mono<Branch> execute(Long branchId, String newNombre) {
+        return execute(branchId, newNombre, null);
+    }
+
+    /**
+     * Con {@code expectedVersion} el cambio solo se aplica si la fila sigue en esa versión;
+     * si otro cliente la modificó antes falla con 412.
+     */
+    public Mono<Branch> execute(Long branchId, String newNombre, Long expectedVersion) {
         return Mono.justOrEmpty(branchId)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID de la sucursal es requerido")))
-                .flatMap(id -> branchRepository.findById(id)
-                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Sucursal no encontrada: " + id))))
-                .flatMap(branch -> Mono.justOrEmpty(newNombre)
+                .flatMap(id -> Mono.justOrEmpty(newNombre)
                         .filter(n -> n != null && !n.isBlank())
                         .switchIfEmpty(Mono.error(new IllegalArgumentException("El nombre de la sucursal es requerido")))
-                        .map(name -> new Branch(branch.id(), name.trim(), branch.franchiseId(), branch.productos()))
-                        .flatMap(branchRepository::save))
+                        .flatMap(name -> branchRepository.updateNombre(id, name.trim(), expectedVersion))
+                        .switchIfEmpty(Mono.defer(() -> OptimisticLocks.rejectNotUpdated(id, expectedVersion,
+                                branchRepository::existsById, () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Sucursal no encontrada: " + id)))))
+                .flatMap(b -> maxStockIndex.onBranchRenamed(b).thenReturn(b))
                 .doOnNext(b -> log.info("Sucursal actualizada: id={}, nuevoNombre={}", b.id(), b.nombre()))
                 .doOnError(e -> log.error("Error actualizando sucursal: {}", e.getMessage()));
     }
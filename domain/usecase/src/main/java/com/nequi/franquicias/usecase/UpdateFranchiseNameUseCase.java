@@ -10,6 +10,7 @@ import reactor.core.publisher.Mono;
 
 /**
  * Caso de uso: Actualizar el nombre de una franquicia.
+ * Solo se escribe la columna nombre, en una sentencia que además indica si la fila existe.
  */
 public class UpdateFranchiseNameUseCase {
 
@@ -22,15 +23,22 @@ public class UpdateFranchiseNameUseCase {
     }
 
     public Mono<Franchise> execute(Long franchiseId, String newNombre) {
+        return execute(franchiseId, newNombre, null);
+    }
+
+    /**
+     * Con {@code expectedVersion} el cambio solo se aplica si la fila sigue en esa versión;
+     * si otro cliente la modificó antes falla con 412.
+     */
+    public Mono<Franchise> execute(Long franchiseId, String newNombre, Long expectedVersion) {
         return Mono.justOrEmpty(franchiseId)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID de la franquicia es requerido")))
-                .flatMap(id -> franchiseRepository.findById(id)
-                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Franquicia no encontrada: " + id))))
-                .flatMap(franchise -> Mono.justOrEmpty(newNombre)
+                .flatMap(id -> Mono.justOrEmpty(newNombre)
                         .filter(n -> n != null && !n.isBlank())
                         .switchIfEmpty(Mono.error(new IllegalArgumentException("El nombre de la franquicia es requerido")))
-                        .map(name -> new Franchise(franchise.id(), name.trim(), franchise.sucursales()))
-                        .flatMap(franchiseRepository::save))
+                        .flatMap(name -> franchiseRepository.updateNombre(id, name.trim(), expectedVersion))
+                        .switchIfEmpty(Mono.defer(() -> OptimisticLocks.rejectNotUpdated(id, expectedVersion,
+                                franchiseRepository::existsById, () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Franquicia no encontrada: " + id)))))
                 .doOnNext(f -> log.info("Franquicia actualizada: id={}, nuevoNombre={}", f.id(), f.nombre()))
                 .doOnError(e -> log.error("Error actualizando franquicia: {}", e.getMessage()));
     }
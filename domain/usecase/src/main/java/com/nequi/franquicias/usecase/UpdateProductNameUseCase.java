@@ -2,6 +2,7 @@ package com.nequi.franquicias.usecase;
 
 import com.nequi.franquicias.model.Product;
 import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -10,27 +11,38 @@ import reactor.core.publisher.Mono;
 
 /**
  * Caso de uso: Actualizar el nombre de un producto.
+ * Solo se escribe la columna nombre, en una sentencia que además indica si la fila existe.
  */
 public class UpdateProductNameUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(UpdateProductNameUseCase.class);
 
     private final ProductRepository productRepository;
+    private final MaxStockIndex maxStockIndex;
 
-    public UpdateProductNameUseCase(ProductRepository productRepository) {
+    public UpdateProductNameUseCase(ProductRepository productRepository, MaxStockIndex maxStockIndex) {
         this.productRepository = productRepository;
+        this.maxStockIndex = maxStockIndex;
     }
 
     public Mono<Product> execute(Long productId, String newNombre) {
+        return execute(productId, newNombre, null);
+    }
+
+    /**
+     * Con {@code expectedVersion} el cambio solo se aplica si la fila sigue en esa versión;
+     * si otro cliente la modificó antes falla con 412.
+     */
+    public Mono<Product> execute(Long productId, String newNombre, Long expectedVersion) {
         return Mono.justOrEmpty(productId)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID del producto es requerido")))
-                .flatMap(id -> productRepository.findById(id)
-                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Producto no encontrado: " + id))))
-                .flatMap(product -> Mono.justOrEmpty(newNombre)
+                .flatMap(id -> Mono.justOrEmpty(newNombre)
                         .filter(n -> n != null && !n.isBlank())
                         .switchIfEmpty(Mono.error(new IllegalArgumentException("El nombre del producto es requerido")))
-                        .map(name -> new Product(product.id(), name.trim(), product.stock(), product.branchId()))
-                        .flatMap(productRepository::save))
+                        .flatMap(name -> productRepository.updateNombre(id, name.trim(), expectedVersion))
+                        .switchIfEmpty(Mono.defer(() -> OptimisticLocks.rejectNotUpdated(id, expectedVersion,
+                                productRepository::existsById, () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Producto no encontrado: " + id)))))
+                .flatMap(p -> maxStockIndex.onProductSaved(p).thenReturn(p))
                 .doOnNext(p -> log.info("Producto actualizado: id={}, nuevoNombre={}", p.id(), p.nombre()))
                 .doOnError(e -> log.error("Error actualizando producto: {}", e.getMessage()));
     }
@@ -2,36 +2,57 @@ package com.nequi.franquicias.usecase;
 
 import com.nequi.franquicias.model.Product;
 import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
 
 /**
  * Caso de uso: Modificar el stock de un producto.
- * Usa flatMap para encadenar búsqueda y actualización.
+ * La actualización es una sola sentencia atómica en la base de datos: no hay lectura previa
+ * y dos actualizaciones concurrentes no pueden pisarse con un valor leído antes.
  */
 public class UpdateProductStockUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(UpdateProductStockUseCase.class);
 
-    private final ProductRepository productRepository;
+    protected final ProductRepository productRepository;
+    protected final MaxStockIndex maxStockIndex;
 
-    public UpdateProductStockUseCase(ProductRepository productRepository) {
+    public UpdateProductStockUseCase(ProductRepository productRepository, MaxStockIndex maxStockIndex) {
         this.productRepository = productRepository;
+        this.maxStockIndex = maxStockIndex;
     }
 
     public Mono<Product> execute(Long productId, Integer newStock) {
+        return execute(productId, newStock, null);
+    }
+
+    /**
+     * Con {@code expectedVersion} el stock solo se fija si el producto sigue en esa versión;
+     * si otro cliente lo modificó antes falla con 412.
+     */
+    public Mono<Product> execute(Long productId, Integer newStock, Long expectedVersion) {
         return Mono.justOrEmpty(productId)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("El ID del producto es requerido")))
-                .flatMap(id -> productRepository.findById(id)
-                        .switchIfEmpty(Mono.error(new IllegalArgumentException("Producto no encontrado: " + id))))
-                .flatMap(product -> Mono.justOrEmpty(newStock)
+                .zipWith(Mono.justOrEmpty(newStock)
                         .filter(s -> s >= 0)
-                        .switchIfEmpty(Mono.error(new IllegalArgumentException("El stock no puede ser negativo")))
-                        .map(product::withStock)
-                        .flatMap(productRepository::save))
+                        .switchIfEmpty(Mono.error(new IllegalArgumentException("El stock no puede ser negativo"))))
+                .flatMap(tuple -> persist(tuple.getT1(), tuple.getT2(), expectedVersion))
                 .doOnNext(p -> log.info("Stock actualizado: productId={}, nuevoStock={}", p.id(), p.stock()))
                 .doOnError(e -> log.error("Error actualizando stock: {}", e.getMessage()))
                 .onErrorResume(IllegalArgumentException.class, Mono::error);
     }
+
+    /**
+     * Persiste un stock ya validado y actualiza el índice; falla si el producto no existe
+     * o si no está en la versión esperada.
+     */
+    protected Mono<Product> persist(Long productId, Integer stock, Long expectedVersion) {
+        return productRepository.updateStock(productId, stock, expectedVersion)
+                .switchIfEmpty(Mono.defer(() -> OptimisticLocks.rejectNotUpdated(productId, expectedVersion,
+                        productRepository::existsById,
+                        () -> new IllegalArgumentException("Producto no encontrado: " + productId))))
+                .flatMap(p -> maxStockIndex.onProductSaved(p).thenReturn(p));
+    }
 }
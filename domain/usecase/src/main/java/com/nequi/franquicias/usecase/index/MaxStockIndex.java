@@ -0,0 +1,311 @@
+package com.nequi.franquicias.usecase.index;
+
+import com.nequi.franquicias.model.Branch;
+import com.nequi.franquicias.model.BranchTopProduct;
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Índice en memoria del producto con mayor stock por sucursal.
+ * Se mantiene de forma incremental desde los casos de uso de escritura: solo cuando el
+ * producto líder de una sucursal se elimina o baja su stock se recalcula esa sucursal.
+ * Mientras no esté listo (antes o durante una reconstrucción) las lecturas devuelven vacío
+ * y los casos de uso consultan la base de datos. Solo ve las escrituras de su propia instancia:
+ * con varias instancias cada una quedaría desactualizada respecto de las demás.
+ */
+public class MaxStockIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MaxStockIndex.class);
+
+    private static final MaxStockIndex DISABLED = new MaxStockIndex(null, false, Duration.ZERO);
+    private static final int REBUILD_RETRIES = 5;
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final Duration rebuildBackoff;
+
+    private final Map<Long, BranchTopProduct> topByBranch = new HashMap<>();
+    private final Map<Long, Set<Long>> branchesByFranchise = new HashMap<>();
+    /** Contador de mutaciones por sucursal; invalida recálculos concurrentes obsoletos. */
+    private final Map<Long, Long> stamps = new HashMap<>();
+    private final Set<Long> pendingBranches = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    /** Reconstrucción en curso, compartida por quienes la pidan mientras no termine. */
+    private Mono<Void> rebuildInFlight;
+    /** Pedidos de reconstrucción hasta ahora; una reconstrucción que ve cambiar este valor vuelve a cargar. */
+    private long rebuildRequests;
+
+    public MaxStockIndex(ProductRepository productRepository) {
+        this(productRepository, Duration.ofSeconds(1));
+    }
+
+    MaxStockIndex(ProductRepository productRepository, Duration rebuildBackoff) {
+        this(productRepository, true, rebuildBackoff);
+    }
+
+    private MaxStockIndex(ProductRepository productRepository, boolean enabled, Duration rebuildBackoff) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.rebuildBackoff = rebuildBackoff;
+    }
+
+    /**
+     * Índice inactivo: no guarda nada y nunca responde lecturas.
+     */
+    public static MaxStockIndex disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Reconstruye el índice completo desde la base de datos.
+     * Las sucursales modificadas durante la reconstrucción se recalculan al final. Una sola
+     * reconstrucción corre a la vez: quien la pida mientras hay otra en curso se une a ella, que
+     * vuelve a cargar al terminar para reflejar lo escrito antes del pedido.
+     */
+    public Mono<Void> rebuild() {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.defer(this::joinRebuild);
+    }
+
+    /**
+     * Reconstruye en segundo plano con reintentos y espera exponencial. Si se agotan, el índice
+     * sigue sin responder lecturas y los casos de uso consultan la base de datos.
+     */
+    public void rebuildInBackground() {
+        rebuild()
+                .retryWhen(Retry.backoff(REBUILD_RETRIES, rebuildBackoff))
+                .subscribe(v -> { }, e -> log.error(
+                        "Índice de mayor stock sin reconstruir tras {} reintentos: {}", REBUILD_RETRIES, e.getMessage()));
+    }
+
+    private synchronized Mono<Void> joinRebuild() {
+        rebuildRequests++;
+        if (rebuildInFlight == null) {
+            rebuildInFlight = rebuildUntilCurrent().cache();
+        }
+        return rebuildInFlight;
+    }
+
+    /**
+     * Repite la carga si llegó otro pedido mientras corría: ese pedido se unió a esta reconstrucción
+     * y una carga anterior a él podría no reflejar sus escrituras.
+     */
+    private Mono<Void> rebuildUntilCurrent() {
+        return Mono.defer(() -> {
+            long generation = generation();
+            return load().then(Mono.defer(() -> finishRebuild(generation) ? Mono.<Void>empty() : rebuildUntilCurrent()));
+        }).doOnError(e -> finishRebuild(null));
+    }
+
+    private synchronized long generation() {
+        return rebuildRequests;
+    }
+
+    /**
+     * Libera la reconstrucción en curso salvo que haya habido pedidos nuevos desde {@code generation};
+     * con {@code generation} nulo (error) la libera siempre para que el siguiente intento empiece de cero.
+     */
+    private synchronized boolean finishRebuild(Long generation) {
+        if (generation != null && generation != rebuildRequests) {
+            return false;
+        }
+        rebuildInFlight = null;
+        return true;
+    }
+
+    private Mono<Void> load() {
+        return Mono.fromRunnable(() -> ready = false)
+                .thenMany(productRepository.findTopStockPerBranch())
+                .collectList()
+                .doOnNext(this::replaceAll)
+                .doOnNext(list -> ready = true)
+                .then(Mono.defer(this::drainPending))
+                .doOnSuccess(v -> log.info("Índice de mayor stock reconstruido: sucursales={}", size()))
+                .doOnError(e -> log.error("Error reconstruyendo índice de mayor stock: {}", e.getMessage()));
+    }
+
+    /**
+     * Productos líderes de las sucursales de una franquicia, si el índice puede responder.
+     * Una franquicia sin entradas se delega a la base de datos (puede no existir).
+     */
+    public Optional<List<BranchTopProduct>> findByFranchiseId(Long franchiseId) {
+        if (!enabled || !ready) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            Set<Long> branchIds = branchesByFranchise.get(franchiseId);
+            if (branchIds == null || branchIds.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(branchIds.stream()
+                    .map(topByBranch::get)
+                    .sorted(Comparator.comparing(BranchTopProduct::branchId))
+                    .toList());
+        }
+    }
+
+    /**
+     * Registra un producto creado o actualizado (stock o nombre).
+     */
+    public Mono<Void> onProductSaved(Product product) {
+        return mutate(product.branchId(), () -> {
+            BranchTopProduct current = topByBranch.get(product.branchId());
+            if (current == null) {
+                return true;
+            }
+            if (current.productId().equals(product.id())) {
+                if (product.stock() < current.stock()) {
+                    return true;
+                }
+                install(current.withProduct(product));
+            } else if (beats(product, current)) {
+                install(current.withProduct(product));
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Registra la eliminación de un producto; solo recalcula si era el líder de su sucursal.
+     */
+    public Mono<Void> onProductDeleted(Long productId, Long branchId) {
+        return mutate(branchId, () -> {
+            BranchTopProduct current = topByBranch.get(branchId);
+            return current != null && current.productId().equals(productId);
+        });
+    }
+
+    /**
+     * Registra el cambio de nombre de una sucursal.
+     */
+    public Mono<Void> onBranchRenamed(Branch branch) {
+        return mutate(branch.id(), () -> {
+            BranchTopProduct current = topByBranch.get(branch.id());
+            if (current != null) {
+                install(current.withBranchName(branch.nombre()));
+            }
+            return false;
+        });
+    }
+
+    synchronized int size() {
+        return topByBranch.size();
+    }
+
+    /**
+     * Aplica una mutación bajo el candado del índice. La mutación indica si la sucursal
+     * debe recalcularse desde la base de datos.
+     */
+    private Mono<Void> mutate(Long branchId, BooleanSupplier mutation) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        if (!ready) {
+            pendingBranches.add(branchId);
+            return ready ? drainPending() : Mono.empty();
+        }
+        boolean recompute;
+        synchronized (this) {
+            stamps.merge(branchId, 1L, Long::sum);
+            recompute = mutation.getAsBoolean();
+        }
+        return recompute ? recompute(branchId) : Mono.empty();
+    }
+
+    private Mono<Void> drainPending() {
+        return Flux.fromIterable(List.copyOf(pendingBranches))
+                .filter(pendingBranches::remove)
+                .concatMap(this::recompute)
+                .then();
+    }
+
+    private Mono<Void> recompute(Long branchId) {
+        return Mono.defer(() -> {
+            long stamp = stampOf(branchId);
+            return productRepository.findTopStockByBranchId(branchId)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(top -> installIfCurrent(branchId, top, stamp) ? Mono.<Void>empty() : recompute(branchId));
+        }).onErrorResume(e -> {
+            log.error("Error recalculando sucursal {} en índice de mayor stock: {}", branchId, e.getMessage());
+            return invalidate();
+        });
+    }
+
+    /**
+     * Si una sucursal no se puede recalcular el índice deja de responder lecturas
+     * hasta que una reconstrucción completa termine.
+     */
+    private Mono<Void> invalidate() {
+        ready = false;
+        rebuildInBackground();
+        return Mono.empty();
+    }
+
+    private synchronized long stampOf(Long branchId) {
+        return stamps.getOrDefault(branchId, 0L);
+    }
+
+    private synchronized boolean installIfCurrent(Long branchId, Optional<BranchTopProduct> top, long stamp) {
+        if (stamps.getOrDefault(branchId, 0L) != stamp) {
+            return false;
+        }
+        top.ifPresentOrElse(this::install, () -> remove(branchId));
+        return true;
+    }
+
+    private synchronized void replaceAll(List<BranchTopProduct> tops) {
+        topByBranch.clear();
+        branchesByFranchise.clear();
+        tops.forEach(this::install);
+    }
+
+    private void install(BranchTopProduct top) {
+        topByBranch.put(top.branchId(), top);
+        branchesByFranchise.computeIfAbsent(top.franchiseId(), k -> new HashSet<>()).add(top.branchId());
+    }
+
+    private void remove(Long branchId) {
+        BranchTopProduct previous = topByBranch.remove(branchId);
+        if (previous != null) {
+            Set<Long> branchIds = branchesByFranchise.get(previous.franchiseId());
+            if (branchIds != null) {
+                branchIds.remove(branchId);
+            }
+        }
+    }
+
+    /**
+     * Mismo criterio que la consulta SQL: mayor stock y, en empate, menor id de producto.
+     */
+    private static boolean beats(Product product, BranchTopProduct current) {
+        return product.stock() > current.stock()
+                || (product.stock().equals(current.stock()) && product.id() < current.productId());
+    }
+}
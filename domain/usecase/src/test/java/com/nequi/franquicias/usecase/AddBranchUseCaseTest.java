@@ -2,7 +2,6 @@ package com.nequi.franquicias.usecase;
 
 import com.nequi.franquicias.model.Branch;
 import com.nequi.franquicias.model.port.BranchRepository;
-import com.nequi.franquicias.model.port.FranchiseRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,15 +12,15 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("AddBranchUseCase")
 class AddBranchUseCaseTest {
 
-    @Mock
-    private FranchiseRepository franchiseRepository;
-
     @Mock
     private BranchRepository branchRepository;
 
@@ -29,15 +28,14 @@ class AddBranchUseCaseTest {
 
     @BeforeEach
     void setUp() {
-        useCase = new AddBranchUseCase(franchiseRepository, branchRepository);
+        useCase = new AddBranchUseCase(branchRepository);
     }
 
     @Test
     @DisplayName("crea sucursal exitosamente")
     void creaSucursalExitosamente() {
-        when(franchiseRepository.existsById(1L)).thenReturn(Mono.just(true));
         Branch saved = new Branch(1L, "Sucursal Centro", 1L, java.util.List.of());
-        when(branchRepository.save(any(Branch.class))).thenReturn(Mono.just(saved));
+        when(branchRepository.insertIfFranchiseExists(any(Branch.class))).thenReturn(Mono.just(saved));
 
         StepVerifier.create(useCase.execute(1L, "Sucursal Centro"))
                 .expectNext(saved)
@@ -55,7 +53,7 @@ class AddBranchUseCaseTest {
     @Test
     @DisplayName("rechaza franquicia inexistente")
     void rechazaFranquiciaInexistente() {
-        when(franchiseRepository.existsById(999L)).thenReturn(Mono.just(false));
+        when(branchRepository.insertIfFranchiseExists(any(Branch.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.execute(999L, "Sucursal"))
                 .expectError(IllegalArgumentException.class)
@@ -65,8 +63,6 @@ class AddBranchUseCaseTest {
     @Test
     @DisplayName("rechaza nombre vacío")
     void rechazaNombreVacio() {
-        when(franchiseRepository.existsById(1L)).thenReturn(Mono.just(true));
-
         StepVerifier.create(useCase.execute(1L, "  "))
                 .expectError(IllegalArgumentException.class)
                 .verify();
@@ -75,8 +71,6 @@ class AddBranchUseCaseTest {
     @Test
     @DisplayName("rechaza nombre nulo")
     void rechazaNombreNulo() {
-        when(franchiseRepository.existsById(1L)).thenReturn(Mono.just(true));
-
         StepVerifier.create(useCase.execute(1L, null))
                 .expectError(IllegalArgumentException.class)
                 .verify();
@@ -85,12 +79,25 @@ class AddBranchUseCaseTest {
     @Test
     @DisplayName("trim del nombre antes de guardar")
     void trimNombreAntesDeGuardar() {
-        when(franchiseRepository.existsById(1L)).thenReturn(Mono.just(true));
         Branch saved = new Branch(1L, "Sucursal", 1L, java.util.List.of());
-        when(branchRepository.save(any(Branch.class))).thenReturn(Mono.just(saved));
+        when(branchRepository.insertIfFranchiseExists(any(Branch.class))).thenReturn(Mono.just(saved));
 
         StepVerifier.create(useCase.execute(1L, "  Sucursal  "))
                 .expectNextMatches(b -> "Sucursal".equals(b.nombre()))
                 .verifyComplete();
     }
+
+    @Test
+    @DisplayName("no consulta la existencia de la franquicia por separado")
+    void noConsultaExistenciaPorSeparado() {
+        Branch saved = new Branch(1L, "Sucursal", 1L, java.util.List.of());
+        when(branchRepository.insertIfFranchiseExists(any(Branch.class))).thenReturn(Mono.just(saved));
+
+        StepVerifier.create(useCase.execute(1L, "Sucursal"))
+                .expectNext(saved)
+                .verifyComplete();
+
+        verify(branchRepository, never()).existsById(anyLong());
+        verify(branchRepository, never()).save(any(Branch.class));
+    }
 }
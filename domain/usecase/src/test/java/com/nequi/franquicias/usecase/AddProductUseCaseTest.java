@@ -1,8 +1,8 @@
 package com.nequi.franquicias.usecase;
 
 import com.nequi.franquicias.model.Product;
-import com.nequi.franquicias.model.port.BranchRepository;
 import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,15 +13,14 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("AddProductUseCase")
 class AddProductUseCaseTest {
 
-    @Mock
-    private BranchRepository branchRepository;
-
     @Mock
     private ProductRepository productRepository;
 
@@ -29,15 +28,14 @@ class AddProductUseCaseTest {
 
     @BeforeEach
     void setUp() {
-        useCase = new AddProductUseCase(branchRepository, productRepository);
+        useCase = new AddProductUseCase(productRepository, MaxStockIndex.disabled());
     }
 
     @Test
     @DisplayName("crea producto exitosamente")
     void creaProductoExitosamente() {
-        when(branchRepository.existsById(1L)).thenReturn(Mono.just(true));
         Product saved = new Product(1L, "Producto", 10, 1L);
-        when(productRepository.save(any(Product.class))).thenReturn(Mono.just(saved));
+        when(productRepository.insertIfBranchExists(any(Product.class))).thenReturn(Mono.just(saved));
 
         StepVerifier.create(useCase.execute(1L, "Producto", 10))
                 .expectNext(saved)
@@ -47,9 +45,8 @@ class AddProductUseCaseTest {
     @Test
     @DisplayName("usa stock 0 por defecto cuando null")
     void usaStockCeroCuandoNull() {
-        when(branchRepository.existsById(1L)).thenReturn(Mono.just(true));
         Product saved = new Product(1L, "Producto", 0, 1L);
-        when(productRepository.save(any(Product.class))).thenReturn(Mono.just(saved));
+        when(productRepository.insertIfBranchExists(any(Product.class))).thenReturn(Mono.just(saved));
 
         StepVerifier.create(useCase.execute(1L, "Producto", null))
                 .expectNextMatches(p -> p.stock() == 0)
@@ -59,18 +56,17 @@ class AddProductUseCaseTest {
     @Test
     @DisplayName("rechaza sucursal inexistente")
     void rechazaSucursalInexistente() {
-        when(branchRepository.existsById(999L)).thenReturn(Mono.just(false));
+        when(productRepository.insertIfBranchExists(any(Product.class))).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.execute(999L, "Producto", 5))
-                .expectError(IllegalArgumentException.class)
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException
+                        && e.getMessage().equals("Sucursal no encontrada: 999"))
                 .verify();
     }
 
     @Test
     @DisplayName("rechaza nombre vacío")
     void rechazaNombreVacio() {
-        when(branchRepository.existsById(1L)).thenReturn(Mono.just(true));
-
         StepVerifier.create(useCase.execute(1L, "  ", 5))
                 .expectError(IllegalArgumentException.class)
                 .verify();
@@ -79,8 +75,6 @@ class AddProductUseCaseTest {
     @Test
     @DisplayName("rechaza stock negativo")
     void rechazaStockNegativo() {
-        when(branchRepository.existsById(1L)).thenReturn(Mono.just(true));
-
         StepVerifier.create(useCase.execute(1L, "Producto", -1))
                 .expectError(IllegalArgumentException.class)
                 .verify();
@@ -97,8 +91,6 @@ class AddProductUseCaseTest {
     @Test
     @DisplayName("rechaza nombre nulo")
     void rechazaNombreNulo() {
-        when(branchRepository.existsById(1L)).thenReturn(Mono.just(true));
-
         StepVerifier.create(useCase.execute(1L, null, 5))
                 .expectError(IllegalArgumentException.class)
                 .verify();
@@ -107,12 +99,21 @@ class AddProductUseCaseTest {
     @Test
     @DisplayName("recorta espacios en nombre")
     void recortaEspaciosEnNombre() {
-        when(branchRepository.existsById(1L)).thenReturn(Mono.just(true));
         Product saved = new Product(1L, "Producto", 10, 1L);
-        when(productRepository.save(any(Product.class))).thenReturn(Mono.just(saved));
+        when(productRepository.insertIfBranchExists(any(Product.class))).thenReturn(Mono.just(saved));
 
         StepVerifier.create(useCase.execute(1L, "  Producto  ", 10))
                 .expectNextMatches(p -> "Producto".equals(p.nombre()))
                 .verifyComplete();
     }
+
+    @Test
+    @DisplayName("valida antes de insertar sin consultar la sucursal")
+    void validaAntesDeInsertar() {
+        StepVerifier.create(useCase.execute(1L, "Producto", -1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(productRepository, never()).insertIfBranchExists(any(Product.class));
+    }
 }
@@ -0,0 +1,125 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.AddProductsBatchUseCase.NewProduct;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AddProductsBatchUseCase")
+class AddProductsBatchUseCaseTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private AddProductsBatchUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new AddProductsBatchUseCase(branchRepository, productRepository, MaxStockIndex.disabled());
+    }
+
+    @Test
+    @DisplayName("valida la sucursal una vez e inserta en una sentencia")
+    void insertaLote() {
+        when(branchRepository.existsById(5L)).thenReturn(Mono.just(true));
+        when(productRepository.insertAll(5L, List.of(new Product(null, "P1", 3, 5L), new Product(null, "P2", 0, 5L))))
+                .thenReturn(Flux.just(new Product(11L, "P1", 3, 5L), new Product(12L, "P2", 0, 5L)));
+
+        StepVerifier.create(useCase.execute(5L, List.of(new NewProduct(" P1 ", 3), new NewProduct("P2", null))))
+                .expectNextMatches(p -> p.id() == 11L)
+                .expectNextMatches(p -> p.id() == 12L)
+                .verifyComplete();
+
+        verify(branchRepository, times(1)).existsById(5L);
+    }
+
+    @Test
+    @DisplayName("divide en bloques de inserción")
+    void divideEnBloques() {
+        List<NewProduct> items = IntStream.range(0, AddProductsBatchUseCase.CHUNK_SIZE + 1)
+                .mapToObj(i -> new NewProduct("P" + i, 1))
+                .toList();
+        when(branchRepository.existsById(5L)).thenReturn(Mono.just(true));
+        when(productRepository.insertAll(eq(5L), anyList()))
+                .thenAnswer(inv -> Flux.fromIterable(inv.<List<Product>>getArgument(1)));
+
+        StepVerifier.create(useCase.execute(5L, items))
+                .expectNextCount(items.size())
+                .verifyComplete();
+
+        verify(productRepository, times(2)).insertAll(eq(5L), anyList());
+    }
+
+    @Test
+    @DisplayName("si la sucursal se elimina a mitad del lote, conserva los bloques insertados y falla el resto")
+    void sucursalEliminadaAMitadDelLote() {
+        List<NewProduct> items = IntStream.range(0, AddProductsBatchUseCase.CHUNK_SIZE + 1)
+                .mapToObj(i -> new NewProduct("P" + i, 1))
+                .toList();
+        when(branchRepository.existsById(5L)).thenReturn(Mono.just(true));
+        when(productRepository.insertAll(eq(5L), anyList()))
+                .thenAnswer(inv -> Flux.fromIterable(inv.<List<Product>>getArgument(1)))
+                .thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.execute(5L, items))
+                .expectNextCount(AddProductsBatchUseCase.CHUNK_SIZE)
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException
+                        && e.getMessage().equals("Sucursal no encontrada: 5"))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("rechaza sucursal inexistente")
+    void rechazaSucursalInexistente() {
+        when(branchRepository.existsById(999L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(useCase.execute(999L, List.of(new NewProduct("P1", 1))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(productRepository, never()).insertAll(anyLong(), anyList());
+    }
+
+    @Test
+    @DisplayName("rechaza producto inválido sin consultar la base de datos")
+    void rechazaProductoInvalido() {
+        StepVerifier.create(useCase.execute(5L, List.of(new NewProduct("P1", 1), new NewProduct(" ", 1))))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException && e.getMessage().contains("posición 1"))
+                .verify();
+
+        verify(branchRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("rechaza lote vacío")
+    void rechazaLoteVacio() {
+        StepVerifier.create(useCase.execute(5L, List.of()))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,83 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdjustProductStockUseCase")
+class AdjustProductStockUseCaseTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private AdjustProductStockUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new AdjustProductStockUseCase(productRepository, MaxStockIndex.disabled());
+    }
+
+    @Test
+    @DisplayName("aplica el ajuste sin lectura previa")
+    void aplicaAjuste() {
+        when(productRepository.adjustStock(1L, -3)).thenReturn(Mono.just(new Product(1L, "Producto", 7, 5L)));
+
+        StepVerifier.create(useCase.execute(1L, -3))
+                .expectNextMatches(p -> p.stock() == 7)
+                .verifyComplete();
+
+        verify(productRepository, never()).findById(anyLong());
+        verify(productRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("retorna conflicto si el stock quedaría negativo")
+    void conflictoPorStockInsuficiente() {
+        when(productRepository.adjustStock(1L, -30)).thenReturn(Mono.empty());
+        when(productRepository.existsById(1L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(useCase.execute(1L, -30))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                        && rse.getStatusCode() == HttpStatus.CONFLICT)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("rechaza producto no encontrado")
+    void rechazaProductoNoEncontrado() {
+        when(productRepository.adjustStock(999L, 5)).thenReturn(Mono.empty());
+        when(productRepository.existsById(999L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(useCase.execute(999L, 5))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("rechaza ajuste nulo o cero")
+    void rechazaAjusteNuloOCero() {
+        StepVerifier.create(useCase.execute(1L, null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        StepVerifier.create(useCase.execute(1L, 0))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
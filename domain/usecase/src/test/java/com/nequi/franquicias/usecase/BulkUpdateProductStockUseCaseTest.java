@@ -0,0 +1,87 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.StockUpdate;
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkUpdateProductStockUseCase")
+class BulkUpdateProductStockUseCaseTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private BulkUpdateProductStockUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new BulkUpdateProductStockUseCase(productRepository, MaxStockIndex.disabled());
+    }
+
+    @Test
+    @DisplayName("reporta productos actualizados y no encontrados en el orden recibido")
+    void reportaResultadoPorProducto() {
+        when(productRepository.updateStocks(List.of(new StockUpdate(1L, 10), new StockUpdate(3L, 5))))
+                .thenReturn(Flux.just(new Product(1L, "P1", 10, 9L)));
+
+        StepVerifier.create(useCase.execute(List.of(new StockUpdate(3L, 5), new StockUpdate(1L, 10))))
+                .expectNext(new BulkUpdateProductStockUseCase.Result(3L, 5, false))
+                .expectNext(new BulkUpdateProductStockUseCase.Result(1L, 10, true))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("con ids repetidos gana el último valor")
+    void idsRepetidosGanaUltimoValor() {
+        when(productRepository.updateStocks(List.of(new StockUpdate(1L, 7))))
+                .thenReturn(Flux.just(new Product(1L, "P1", 7, 9L)));
+
+        StepVerifier.create(useCase.execute(List.of(new StockUpdate(1L, 3), new StockUpdate(1L, 7))))
+                .expectNext(new BulkUpdateProductStockUseCase.Result(1L, 7, true))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("divide el lote en bloques de una sentencia cada uno")
+    void divideEnBloques() {
+        List<StockUpdate> updates = LongStream.rangeClosed(1, BulkUpdateProductStockUseCase.CHUNK_SIZE + 1)
+                .mapToObj(id -> new StockUpdate(id, 1))
+                .toList();
+        when(productRepository.updateStocks(anyList())).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.execute(updates))
+                .expectNextCount(updates.size())
+                .verifyComplete();
+
+        verify(productRepository, times(2)).updateStocks(anyList());
+    }
+
+    @Test
+    @DisplayName("rechaza lote vacío o nulo")
+    void rechazaLoteVacio() {
+        StepVerifier.create(useCase.execute(List.of()))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        StepVerifier.create(useCase.execute(null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
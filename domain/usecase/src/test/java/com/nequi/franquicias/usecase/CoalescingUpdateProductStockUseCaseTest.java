@@ -0,0 +1,148 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.StockUpdate;
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CoalescingUpdateProductStockUseCase")
+class CoalescingUpdateProductStockUseCaseTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(50);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private CoalescingUpdateProductStockUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new CoalescingUpdateProductStockUseCase(productRepository, MaxStockIndex.disabled(), WINDOW);
+    }
+
+    @Test
+    @DisplayName("agrupa peticiones del mismo producto en una escritura con el último valor")
+    void agrupaPeticionesDelMismoProducto() {
+        when(productRepository.updateStocks(List.of(new StockUpdate(1L, 30), new StockUpdate(2L, 7))))
+                .thenReturn(Flux.just(new Product(1L, "P1", 30, 5L), new Product(2L, "P2", 7, 5L)));
+
+        StepVerifier.create(Mono.zip(
+                        useCase.execute(1L, 10),
+                        useCase.execute(2L, 7),
+                        useCase.execute(1L, 20),
+                        useCase.execute(1L, 30)))
+                .expectNextMatches(t -> t.getT1().stock() == 30 && t.getT2().stock() == 7
+                        && t.getT3().stock() == 30 && t.getT4().stock() == 30)
+                .verifyComplete();
+
+        verify(productRepository, times(1)).updateStocks(any());
+        verify(productRepository, never()).updateStock(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("una petición cancelada antes de cerrar la ventana no aplica su valor")
+    void peticionCanceladaNoAplicaSuValor() {
+        when(productRepository.updateStocks(List.of(new StockUpdate(1L, 10))))
+                .thenReturn(Flux.just(new Product(1L, "P1", 10, 5L)));
+
+        CompletableFuture<Product> kept = useCase.execute(1L, 10).toFuture();
+        useCase.execute(1L, 20).subscribe().dispose();
+        useCase.execute(2L, 7).subscribe().dispose();
+
+        assertEquals(10, kept.join().stock());
+        verify(productRepository, times(1)).updateStocks(any());
+    }
+
+    @Test
+    @DisplayName("una escritura con versión esperada no se agrupa")
+    void escrituraConVersionNoSeAgrupa() {
+        Product updated = new Product(1L, "P1", 30, 5L, 3L);
+        when(productRepository.updateStock(1L, 30, 2L)).thenReturn(Mono.just(updated));
+
+        StepVerifier.create(useCase.execute(1L, 30, 2L))
+                .expectNext(updated)
+                .verifyComplete();
+
+        verify(productRepository, never()).updateStocks(any());
+    }
+
+    @Test
+    @DisplayName("las peticiones de ventanas distintas se escriben por separado")
+    void ventanasDistintasSeEscribenPorSeparado() {
+        when(productRepository.updateStocks(List.of(new StockUpdate(1L, 10))))
+                .thenReturn(Flux.just(new Product(1L, "P1", 10, 5L)));
+        when(productRepository.updateStocks(List.of(new StockUpdate(1L, 20))))
+                .thenReturn(Flux.just(new Product(1L, "P1", 20, 5L)));
+
+        StepVerifier.create(useCase.execute(1L, 10))
+                .expectNextMatches(p -> p.stock() == 10)
+                .verifyComplete();
+        StepVerifier.create(useCase.execute(1L, 20))
+                .expectNextMatches(p -> p.stock() == 20)
+                .verifyComplete();
+
+        verify(productRepository, times(2)).updateStocks(any());
+    }
+
+    @Test
+    @DisplayName("falla con IllegalArgumentException si el producto no existe")
+    void fallaSiProductoNoExiste() {
+        when(productRepository.updateStocks(List.of(new StockUpdate(999L, 5)))).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.execute(999L, 5))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException
+                        && e.getMessage().contains("Producto no encontrado"))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("propaga el error del repositorio a todas las peticiones en espera")
+    void propagaErrorDelRepositorio() {
+        when(productRepository.updateStocks(any())).thenReturn(Flux.error(new RuntimeException("DB error")));
+
+        StepVerifier.create(Mono.zipDelayError(useCase.execute(1L, 5), useCase.execute(1L, 6)))
+                .expectError(RuntimeException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("valida el stock antes de encolar")
+    void validaStockAntesDeEncolar() {
+        StepVerifier.create(useCase.execute(1L, -1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(productRepository, never()).updateStocks(any());
+    }
+
+    @Test
+    @DisplayName("rechaza una ventana no positiva")
+    void rechazaVentanaNoPositiva() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new CoalescingUpdateProductStockUseCase(productRepository, MaxStockIndex.disabled(), Duration.ZERO));
+    }
+}
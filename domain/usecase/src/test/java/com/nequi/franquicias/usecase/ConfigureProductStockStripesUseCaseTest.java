@@ -0,0 +1,101 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConfigureProductStockStripesUseCase")
+class ConfigureProductStockStripesUseCaseTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ConfigureProductStockStripesUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new ConfigureProductStockStripesUseCase(productRepository, MaxStockIndex.disabled(), true);
+    }
+
+    @Test
+    @DisplayName("reparte el stock en franjas conservando el total")
+    void repartePorFranjas() {
+        Product product = new Product(1L, "Producto", 40, 5L, 2L);
+        when(productRepository.setStockStripes(1L, 8)).thenReturn(Mono.just(product));
+
+        StepVerifier.create(useCase.execute(1L, 8))
+                .expectNext(product)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("cero franjas devuelve el producto a una sola fila")
+    void ceroFranjasDesactiva() {
+        Product product = new Product(1L, "Producto", 40, 5L, 3L);
+        when(productRepository.setStockStripes(1L, 0)).thenReturn(Mono.just(product));
+
+        StepVerifier.create(useCase.execute(1L, 0))
+                .expectNext(product)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("rechaza cantidad de franjas fuera de rango sin tocar la base de datos")
+    void rechazaFranjasFueraDeRango() {
+        StepVerifier.create(useCase.execute(1L, ConfigureProductStockStripesUseCase.MAX_STRIPES + 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(useCase.execute(1L, -1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(productRepository, never()).setStockStripes(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("con el plegado desactivado rechaza repartir pero permite volver a una sola fila")
+    void rechazaRepartirSinPlegado() {
+        ConfigureProductStockStripesUseCase withoutFold =
+                new ConfigureProductStockStripesUseCase(productRepository, MaxStockIndex.disabled(), false);
+        Product product = new Product(1L, "Producto", 40, 5L, 3L);
+        when(productRepository.setStockStripes(1L, 0)).thenReturn(Mono.just(product));
+
+        StepVerifier.create(withoutFold.execute(1L, 8))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                        && rse.getStatusCode() == HttpStatus.CONFLICT)
+                .verify();
+        StepVerifier.create(withoutFold.execute(1L, 0))
+                .expectNext(product)
+                .verifyComplete();
+
+        verify(productRepository, never()).setStockStripes(1L, 8);
+    }
+
+    @Test
+    @DisplayName("responde 404 si el producto no existe")
+    void rechazaProductoInexistente() {
+        when(productRepository.setStockStripes(999L, 4)).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.execute(999L, 4))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                        && rse.getStatusCode() == HttpStatus.NOT_FOUND)
+                .verify();
+    }
+}
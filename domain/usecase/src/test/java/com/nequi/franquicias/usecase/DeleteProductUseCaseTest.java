@@ -2,6 +2,7 @@ package com.nequi.franquicias.usecase;
 
 import com.nequi.franquicias.model.port.BranchRepository;
 import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,6 +12,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,23 +31,25 @@ class DeleteProductUseCaseTest {
 
     @BeforeEach
     void setUp() {
-        useCase = new DeleteProductUseCase(productRepository, branchRepository);
+        useCase = new DeleteProductUseCase(productRepository, branchRepository, MaxStockIndex.disabled());
     }
 
     @Test
     @DisplayName("elimina producto exitosamente")
     void eliminaProductoExitosamente() {
-        when(productRepository.existsByIdAndBranchId(1L, 5L)).thenReturn(Mono.just(true));
-        when(productRepository.deleteById(1L)).thenReturn(Mono.empty());
+        when(productRepository.deleteByIdAndBranchId(1L, 5L)).thenReturn(Mono.just(1L));
 
         StepVerifier.create(useCase.execute(1L, 5L))
                 .verifyComplete();
+
+        verify(productRepository, never()).existsByIdAndBranchId(anyLong(), anyLong());
+        verify(productRepository, never()).deleteById(anyLong());
     }
 
     @Test
     @DisplayName("rechaza cuando producto no pertenece a sucursal")
     void rechazaProductoNoPerteneceSucursal() {
-        when(productRepository.existsByIdAndBranchId(1L, 5L)).thenReturn(Mono.just(false));
+        when(productRepository.deleteByIdAndBranchId(1L, 5L)).thenReturn(Mono.just(0L));
 
         StepVerifier.create(useCase.execute(1L, 5L))
                 .expectError(IllegalArgumentException.class)
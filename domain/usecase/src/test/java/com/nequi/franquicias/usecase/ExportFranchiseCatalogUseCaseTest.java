@@ -0,0 +1,82 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.FranchiseCatalogEntry;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportFranchiseCatalogUseCase")
+class ExportFranchiseCatalogUseCaseTest {
+
+    @Mock
+    private FranchiseRepository franchiseRepository;
+
+    private ExportFranchiseCatalogUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new ExportFranchiseCatalogUseCase(franchiseRepository);
+    }
+
+    @Test
+    @DisplayName("emite las líneas del catálogo en el orden del puerto")
+    void emiteLineasDelCatalogo() {
+        when(franchiseRepository.streamCatalog(1L)).thenReturn(Flux.just(
+                new FranchiseCatalogEntry(1L, "F", 2L, "S1", 3L, "P1", 5),
+                new FranchiseCatalogEntry(1L, "F", 4L, "S2", null, null, null)));
+
+        StepVerifier.create(useCase.execute(1L))
+                .expectNextMatches(e -> e.productId() == 3L)
+                .expectNextMatches(e -> e.branchId() == 4L && !e.hasProduct())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("propaga la demanda del consumidor hasta el puerto")
+    void propagaDemanda() {
+        AtomicLong requested = new AtomicLong();
+        when(franchiseRepository.streamCatalog(1L)).thenReturn(Flux.range(1, 1_000)
+                .map(i -> new FranchiseCatalogEntry(1L, "F", 2L, "S", (long) i, "P", i))
+                .doOnRequest(requested::addAndGet));
+
+        StepVerifier.create(useCase.execute(1L), 2)
+                .expectNextCount(2)
+                .thenCancel()
+                .verify();
+
+        assertEquals(2L, requested.get());
+    }
+
+    @Test
+    @DisplayName("retorna 404 si la franquicia no existe")
+    void retorna404SiNoExiste() {
+        when(franchiseRepository.streamCatalog(999L)).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.execute(999L))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                        && rse.getStatusCode() == HttpStatus.NOT_FOUND)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("rechaza franchiseId nulo")
+    void rechazaFranchiseIdNulo() {
+        StepVerifier.create(useCase.execute(null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
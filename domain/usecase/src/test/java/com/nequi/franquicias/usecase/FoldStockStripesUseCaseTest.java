@@ -0,0 +1,62 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.BranchTopProduct;
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FoldStockStripesUseCase")
+class FoldStockStripesUseCaseTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("cuenta los productos plegados")
+    void cuentaProductosPlegados() {
+        when(productRepository.foldStockStripes()).thenReturn(Flux.just(
+                new Product(1L, "P1", 37, 5L), new Product(2L, "P2", 4, 6L)));
+        FoldStockStripesUseCase useCase = new FoldStockStripesUseCase(productRepository, MaxStockIndex.disabled());
+
+        StepVerifier.create(useCase.execute())
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("actualiza el índice en memoria con el stock plegado")
+    void actualizaIndiceConStockPlegado() {
+        MaxStockIndex index = new MaxStockIndex(productRepository);
+        when(productRepository.findTopStockPerBranch()).thenReturn(Flux.just(
+                new BranchTopProduct(2L, "P2", 10, 5L, "Sucursal", 1L)));
+        StepVerifier.create(index.rebuild()).verifyComplete();
+        when(productRepository.foldStockStripes()).thenReturn(Flux.just(new Product(1L, "P1", 37, 5L)));
+
+        StepVerifier.create(new FoldStockStripesUseCase(productRepository, index).execute())
+                .expectNext(1L)
+                .verifyComplete();
+
+        assertEquals(1L, index.findByFranchiseId(1L).orElseThrow().get(0).productId());
+    }
+
+    @Test
+    @DisplayName("sin productos repartidos no hay cambios")
+    void sinProductosRepartidos() {
+        when(productRepository.foldStockStripes()).thenReturn(Flux.empty());
+
+        StepVerifier.create(new FoldStockStripesUseCase(productRepository, MaxStockIndex.disabled()).execute())
+                .expectNext(0L)
+                .verifyComplete();
+    }
+}
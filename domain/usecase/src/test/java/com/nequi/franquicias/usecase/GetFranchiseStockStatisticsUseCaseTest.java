@@ -0,0 +1,72 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.StockStatistics;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import com.nequi.franquicias.model.port.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GetFranchiseStockStatisticsUseCase")
+class GetFranchiseStockStatisticsUseCaseTest {
+
+    @Mock
+    private FranchiseRepository franchiseRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private GetFranchiseStockStatisticsUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new GetFranchiseStockStatisticsUseCase(franchiseRepository, productRepository);
+    }
+
+    @Test
+    @DisplayName("emite estadísticas por sucursal y total de franquicia")
+    void emiteEstadisticas() {
+        when(franchiseRepository.existsById(1L)).thenReturn(Mono.just(true));
+        when(productRepository.findStockStatisticsByFranchiseId(1L)).thenReturn(Flux.just(
+                new StockStatistics(10L, "Sucursal A", 2L, 30L, 10, 20, 15.0, 15.0, 19.5),
+                new StockStatistics(null, null, 2L, 30L, 10, 20, 15.0, 15.0, 19.5)));
+
+        StepVerifier.create(useCase.execute(1L))
+                .expectNextMatches(s -> s.branchId() == 10L)
+                .expectNextMatches(StockStatistics::isFranchiseTotal)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("rechaza franquicia inexistente sin consultar productos")
+    void rechazaFranquiciaInexistente() {
+        when(franchiseRepository.existsById(999L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(useCase.execute(999L))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        verify(productRepository, never()).findStockStatisticsByFranchiseId(anyLong());
+    }
+
+    @Test
+    @DisplayName("rechaza franchiseId nulo")
+    void rechazaFranchiseIdNulo() {
+        StepVerifier.create(useCase.execute(null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,82 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Branch;
+import com.nequi.franquicias.model.Franchise;
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import com.nequi.franquicias.model.port.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GetFranchiseTreeUseCase")
+class GetFranchiseTreeUseCaseTest {
+
+    @Mock
+    private FranchiseRepository franchiseRepository;
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private GetFranchiseTreeUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new GetFranchiseTreeUseCase(franchiseRepository, branchRepository, productRepository);
+    }
+
+    @Test
+    @DisplayName("ensambla sucursales con sus productos")
+    void ensamblaArbol() {
+        when(franchiseRepository.findById(1L)).thenReturn(Mono.just(new Franchise(1L, "Franquicia", List.of())));
+        when(branchRepository.findByFranchiseId(1L)).thenReturn(Flux.just(
+                new Branch(20L, "Sucursal B", 1L, List.of()),
+                new Branch(10L, "Sucursal A", 1L, List.of())));
+        when(productRepository.findByFranchiseId(1L)).thenReturn(Flux.just(
+                new Product(1L, "P1", 5, 10L),
+                new Product(2L, "P2", 7, 10L)));
+
+        StepVerifier.create(useCase.execute(1L))
+                .expectNextMatches(f -> f.sucursales().size() == 2
+                        && f.sucursales().get(0).id() == 10L
+                        && f.sucursales().get(0).productos().size() == 2
+                        && f.sucursales().get(1).productos().isEmpty())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("rechaza franquicia inexistente")
+    void rechazaFranquiciaInexistente() {
+        when(franchiseRepository.findById(999L)).thenReturn(Mono.empty());
+        when(branchRepository.findByFranchiseId(999L)).thenReturn(Flux.empty());
+        when(productRepository.findByFranchiseId(999L)).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.execute(999L))
+                .expectError(ResponseStatusException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("rechaza franchiseId nulo")
+    void rechazaFranchiseIdNulo() {
+        StepVerifier.create(useCase.execute(null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
@@ -1,10 +1,10 @@
 package com.nequi.franquicias.usecase;
 
-import com.nequi.franquicias.model.Branch;
-import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.BranchTopProduct;
 import com.nequi.franquicias.model.port.BranchRepository;
 import com.nequi.franquicias.model.port.FranchiseRepository;
 import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +17,10 @@ import reactor.test.StepVerifier;
 
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,44 +40,36 @@ class GetMaxStockProductsByFranchiseUseCaseTest {
 
     @BeforeEach
     void setUp() {
-        useCase = new GetMaxStockProductsByFranchiseUseCase(
-                franchiseRepository, branchRepository, productRepository);
+        useCase = new GetMaxStockProductsByFranchiseUseCase(franchiseRepository, branchRepository, productRepository,
+                MaxStockIndex.disabled());
     }
 
     @Test
-    @DisplayName("obtiene productos con mayor stock por sucursal")
+    @DisplayName("obtiene productos con mayor stock por sucursal desde la tabla resumen")
     void obtieneProductosMayorStock() {
-        when(franchiseRepository.existsById(1L)).thenReturn(Mono.just(true));
-        Branch branch1 = new Branch(10L, "Sucursal A", 1L, List.of());
-        Branch branch2 = new Branch(20L, "Sucursal B", 1L, List.of());
-        when(branchRepository.findByFranchiseId(1L))
-                .thenReturn(Flux.just(branch1, branch2));
-
-        Product p1a = new Product(1L, "Prod A1", 5, 10L);
-        Product p1b = new Product(2L, "Prod A2", 15, 10L);
-        when(productRepository.findByBranchId(10L)).thenReturn(Flux.just(p1a, p1b));
-
-        Product p2 = new Product(3L, "Prod B", 10, 20L);
-        when(productRepository.findByBranchId(20L)).thenReturn(Flux.just(p2));
+        when(branchRepository.findTopProductsByFranchiseId(1L)).thenReturn(Flux.just(
+                new BranchTopProduct(2L, "Prod A2", 15, 10L, "Sucursal A", 1L),
+                new BranchTopProduct(3L, "Prod B", 10, 20L, "Sucursal B", 1L)));
 
         StepVerifier.create(useCase.execute(1L))
                 .expectNextMatches(list -> {
                     if (list.size() != 2) return false;
                     var s1 = list.stream().filter(p -> p.branchId() == 10L).findFirst().orElseThrow();
                     var s2 = list.stream().filter(p -> p.branchId() == 20L).findFirst().orElseThrow();
-                    return s1.stock() == 15 && s1.productName().equals("Prod A2")
+                    return s1.stock() == 15 && s1.productName().equals("Prod A2") && s1.branchName().equals("Sucursal A")
                             && s2.stock() == 10 && s2.productName().equals("Prod B");
                 })
                 .verifyComplete();
+
+        verify(productRepository, never()).findTopStockByFranchiseId(anyLong(), anyInt());
+        verify(franchiseRepository, never()).existsById(anyLong());
     }
 
     @Test
-    @DisplayName("omite sucursales sin productos")
-    void omiteSucursalesSinProductos() {
+    @DisplayName("retorna lista vacía cuando franquicia existe sin productos")
+    void retornaListaVaciaSinProductos() {
+        when(branchRepository.findTopProductsByFranchiseId(1L)).thenReturn(Flux.empty());
         when(franchiseRepository.existsById(1L)).thenReturn(Mono.just(true));
-        Branch branchVacia = new Branch(10L, "Sucursal vacía", 1L, List.of());
-        when(branchRepository.findByFranchiseId(1L)).thenReturn(Flux.just(branchVacia));
-        when(productRepository.findByBranchId(10L)).thenReturn(Flux.empty());
 
         StepVerifier.create(useCase.execute(1L))
                 .expectNext(List.of())
@@ -91,6 +87,7 @@ class GetMaxStockProductsByFranchiseUseCaseTest {
     @Test
     @DisplayName("rechaza franquicia inexistente")
     void rechazaFranquiciaInexistente() {
+        when(branchRepository.findTopProductsByFranchiseId(999L)).thenReturn(Flux.empty());
         when(franchiseRepository.existsById(999L)).thenReturn(Mono.just(false));
 
         StepVerifier.create(useCase.execute(999L))
@@ -99,39 +96,94 @@ class GetMaxStockProductsByFranchiseUseCaseTest {
     }
 
     @Test
-    @DisplayName("retorna lista vacía cuando franquicia no tiene sucursales")
-    void retornaListaVaciaSinSucursales() {
-        when(franchiseRepository.existsById(1L)).thenReturn(Mono.just(true));
-        when(branchRepository.findByFranchiseId(1L)).thenReturn(Flux.empty());
+    @DisplayName("propaga error cuando branchRepository falla")
+    void propagaErrorCuandoBranchRepositoryFalla() {
+        when(branchRepository.findTopProductsByFranchiseId(1L)).thenReturn(Flux.error(new RuntimeException("DB error")));
 
         StepVerifier.create(useCase.execute(1L))
-                .expectNext(List.of())
-                .verifyComplete();
+                .expectError(RuntimeException.class)
+                .verify();
     }
 
     @Test
-    @DisplayName("cuando productos tienen stock igual reduce mantiene el primero")
-    void productosConStockIgualReduceMantienePrimero() {
-        when(franchiseRepository.existsById(1L)).thenReturn(Mono.just(true));
-        Branch branch = new Branch(10L, "Sucursal", 1L, List.of());
-        when(branchRepository.findByFranchiseId(1L)).thenReturn(Flux.just(branch));
+    @DisplayName("propaga error cuando franchiseRepository falla")
+    void propagaErrorCuandoFranchiseRepositoryFalla() {
+        when(branchRepository.findTopProductsByFranchiseId(1L)).thenReturn(Flux.empty());
+        when(franchiseRepository.existsById(1L)).thenReturn(Mono.error(new RuntimeException("DB error")));
 
-        Product p1 = new Product(1L, "Prod A", 10, 10L);
-        Product p2 = new Product(2L, "Prod B", 10, 10L);
-        when(productRepository.findByBranchId(10L)).thenReturn(Flux.just(p1, p2));
+        StepVerifier.create(useCase.execute(1L))
+                .expectError(RuntimeException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("responde desde el índice en memoria sin consultar repositorios")
+    void respondeDesdeIndice() {
+        MaxStockIndex index = new MaxStockIndex(productRepository);
+        when(productRepository.findTopStockPerBranch()).thenReturn(Flux.just(
+                new BranchTopProduct(2L, "Prod A2", 15, 10L, "Sucursal A", 1L)));
+        StepVerifier.create(index.rebuild()).verifyComplete();
+        useCase = new GetMaxStockProductsByFranchiseUseCase(franchiseRepository, branchRepository, productRepository, index);
 
         StepVerifier.create(useCase.execute(1L))
-                .expectNextMatches(list -> list.size() == 1 && list.get(0).stock() == 10)
+                .expectNextMatches(list -> list.size() == 1 && list.get(0).productId() == 2L)
                 .verifyComplete();
+
+        verify(branchRepository, never()).findTopProductsByFranchiseId(anyLong());
+        verify(franchiseRepository, never()).existsById(anyLong());
     }
 
     @Test
-    @DisplayName("propaga error cuando franchiseRepository falla")
-    void propagaErrorCuandoFranchiseRepositoryFalla() {
-        when(franchiseRepository.existsById(1L)).thenReturn(Mono.error(new RuntimeException("DB error")));
+    @DisplayName("obtiene los K productos con mayor stock por sucursal")
+    void obtieneTopKPorSucursal() {
+        when(productRepository.findTopStockByFranchiseId(1L, 2)).thenReturn(Flux.just(
+                new BranchTopProduct(2L, "Prod A2", 15, 10L, "Sucursal A", 1L),
+                new BranchTopProduct(1L, "Prod A1", 15, 10L, "Sucursal A", 1L),
+                new BranchTopProduct(3L, "Prod B", 10, 20L, "Sucursal B", 1L)));
+
+        StepVerifier.create(useCase.execute(1L, 2))
+                .expectNextMatches(list -> list.size() == 3
+                        && list.get(0).productId() == 2L
+                        && list.get(2).branchId() == 20L)
+                .verifyComplete();
 
-        StepVerifier.create(useCase.execute(1L))
-                .expectError(RuntimeException.class)
+        verify(branchRepository, never()).findTopProductsByFranchiseId(anyLong());
+    }
+
+    @Test
+    @DisplayName("rechaza K fuera de rango")
+    void rechazaKFueraDeRango() {
+        StepVerifier.create(useCase.execute(1L, 0))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        StepVerifier.create(useCase.execute(1L, GetMaxStockProductsByFranchiseUseCase.MAX_PRODUCTS_PER_BRANCH + 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("stream emite cada producto sin acumular la lista")
+    void streamEmiteCadaProducto() {
+        when(branchRepository.findTopProductsByFranchiseId(1L)).thenReturn(Flux.just(
+                new BranchTopProduct(2L, "Prod A2", 15, 10L, "Sucursal A", 1L),
+                new BranchTopProduct(3L, "Prod B", 10, 20L, "Sucursal B", 1L)));
+
+        StepVerifier.create(useCase.stream(1L, 1), 1)
+                .expectNextMatches(p -> p.productId() == 2L)
+                .thenRequest(1)
+                .expectNextMatches(p -> p.productId() == 3L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("stream falla si la franquicia no existe")
+    void streamFallaSiFranquiciaNoExiste() {
+        when(branchRepository.findTopProductsByFranchiseId(999L)).thenReturn(Flux.empty());
+        when(franchiseRepository.existsById(999L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(useCase.stream(999L, 1))
+                .expectError(IllegalArgumentException.class)
                 .verify();
     }
 }
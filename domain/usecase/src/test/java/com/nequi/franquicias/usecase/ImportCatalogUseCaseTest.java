@@ -0,0 +1,179 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.CatalogEntity;
+import com.nequi.franquicias.model.port.CatalogImportRepository;
+import com.nequi.franquicias.model.port.IdAllocator;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImportCatalogUseCase")
+class ImportCatalogUseCaseTest {
+
+    @Mock
+    private CatalogImportRepository catalogImportRepository;
+
+    @Mock
+    private IdAllocator idAllocator;
+
+    private ImportCatalogUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new ImportCatalogUseCase(catalogImportRepository, idAllocator, MaxStockIndex.disabled());
+    }
+
+    /** Simula el adaptador: consume todo el contenido y lo deja disponible como texto. */
+    private StringBuilder captureCsv(CatalogEntity entity, long count) {
+        StringBuilder captured = new StringBuilder();
+        when(catalogImportRepository.importCsv(eq(entity), any())).thenAnswer(inv -> {
+            Flux<ByteBuffer> csv = inv.getArgument(1);
+            return csv.doOnNext(b -> captured.append(StandardCharsets.UTF_8.decode(b))).then(Mono.just(count));
+        });
+        return captured;
+    }
+
+    @Test
+    @DisplayName("codifica las filas como CSV con encabezado y escapa comillas")
+    void codificaFilasComoCsv() {
+        StringBuilder csv = captureCsv(CatalogEntity.PRODUCTS, 2L);
+
+        StepVerifier.create(useCase.importRows(CatalogEntity.PRODUCTS, Flux.just(
+                        new ImportCatalogUseCase.ImportRow(1L, 10L, " Café \"premium\", 1kg ", 5),
+                        new ImportCatalogUseCase.ImportRow(2L, 10L, "Té", null))))
+                .expectNext(2L)
+                .verifyComplete();
+
+        assertEquals("id,sucursal_id,nombre,stock\n"
+                + "1,10,\"Café \"\"premium\"\", 1kg\",5\n"
+                + "2,10,\"Té\",0\n", csv.toString());
+    }
+
+    @Test
+    @DisplayName("codifica franquicias sin entidad padre")
+    void codificaFranquicias() {
+        StringBuilder csv = captureCsv(CatalogEntity.FRANCHISES, 1L);
+
+        StepVerifier.create(useCase.importRows(CatalogEntity.FRANCHISES, Flux.just(
+                        new ImportCatalogUseCase.ImportRow(7L, null, "Franquicia", null))))
+                .expectNext(1L)
+                .verifyComplete();
+
+        assertEquals("id,nombre\n7,\"Franquicia\"\n", csv.toString());
+    }
+
+    @Test
+    @DisplayName("reserva ids para las filas que no lo traen, una vez por bloque")
+    void reservaIdsParaFilasSinId() {
+        StringBuilder csv = captureCsv(CatalogEntity.BRANCHES, 3L);
+        when(idAllocator.allocate(CatalogEntity.BRANCHES, 2)).thenReturn(Mono.just(List.of(40L, 41L)));
+
+        StepVerifier.create(useCase.importRows(CatalogEntity.BRANCHES, Flux.just(
+                        new ImportCatalogUseCase.ImportRow(null, 1L, "A", null),
+                        new ImportCatalogUseCase.ImportRow(9L, 1L, "B", null),
+                        new ImportCatalogUseCase.ImportRow(null, 1L, "C", null))))
+                .expectNext(3L)
+                .verifyComplete();
+
+        assertEquals("id,franquicia_id,nombre\n"
+                + "40,1,\"A\"\n"
+                + "9,1,\"B\"\n"
+                + "41,1,\"C\"\n", csv.toString());
+        verify(idAllocator).allocate(CatalogEntity.BRANCHES, 2);
+        verify(idAllocator).discard(CatalogEntity.BRANCHES);
+    }
+
+    @Test
+    @DisplayName("no reserva ids si todas las filas lo traen")
+    void noReservaIdsSiTodasLoTraen() {
+        captureCsv(CatalogEntity.FRANCHISES, 1L);
+
+        StepVerifier.create(useCase.importRows(CatalogEntity.FRANCHISES, Flux.just(
+                        new ImportCatalogUseCase.ImportRow(7L, null, "Franquicia", null))))
+                .expectNext(1L)
+                .verifyComplete();
+
+        verify(idAllocator, never()).allocate(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("rechaza una fila inválida indicando su posición")
+    void rechazaFilaInvalida() {
+        captureCsv(CatalogEntity.BRANCHES, 0L);
+
+        StepVerifier.create(useCase.importRows(CatalogEntity.BRANCHES, Flux.just(
+                        new ImportCatalogUseCase.ImportRow(1L, 1L, "Sucursal", null),
+                        new ImportCatalogUseCase.ImportRow(2L, null, "Sin franquicia", null))))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException && e.getMessage().contains("fila 1"))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("entrega el CSV sin transformarlo")
+    void entregaCsvSinTransformar() {
+        Flux<ByteBuffer> csv = Flux.just(ByteBuffer.wrap("id,nombre\n1,A\n".getBytes(StandardCharsets.UTF_8)));
+        when(catalogImportRepository.importCsv(CatalogEntity.FRANCHISES, csv)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(useCase.importCsv(CatalogEntity.FRANCHISES, csv))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("reconstruye el índice de stock tras importar productos")
+    void reconstruyeIndiceTrasImportarProductos() {
+        MaxStockIndex index = mock(MaxStockIndex.class);
+        when(index.rebuild()).thenReturn(Mono.empty());
+        useCase = new ImportCatalogUseCase(catalogImportRepository, idAllocator, index);
+        when(catalogImportRepository.importCsv(eq(CatalogEntity.PRODUCTS), any())).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(useCase.importCsv(CatalogEntity.PRODUCTS, Flux.empty()))
+                .expectNext(3L)
+                .verifyComplete();
+
+        verify(index).rebuild();
+    }
+
+    @Test
+    @DisplayName("no reconstruye el índice al importar franquicias")
+    void noReconstruyeIndiceConFranquicias() {
+        MaxStockIndex index = mock(MaxStockIndex.class);
+        useCase = new ImportCatalogUseCase(catalogImportRepository, idAllocator, index);
+        when(catalogImportRepository.importCsv(eq(CatalogEntity.FRANCHISES), any())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(useCase.importCsv(CatalogEntity.FRANCHISES, Flux.empty()))
+                .expectNext(1L)
+                .verifyComplete();
+
+        verify(index, never()).rebuild();
+    }
+
+    @Test
+    @DisplayName("rechaza entidad nula")
+    void rechazaEntidadNula() {
+        StepVerifier.create(useCase.importCsv(null, Flux.empty()))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
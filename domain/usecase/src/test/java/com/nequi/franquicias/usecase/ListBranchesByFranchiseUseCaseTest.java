@@ -0,0 +1,76 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Branch;
+import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ListBranchesByFranchiseUseCase")
+class ListBranchesByFranchiseUseCaseTest {
+
+    @Mock
+    private FranchiseRepository franchiseRepository;
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    private ListBranchesByFranchiseUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new ListBranchesByFranchiseUseCase(franchiseRepository, branchRepository);
+    }
+
+    @Test
+    @DisplayName("retorna página sin verificar existencia de la franquicia")
+    void retornaPagina() {
+        when(branchRepository.findPageByFranchiseId(1L, 0L, 2)).thenReturn(Flux.just(
+                new Branch(10L, "Sucursal A", 1L, List.of()),
+                new Branch(11L, "Sucursal B", 1L, List.of())));
+
+        StepVerifier.create(useCase.execute(1L, null, 1))
+                .expectNextMatches(page -> page.items().size() == 1 && page.nextAfterId() == 10L)
+                .verifyComplete();
+
+        verify(franchiseRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("página vacía de franquicia existente")
+    void paginaVaciaDeFranquiciaExistente() {
+        when(branchRepository.findPageByFranchiseId(1L, 11L, 3)).thenReturn(Flux.empty());
+        when(franchiseRepository.existsById(1L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(useCase.execute(1L, 11L, 2))
+                .expectNextMatches(page -> page.items().isEmpty() && !page.hasNext())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("rechaza franquicia inexistente")
+    void rechazaFranquiciaInexistente() {
+        when(branchRepository.findPageByFranchiseId(999L, 0L, 3)).thenReturn(Flux.empty());
+        when(franchiseRepository.existsById(999L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(useCase.execute(999L, null, 2))
+                .expectError(ResponseStatusException.class)
+                .verify();
+    }
+}
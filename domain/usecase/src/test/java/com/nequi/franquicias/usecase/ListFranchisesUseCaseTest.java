@@ -0,0 +1,67 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.CursorPage;
+import com.nequi.franquicias.model.Franchise;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ListFranchisesUseCase")
+class ListFranchisesUseCaseTest {
+
+    @Mock
+    private FranchiseRepository franchiseRepository;
+
+    private ListFranchisesUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new ListFranchisesUseCase(franchiseRepository);
+    }
+
+    @Test
+    @DisplayName("lee una fila extra para saber si hay página siguiente")
+    void leeFilaExtraParaCursor() {
+        when(franchiseRepository.findPage(0L, 3)).thenReturn(Flux.just(
+                new Franchise(1L, "F1", List.of()),
+                new Franchise(2L, "F2", List.of()),
+                new Franchise(3L, "F3", List.of())));
+
+        StepVerifier.create(useCase.execute(null, 2))
+                .expectNextMatches(page -> page.items().size() == 2 && page.nextAfterId() == 2L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("última página no tiene cursor siguiente")
+    void ultimaPaginaSinCursor() {
+        when(franchiseRepository.findPage(2L, 3)).thenReturn(Flux.just(new Franchise(3L, "F3", List.of())));
+
+        StepVerifier.create(useCase.execute(2L, 2))
+                .expectNextMatches(page -> page.items().size() == 1 && !page.hasNext())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("rechaza tamaño de página fuera de rango")
+    void rechazaLimiteFueraDeRango() {
+        StepVerifier.create(useCase.execute(null, 0))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        StepVerifier.create(useCase.execute(null, CursorPage.MAX_LIMIT + 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
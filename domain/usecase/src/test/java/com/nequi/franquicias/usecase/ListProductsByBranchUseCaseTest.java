@@ -0,0 +1,66 @@
+package com.nequi.franquicias.usecase;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.model.port.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ListProductsByBranchUseCase")
+class ListProductsByBranchUseCaseTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ListProductsByBranchUseCase useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new ListProductsByBranchUseCase(branchRepository, productRepository);
+    }
+
+    @Test
+    @DisplayName("retorna página con cursor siguiente")
+    void retornaPaginaConCursor() {
+        when(productRepository.findPageByBranchId(10L, 5L, 2)).thenReturn(Flux.just(
+                new Product(6L, "P6", 1, 10L),
+                new Product(8L, "P8", 2, 10L)));
+
+        StepVerifier.create(useCase.execute(10L, 5L, 1))
+                .expectNextMatches(page -> page.items().get(0).id() == 6L && page.nextAfterId() == 6L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("rechaza sucursal inexistente")
+    void rechazaSucursalInexistente() {
+        when(productRepository.findPageByBranchId(999L, 0L, 51)).thenReturn(Flux.empty());
+        when(branchRepository.existsById(999L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(useCase.execute(999L, null, 50))
+                .expectError(ResponseStatusException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("rechaza branchId nulo")
+    void rechazaBranchIdNulo() {
+        StepVerifier.create(useCase.execute(null, null, 10))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+}
@@ -2,6 +2,7 @@ package com.nequi.franquicias.usecase;
 
 import com.nequi.franquicias.model.Branch;
 import com.nequi.franquicias.model.port.BranchRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,9 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,16 +30,14 @@ class UpdateBranchNameUseCaseTest {
 
     @BeforeEach
     void setUp() {
-        useCase = new UpdateBranchNameUseCase(branchRepository);
+        useCase = new UpdateBranchNameUseCase(branchRepository, MaxStockIndex.disabled());
     }
 
     @Test
     @DisplayName("actualiza nombre exitosamente")
     void actualizaNombreExitosamente() {
-        Branch existing = new Branch(1L, "Viejo", 10L, java.util.List.of());
         Branch updated = new Branch(1L, "Nuevo", 10L, java.util.List.of());
-        when(branchRepository.findById(1L)).thenReturn(Mono.just(existing));
-        when(branchRepository.save(any(Branch.class))).thenReturn(Mono.just(updated));
+        when(branchRepository.updateNombre(1L, "Nuevo", null)).thenReturn(Mono.just(updated));
 
         StepVerifier.create(useCase.execute(1L, "Nuevo"))
                 .expectNext(updated)
@@ -45,10 +47,23 @@ class UpdateBranchNameUseCaseTest {
     @Test
     @DisplayName("rechaza sucursal no encontrada")
     void rechazaSucursalNoEncontrada() {
-        when(branchRepository.findById(999L)).thenReturn(Mono.empty());
+        when(branchRepository.updateNombre(999L, "Nuevo", null)).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.execute(999L, "Nuevo"))
                 .expectError(ResponseStatusException.class)
                 .verify();
     }
+
+    @Test
+    @DisplayName("renombra con una sola sentencia sin leer ni reescribir la fila")
+    void renombraSinLeerLaFila() {
+        when(branchRepository.updateNombre(1L, "Nuevo", null)).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.execute(1L, "  Nuevo  "))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        verify(branchRepository, never()).findById(anyLong());
+        verify(branchRepository, never()).save(any(Branch.class));
+    }
 }
@@ -14,6 +14,9 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,10 +36,8 @@ class UpdateFranchiseNameUseCaseTest {
     @Test
     @DisplayName("actualiza nombre exitosamente")
     void actualizaNombreExitosamente() {
-        Franchise existing = new Franchise(1L, "Viejo", java.util.List.of());
         Franchise updated = new Franchise(1L, "Nuevo", java.util.List.of());
-        when(franchiseRepository.findById(1L)).thenReturn(Mono.just(existing));
-        when(franchiseRepository.save(any(Franchise.class))).thenReturn(Mono.just(updated));
+        when(franchiseRepository.updateNombre(1L, "Nuevo", null)).thenReturn(Mono.just(updated));
 
         StepVerifier.create(useCase.execute(1L, "Nuevo"))
                 .expectNext(updated)
@@ -46,19 +47,40 @@ class UpdateFranchiseNameUseCaseTest {
     @Test
     @DisplayName("rechaza franquicia no encontrada")
     void rechazaFranquiciaNoEncontrada() {
-        when(franchiseRepository.findById(999L)).thenReturn(Mono.empty());
+        when(franchiseRepository.updateNombre(999L, "Nuevo", null)).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.execute(999L, "Nuevo"))
                 .expectError(ResponseStatusException.class)
                 .verify();
     }
 
+    @Test
+    @DisplayName("falla con 412 si la franquicia cambió de versión")
+    void fallaConVersionObsoleta() {
+        when(franchiseRepository.updateNombre(1L, "Nuevo", 5L)).thenReturn(Mono.empty());
+        when(franchiseRepository.existsById(1L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(useCase.execute(1L, "Nuevo", 5L))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                        && rse.getStatusCode() == HttpStatus.PRECONDITION_FAILED)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("con versión esperada responde 404 si la franquicia no existe")
+    void conVersionRespondeNoEncontrada() {
+        when(franchiseRepository.updateNombre(999L, "Nuevo", 5L)).thenReturn(Mono.empty());
+        when(franchiseRepository.existsById(999L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(useCase.execute(999L, "Nuevo", 5L))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                        && rse.getStatusCode() == HttpStatus.NOT_FOUND)
+                .verify();
+    }
+
     @Test
     @DisplayName("rechaza nombre vacío")
     void rechazaNombreVacio() {
-        Franchise existing = new Franchise(1L, "Viejo", java.util.List.of());
-        when(franchiseRepository.findById(1L)).thenReturn(Mono.just(existing));
-
         StepVerifier.create(useCase.execute(1L, "  "))
                 .expectError(IllegalArgumentException.class)
                 .verify();
@@ -75,9 +97,6 @@ class UpdateFranchiseNameUseCaseTest {
     @Test
     @DisplayName("rechaza nombre nulo")
     void rechazaNombreNulo() {
-        Franchise existing = new Franchise(1L, "Viejo", java.util.List.of());
-        when(franchiseRepository.findById(1L)).thenReturn(Mono.just(existing));
-
         StepVerifier.create(useCase.execute(1L, null))
                 .expectError(IllegalArgumentException.class)
                 .verify();
@@ -86,13 +105,24 @@ class UpdateFranchiseNameUseCaseTest {
     @Test
     @DisplayName("trim del nombre antes de guardar")
     void trimNombreAntesDeGuardar() {
-        Franchise existing = new Franchise(1L, "Viejo", java.util.List.of());
         Franchise updated = new Franchise(1L, "Nuevo", java.util.List.of());
-        when(franchiseRepository.findById(1L)).thenReturn(Mono.just(existing));
-        when(franchiseRepository.save(any(Franchise.class))).thenReturn(Mono.just(updated));
+        when(franchiseRepository.updateNombre(1L, "Nuevo", null)).thenReturn(Mono.just(updated));
 
         StepVerifier.create(useCase.execute(1L, "  Nuevo  "))
                 .expectNextMatches(f -> "Nuevo".equals(f.nombre()))
                 .verifyComplete();
     }
+
+    @Test
+    @DisplayName("renombra con una sola sentencia sin leer ni reescribir la fila")
+    void renombraSinLeerLaFila() {
+        when(franchiseRepository.updateNombre(1L, "Nuevo", null)).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.execute(1L, "  Nuevo  "))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        verify(franchiseRepository, never()).findById(anyLong());
+        verify(franchiseRepository, never()).save(any(Franchise.class));
+    }
 }
@@ -2,6 +2,7 @@ package com.nequi.franquicias.usecase;
 
 import com.nequi.franquicias.model.Product;
 import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,9 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,16 +30,14 @@ class UpdateProductNameUseCaseTest {
 
     @BeforeEach
     void setUp() {
-        useCase = new UpdateProductNameUseCase(productRepository);
+        useCase = new UpdateProductNameUseCase(productRepository, MaxStockIndex.disabled());
     }
 
     @Test
     @DisplayName("actualiza nombre exitosamente")
     void actualizaNombreExitosamente() {
-        Product existing = new Product(1L, "Viejo", 10, 5L);
         Product updated = new Product(1L, "Nuevo", 10, 5L);
-        when(productRepository.findById(1L)).thenReturn(Mono.just(existing));
-        when(productRepository.save(any(Product.class))).thenReturn(Mono.just(updated));
+        when(productRepository.updateNombre(1L, "Nuevo", null)).thenReturn(Mono.just(updated));
 
         StepVerifier.create(useCase.execute(1L, "Nuevo"))
                 .expectNext(updated)
@@ -45,10 +47,23 @@ class UpdateProductNameUseCaseTest {
     @Test
     @DisplayName("rechaza producto no encontrado")
     void rechazaProductoNoEncontrado() {
-        when(productRepository.findById(999L)).thenReturn(Mono.empty());
+        when(productRepository.updateNombre(999L, "Nuevo", null)).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.execute(999L, "Nuevo"))
                 .expectError(ResponseStatusException.class)
                 .verify();
     }
+
+    @Test
+    @DisplayName("renombra con una sola sentencia sin leer ni reescribir la fila")
+    void renombraSinLeerLaFila() {
+        when(productRepository.updateNombre(1L, "Nuevo", null)).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.execute(1L, "  Nuevo  "))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        verify(productRepository, never()).findById(anyLong());
+        verify(productRepository, never()).save(any(Product.class));
+    }
 }
@@ -2,16 +2,23 @@ package com.nequi.franquicias.usecase;
 
 import com.nequi.franquicias.model.Product;
 import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.usecase.index.MaxStockIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,26 +32,27 @@ class UpdateProductStockUseCaseTest {
 
     @BeforeEach
     void setUp() {
-        useCase = new UpdateProductStockUseCase(productRepository);
+        useCase = new UpdateProductStockUseCase(productRepository, MaxStockIndex.disabled());
     }
 
     @Test
-    @DisplayName("actualiza stock exitosamente")
+    @DisplayName("actualiza stock exitosamente en una sola sentencia")
     void actualizaStockExitosamente() {
-        Product existing = new Product(1L, "Producto", 10, 5L);
         Product updated = new Product(1L, "Producto", 20, 5L);
-        when(productRepository.findById(1L)).thenReturn(Mono.just(existing));
-        when(productRepository.save(any(Product.class))).thenReturn(Mono.just(updated));
+        when(productRepository.updateStock(1L, 20, null)).thenReturn(Mono.just(updated));
 
         StepVerifier.create(useCase.execute(1L, 20))
                 .expectNext(updated)
                 .verifyComplete();
+
+        verify(productRepository, never()).findById(anyLong());
+        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
     @DisplayName("rechaza producto no encontrado")
     void rechazaProductoNoEncontrado() {
-        when(productRepository.findById(999L)).thenReturn(Mono.empty());
+        when(productRepository.updateStock(999L, 10, null)).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.execute(999L, 10))
                 .expectError(IllegalArgumentException.class)
@@ -52,14 +60,61 @@ class UpdateProductStockUseCaseTest {
     }
 
     @Test
-    @DisplayName("rechaza stock negativo")
-    void rechazaStockNegativo() {
-        Product existing = new Product(1L, "Producto", 10, 5L);
-        when(productRepository.findById(1L)).thenReturn(Mono.just(existing));
+    @DisplayName("aplica la versión esperada en la sentencia condicional")
+    void aplicaVersionEsperada() {
+        Product updated = new Product(1L, "Producto", 20, 5L, 4L);
+        when(productRepository.updateStock(1L, 20, 3L)).thenReturn(Mono.just(updated));
+
+        StepVerifier.create(useCase.execute(1L, 20, 3L))
+                .expectNext(updated)
+                .verifyComplete();
+
+        verify(productRepository, never()).existsById(anyLong());
+    }
 
+    @Test
+    @DisplayName("falla con 412 si el producto existe en otra versión")
+    void fallaConVersionObsoleta() {
+        when(productRepository.updateStock(1L, 20, 3L)).thenReturn(Mono.empty());
+        when(productRepository.existsById(1L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(useCase.execute(1L, 20, 3L))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                        && rse.getStatusCode() == HttpStatus.PRECONDITION_FAILED)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("falla con 412 si el If-Match es de antes de un ajuste sobre un producto repartido")
+    void fallaConVersionPreviaAAjusteEnFranjas() {
+        when(productRepository.updateStock(1L, 20, 3L)).thenReturn(Mono.empty());
+        when(productRepository.existsById(1L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(useCase.execute(1L, 20, 3L))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                        && rse.getStatusCode() == HttpStatus.PRECONDITION_FAILED)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("con versión esperada distingue producto inexistente")
+    void conVersionDistingueInexistente() {
+        when(productRepository.updateStock(999L, 20, 3L)).thenReturn(Mono.empty());
+        when(productRepository.existsById(999L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(useCase.execute(999L, 20, 3L))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("rechaza stock negativo sin tocar la base de datos")
+    void rechazaStockNegativo() {
         StepVerifier.create(useCase.execute(1L, -1))
                 .expectError(IllegalArgumentException.class)
                 .verify();
+
+        verify(productRepository, never()).updateStock(anyLong(), anyInt(), any());
     }
 
     @Test
@@ -73,9 +128,6 @@ class UpdateProductStockUseCaseTest {
     @Test
     @DisplayName("rechaza newStock nulo")
     void rechazaNewStockNulo() {
-        Product existing = new Product(1L, "Producto", 10, 5L);
-        when(productRepository.findById(1L)).thenReturn(Mono.just(existing));
-
         StepVerifier.create(useCase.execute(1L, null))
                 .expectError(IllegalArgumentException.class)
                 .verify();
@@ -84,10 +136,8 @@ class UpdateProductStockUseCaseTest {
     @Test
     @DisplayName("permite stock cero")
     void permiteStockCero() {
-        Product existing = new Product(1L, "Producto", 10, 5L);
         Product updated = new Product(1L, "Producto", 0, 5L);
-        when(productRepository.findById(1L)).thenReturn(Mono.just(existing));
-        when(productRepository.save(any(Product.class))).thenReturn(Mono.just(updated));
+        when(productRepository.updateStock(1L, 0, null)).thenReturn(Mono.just(updated));
 
         StepVerifier.create(useCase.execute(1L, 0))
                 .expectNextMatches(p -> p.stock() == 0)
@@ -0,0 +1,207 @@
+package com.nequi.franquicias.usecase.index;
+
+import com.nequi.franquicias.model.Branch;
+import com.nequi.franquicias.model.BranchTopProduct;
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MaxStockIndex")
+class MaxStockIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private MaxStockIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MaxStockIndex(productRepository);
+    }
+
+    private void rebuildWith(BranchTopProduct... tops) {
+        when(productRepository.findTopStockPerBranch()).thenReturn(Flux.just(tops));
+        StepVerifier.create(index.rebuild()).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("índice deshabilitado nunca responde")
+    void deshabilitadoNuncaResponde() {
+        MaxStockIndex disabled = MaxStockIndex.disabled();
+
+        StepVerifier.create(disabled.rebuild()).verifyComplete();
+        assertFalse(disabled.isEnabled());
+        assertTrue(disabled.findByFranchiseId(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("no responde antes de reconstruirse")
+    void noRespondeAntesDeReconstruir() {
+        assertFalse(index.isReady());
+        assertTrue(index.findByFranchiseId(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("responde por franquicia tras la reconstrucción")
+    void respondeTrasReconstruir() {
+        rebuildWith(
+                new BranchTopProduct(2L, "P2", 15, 20L, "Sucursal B", 1L),
+                new BranchTopProduct(1L, "P1", 10, 10L, "Sucursal A", 1L),
+                new BranchTopProduct(3L, "P3", 5, 30L, "Otra", 2L));
+
+        List<BranchTopProduct> tops = index.findByFranchiseId(1L).orElseThrow();
+
+        assertEquals(2, tops.size());
+        assertEquals(10L, tops.get(0).branchId());
+        assertEquals(20L, tops.get(1).branchId());
+        assertTrue(index.findByFranchiseId(99L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("producto con más stock reemplaza al líder sin consultar la base de datos")
+    void productoConMasStockReemplazaLider() {
+        rebuildWith(new BranchTopProduct(1L, "P1", 10, 10L, "Sucursal A", 1L));
+
+        StepVerifier.create(index.onProductSaved(new Product(5L, "Nuevo", 30, 10L))).verifyComplete();
+
+        BranchTopProduct top = index.findByFranchiseId(1L).orElseThrow().get(0);
+        assertEquals(5L, top.productId());
+        assertEquals(30, top.stock());
+        assertEquals("Sucursal A", top.branchName());
+        verify(productRepository, never()).findTopStockByBranchId(anyLong());
+    }
+
+    @Test
+    @DisplayName("empate de stock se resuelve por menor id")
+    void empateSeResuelvePorMenorId() {
+        rebuildWith(new BranchTopProduct(3L, "P3", 10, 10L, "Sucursal A", 1L));
+
+        StepVerifier.create(index.onProductSaved(new Product(7L, "P7", 10, 10L))).verifyComplete();
+        assertEquals(3L, index.findByFranchiseId(1L).orElseThrow().get(0).productId());
+
+        StepVerifier.create(index.onProductSaved(new Product(2L, "P2", 10, 10L))).verifyComplete();
+        assertEquals(2L, index.findByFranchiseId(1L).orElseThrow().get(0).productId());
+    }
+
+    @Test
+    @DisplayName("bajar el stock del líder recalcula solo su sucursal")
+    void bajarStockDelLiderRecalcula() {
+        rebuildWith(new BranchTopProduct(1L, "P1", 10, 10L, "Sucursal A", 1L));
+        when(productRepository.findTopStockByBranchId(10L))
+                .thenReturn(Mono.just(new BranchTopProduct(4L, "P4", 8, 10L, "Sucursal A", 1L)));
+
+        StepVerifier.create(index.onProductSaved(new Product(1L, "P1", 2, 10L))).verifyComplete();
+
+        assertEquals(4L, index.findByFranchiseId(1L).orElseThrow().get(0).productId());
+    }
+
+    @Test
+    @DisplayName("eliminar el líder recalcula y eliminar otro producto no consulta")
+    void eliminarLiderRecalcula() {
+        rebuildWith(new BranchTopProduct(1L, "P1", 10, 10L, "Sucursal A", 1L));
+        when(productRepository.findTopStockByBranchId(10L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(index.onProductDeleted(9L, 10L)).verifyComplete();
+        verify(productRepository, never()).findTopStockByBranchId(anyLong());
+
+        StepVerifier.create(index.onProductDeleted(1L, 10L)).verifyComplete();
+        assertTrue(index.findByFranchiseId(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("renombrar sucursal actualiza la entrada")
+    void renombrarSucursalActualiza() {
+        rebuildWith(new BranchTopProduct(1L, "P1", 10, 10L, "Sucursal A", 1L));
+
+        StepVerifier.create(index.onBranchRenamed(new Branch(10L, "Renombrada", 1L, List.of()))).verifyComplete();
+
+        assertEquals("Renombrada", index.findByFranchiseId(1L).orElseThrow().get(0).branchName());
+    }
+
+    @Test
+    @DisplayName("cambios previos a la reconstrucción se recalculan al terminar")
+    void cambiosPreviosSeRecalculan() {
+        StepVerifier.create(index.onProductSaved(new Product(5L, "P5", 50, 10L))).verifyComplete();
+        when(productRepository.findTopStockByBranchId(10L))
+                .thenReturn(Mono.just(new BranchTopProduct(5L, "P5", 50, 10L, "Sucursal A", 1L)));
+
+        rebuildWith(new BranchTopProduct(1L, "P1", 10, 10L, "Sucursal A", 1L));
+
+        assertEquals(5L, index.findByFranchiseId(1L).orElseThrow().get(0).productId());
+    }
+
+    @Test
+    @DisplayName("error al recalcular deja el índice sin responder")
+    void errorAlRecalcularDesactivaLecturas() {
+        rebuildWith(new BranchTopProduct(1L, "P1", 10, 10L, "Sucursal A", 1L));
+        when(productRepository.findTopStockByBranchId(10L)).thenReturn(Mono.error(new RuntimeException("DB error")));
+        when(productRepository.findTopStockPerBranch()).thenReturn(Flux.error(new RuntimeException("DB error")));
+
+        StepVerifier.create(index.onProductDeleted(1L, 10L)).verifyComplete();
+
+        assertFalse(index.isReady());
+        assertTrue(index.findByFranchiseId(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("una reconstrucción pedida durante otra espera a que termine y vuelve a cargar")
+    void reconstruccionesNoSeSolapan() {
+        Sinks.Many<BranchTopProduct> firstLoad = Sinks.many().unicast().onBackpressureBuffer();
+        when(productRepository.findTopStockPerBranch())
+                .thenReturn(firstLoad.asFlux())
+                .thenReturn(Flux.just(new BranchTopProduct(5L, "P5", 50, 10L, "Sucursal A", 1L)));
+
+        CompletableFuture<Void> first = index.rebuild().toFuture();
+        CompletableFuture<Void> second = index.rebuild().toFuture();
+        verify(productRepository, times(1)).findTopStockPerBranch();
+
+        firstLoad.tryEmitNext(new BranchTopProduct(1L, "P1", 10, 10L, "Sucursal A", 1L));
+        firstLoad.tryEmitComplete();
+
+        first.join();
+        second.join();
+        verify(productRepository, times(2)).findTopStockPerBranch();
+        assertEquals(5L, index.findByFranchiseId(1L).orElseThrow().get(0).productId());
+    }
+
+    @Test
+    @DisplayName("la reconstrucción tras un error al recalcular se reintenta hasta lograrlo")
+    void reconstruccionTrasErrorSeReintenta() throws InterruptedException {
+        index = new MaxStockIndex(productRepository, Duration.ofMillis(1));
+        rebuildWith(new BranchTopProduct(1L, "P1", 10, 10L, "Sucursal A", 1L));
+        when(productRepository.findTopStockByBranchId(10L)).thenReturn(Mono.error(new RuntimeException("DB error")));
+        when(productRepository.findTopStockPerBranch())
+                .thenReturn(Flux.error(new RuntimeException("DB error")))
+                .thenReturn(Flux.just(new BranchTopProduct(2L, "P2", 8, 10L, "Sucursal A", 1L)));
+
+        StepVerifier.create(index.onProductDeleted(1L, 10L)).verifyComplete();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!index.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(index.isReady());
+        assertEquals(2L, index.findByFranchiseId(1L).orElseThrow().get(0).productId());
+    }
+}
@@ -0,0 +1,81 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.nequi.franquicias.model.Branch;
+import com.nequi.franquicias.model.BranchTopProduct;
+import com.nequi.franquicias.model.port.BranchRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decorador de {@link BranchRepository} que responde {@code existsById} desde una
+ * {@link ExistenceCache}; las altas registran su id. Los ids que se saben inexistentes
+ * ({@link NegativeCache}) se rechazan sin consultar. {@code existsByIdAndFranchiseId} sigue
+ * yendo a la base de datos.
+ */
+public class CachingBranchRepository implements BranchRepository {
+
+    private final BranchRepository delegate;
+    private final ExistenceCache existenceCache;
+    private final NegativeCache negativeCache;
+
+    public CachingBranchRepository(BranchRepository delegate, ExistenceCache existenceCache,
+                                   NegativeCache negativeCache) {
+        this.delegate = delegate;
+        this.existenceCache = existenceCache;
+        this.negativeCache = negativeCache;
+    }
+
+    @Override
+    public Mono<Branch> save(Branch branch) {
+        return delegate.save(branch)
+                .doOnNext(this::remember);
+    }
+
+    @Override
+    public Mono<Branch> updateNombre(Long id, String nombre, Long expectedVersion) {
+        return expectedVersion == null
+                ? negativeCache.find(id, i -> delegate.updateNombre(i, nombre, null))
+                : negativeCache.unlessMissing(id, () -> delegate.updateNombre(id, nombre, expectedVersion));
+    }
+
+    @Override
+    public Mono<Branch> insertIfFranchiseExists(Branch branch) {
+        return delegate.insertIfFranchiseExists(branch)
+                .doOnNext(this::remember);
+    }
+
+    private void remember(Branch branch) {
+        negativeCache.clear(branch.id());
+        existenceCache.markExisting(branch.id());
+    }
+
+    @Override
+    public Mono<Branch> findById(Long id) {
+        return negativeCache.find(id, delegate::findById);
+    }
+
+    @Override
+    public Flux<Branch> findByFranchiseId(Long franchiseId) {
+        return delegate.findByFranchiseId(franchiseId);
+    }
+
+    @Override
+    public Flux<Branch> findPageByFranchiseId(Long franchiseId, Long afterId, int limit) {
+        return delegate.findPageByFranchiseId(franchiseId, afterId, limit);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        return negativeCache.exists(id, i -> existenceCache.exists(i, delegate::existsById));
+    }
+
+    @Override
+    public Mono<Boolean> existsByIdAndFranchiseId(Long id, Long franchiseId) {
+        return negativeCache.isKnownMissing(id) ? Mono.just(false) : delegate.existsByIdAndFranchiseId(id, franchiseId);
+    }
+
+    @Override
+    public Flux<BranchTopProduct> findTopProductsByFranchiseId(Long franchiseId) {
+        return delegate.findTopProductsByFranchiseId(franchiseId);
+    }
+}
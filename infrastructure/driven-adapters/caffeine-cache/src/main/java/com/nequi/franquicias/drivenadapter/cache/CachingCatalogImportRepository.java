@@ -0,0 +1,42 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.nequi.franquicias.model.CatalogEntity;
+import com.nequi.franquicias.model.port.CatalogImportRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decorador de {@link CatalogImportRepository}: una importación da de alta ids que no se conocen
+ * uno a uno, así que al terminar limpia por completo la {@link NegativeCache} de la entidad.
+ */
+public class CachingCatalogImportRepository implements CatalogImportRepository {
+
+    private final CatalogImportRepository delegate;
+    private final NegativeCache franchiseNegativeCache;
+    private final NegativeCache branchNegativeCache;
+    private final NegativeCache productNegativeCache;
+
+    public CachingCatalogImportRepository(CatalogImportRepository delegate, NegativeCache franchiseNegativeCache,
+                                          NegativeCache branchNegativeCache, NegativeCache productNegativeCache) {
+        this.delegate = delegate;
+        this.franchiseNegativeCache = franchiseNegativeCache;
+        this.branchNegativeCache = branchNegativeCache;
+        this.productNegativeCache = productNegativeCache;
+    }
+
+    @Override
+    public Mono<Long> importCsv(CatalogEntity entity, Flux<ByteBuffer> csv) {
+        return delegate.importCsv(entity, csv)
+                .doOnNext(count -> negativeCacheOf(entity).clearAll());
+    }
+
+    private NegativeCache negativeCacheOf(CatalogEntity entity) {
+        return switch (entity) {
+            case FRANCHISES -> franchiseNegativeCache;
+            case BRANCHES -> branchNegativeCache;
+            case PRODUCTS -> productNegativeCache;
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.nequi.franquicias.model.Franchise;
+import com.nequi.franquicias.model.FranchiseCatalogEntry;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decorador de {@link FranchiseRepository} que responde {@code existsById} desde una
+ * {@link ExistenceCache} y {@code findById} desde una {@link EntityCache}; las escrituras que
+ * devuelven la fila la guardan en ambas. Los ids que se saben inexistentes ({@link NegativeCache})
+ * se rechazan sin consultar. El resto de operaciones se delega sin cambios. El puerto no expone
+ * borrado de franquicias, así que no hay ruta de la API que deje una entrada positiva obsoleta.
+ */
+public class CachingFranchiseRepository implements FranchiseRepository {
+
+    private final FranchiseRepository delegate;
+    private final ExistenceCache existenceCache;
+    private final EntityCache<Franchise> entityCache;
+    private final NegativeCache negativeCache;
+
+    public CachingFranchiseRepository(FranchiseRepository delegate, ExistenceCache existenceCache,
+                                      EntityCache<Franchise> entityCache, NegativeCache negativeCache) {
+        this.delegate = delegate;
+        this.existenceCache = existenceCache;
+        this.entityCache = entityCache;
+        this.negativeCache = negativeCache;
+    }
+
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return delegate.save(franchise)
+                .doOnNext(f -> {
+                    negativeCache.clear(f.id());
+                    existenceCache.markExisting(f.id());
+                    entityCache.put(f);
+                });
+    }
+
+    @Override
+    public Mono<Franchise> updateNombre(Long id, String nombre, Long expectedVersion) {
+        Mono<Franchise> updated = expectedVersion == null
+                ? negativeCache.find(id, i -> delegate.updateNombre(i, nombre, null))
+                : negativeCache.unlessMissing(id, () -> delegate.updateNombre(id, nombre, expectedVersion));
+        return updated.doOnNext(entityCache::put);
+    }
+
+    @Override
+    public Mono<Franchise> findById(Long id) {
+        return negativeCache.find(id, i -> entityCache.get(i, delegate::findById));
+    }
+
+    @Override
+    public Flux<Franchise> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Flux<Franchise> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        return negativeCache.exists(id, i -> existenceCache.exists(i, delegate::existsById));
+    }
+
+    @Override
+    public Flux<FranchiseCatalogEntry> streamCatalog(Long franchiseId) {
+        return delegate.streamCatalog(franchiseId);
+    }
+}
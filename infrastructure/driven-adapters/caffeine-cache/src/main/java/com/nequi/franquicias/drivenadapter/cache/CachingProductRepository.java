@@ -0,0 +1,147 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.nequi.franquicias.model.BranchTopProduct;
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.StockStatistics;
+import com.nequi.franquicias.model.StockUpdate;
+import com.nequi.franquicias.model.port.ProductRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Decorador de {@link ProductRepository} que rechaza sin consultar las operaciones por id sobre ids
+ * que se saben inexistentes ({@link NegativeCache}); un alta limpia su id y un borrado lo marca como
+ * inexistente.
+ */
+public class CachingProductRepository implements ProductRepository {
+
+    private final ProductRepository delegate;
+    private final NegativeCache negativeCache;
+
+    public CachingProductRepository(ProductRepository delegate, NegativeCache negativeCache) {
+        this.delegate = delegate;
+        this.negativeCache = negativeCache;
+    }
+
+    @Override
+    public Mono<Product> save(Product product) {
+        return delegate.save(product).doOnNext(p -> negativeCache.clear(p.id()));
+    }
+
+    @Override
+    public Mono<Product> updateNombre(Long id, String nombre, Long expectedVersion) {
+        return expectedVersion == null
+                ? negativeCache.find(id, i -> delegate.updateNombre(i, nombre, null))
+                : negativeCache.unlessMissing(id, () -> delegate.updateNombre(id, nombre, expectedVersion));
+    }
+
+    @Override
+    public Mono<Product> insertIfBranchExists(Product product) {
+        return delegate.insertIfBranchExists(product).doOnNext(p -> negativeCache.clear(p.id()));
+    }
+
+    @Override
+    public Flux<Product> insertAll(Long branchId, List<Product> products) {
+        return delegate.insertAll(branchId, products).doOnNext(p -> negativeCache.clear(p.id()));
+    }
+
+    @Override
+    public Mono<Product> findById(Long id) {
+        return negativeCache.find(id, delegate::findById);
+    }
+
+    @Override
+    public Mono<Product> updateStock(Long id, Integer stock, Long expectedVersion) {
+        return expectedVersion == null
+                ? negativeCache.find(id, i -> delegate.updateStock(i, stock, null))
+                : negativeCache.unlessMissing(id, () -> delegate.updateStock(id, stock, expectedVersion));
+    }
+
+    /**
+     * Un vacío también puede ser stock insuficiente: no se recuerda como inexistente.
+     */
+    @Override
+    public Mono<Product> adjustStock(Long id, Integer delta) {
+        return negativeCache.unlessMissing(id, () -> delegate.adjustStock(id, delta));
+    }
+
+    @Override
+    public Mono<Product> setStockStripes(Long id, int stripes) {
+        return negativeCache.find(id, i -> delegate.setStockStripes(i, stripes));
+    }
+
+    @Override
+    public Flux<Product> foldStockStripes() {
+        return delegate.foldStockStripes();
+    }
+
+    @Override
+    public Flux<Product> updateStocks(List<StockUpdate> updates) {
+        return delegate.updateStocks(updates);
+    }
+
+    @Override
+    public Flux<Product> findByBranchId(Long branchId) {
+        return delegate.findByBranchId(branchId);
+    }
+
+    @Override
+    public Flux<Product> findPageByBranchId(Long branchId, Long afterId, int limit) {
+        return delegate.findPageByBranchId(branchId, afterId, limit);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return negativeCache.unlessMissing(id, () -> delegate.deleteById(id));
+    }
+
+    @Override
+    public Mono<Long> deleteByIdAndBranchId(Long id, Long branchId) {
+        if (negativeCache.isKnownMissing(id)) {
+            return Mono.just(0L);
+        }
+        return delegate.deleteByIdAndBranchId(id, branchId)
+                .doOnNext(deleted -> {
+                    if (deleted > 0) {
+                        negativeCache.markMissing(id);
+                    }
+                });
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        return negativeCache.exists(id, delegate::existsById);
+    }
+
+    @Override
+    public Mono<Boolean> existsByIdAndBranchId(Long id, Long branchId) {
+        return negativeCache.isKnownMissing(id) ? Mono.just(false) : delegate.existsByIdAndBranchId(id, branchId);
+    }
+
+    @Override
+    public Flux<Product> findByFranchiseId(Long franchiseId) {
+        return delegate.findByFranchiseId(franchiseId);
+    }
+
+    @Override
+    public Flux<BranchTopProduct> findTopStockByFranchiseId(Long franchiseId, int limitPerBranch) {
+        return delegate.findTopStockByFranchiseId(franchiseId, limitPerBranch);
+    }
+
+    @Override
+    public Flux<BranchTopProduct> findTopStockPerBranch() {
+        return delegate.findTopStockPerBranch();
+    }
+
+    @Override
+    public Mono<BranchTopProduct> findTopStockByBranchId(Long branchId) {
+        return delegate.findTopStockByBranchId(branchId);
+    }
+
+    @Override
+    public Flux<StockStatistics> findStockStatisticsByFranchiseId(Long franchiseId) {
+        return delegate.findStockStatisticsByFranchiseId(franchiseId);
+    }
+}
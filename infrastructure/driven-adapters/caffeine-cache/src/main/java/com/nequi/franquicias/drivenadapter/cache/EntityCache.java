@@ -0,0 +1,95 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Caché acotada de entidades por id para {@code findById}. Con {@code maximumSize} Caffeine desaloja
+ * según frecuencia y recencia (W-TinyLFU), así que un recorrido de ids fríos no expulsa a las entidades
+ * calientes. Las escrituras que devuelven la fila la guardan directamente; una fila con versión menor
+ * que la guardada no la reemplaza, de modo que dos escrituras concurrentes que terminan en otro orden
+ * no dejan la más vieja. Los ids inexistentes no se recuerdan.
+ *
+ * @param <T> tipo de la entidad
+ */
+public final class EntityCache<T> {
+
+    private static final EntityCache<?> DISABLED = new EntityCache<>(null, e -> null, e -> null);
+
+    private final AsyncCache<Long, T> cache;
+    private final Function<T, Long> idOf;
+    private final Function<T, Long> versionOf;
+
+    public EntityCache(long maximumSize, Duration ttl, Function<T, Long> idOf, Function<T, Long> versionOf) {
+        this(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<Long, T>buildAsync(), idOf, versionOf);
+    }
+
+    private EntityCache(AsyncCache<Long, T> cache, Function<T, Long> idOf, Function<T, Long> versionOf) {
+        this.cache = cache;
+        this.idOf = idOf;
+        this.versionOf = versionOf;
+    }
+
+    /**
+     * Caché inactiva: cada lectura va directa a la consulta y las escrituras no hacen nada.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityCache<T> disabled() {
+        return (EntityCache<T>) DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public Mono<T> get(Long id, Function<Long, Mono<T>> loader) {
+        if (cache == null || id == null) {
+            return loader.apply(id);
+        }
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    public void put(T entity) {
+        Long id = entity != null ? idOf.apply(entity) : null;
+        if (cache == null || id == null) {
+            return;
+        }
+        cache.asMap().compute(id, (key, current) ->
+                isStale(current, entity) ? current : CompletableFuture.completedFuture(entity));
+    }
+
+    public void invalidate(Long id) {
+        if (cache != null && id != null) {
+            cache.synchronous().invalidate(id);
+        }
+    }
+
+    /**
+     * Una carga en curso o fallida siempre se reemplaza: la fila recién escrita es al menos igual de nueva.
+     */
+    private boolean isStale(CompletableFuture<T> current, T entity) {
+        if (current == null || !current.isDone() || current.isCompletedExceptionally()) {
+            return false;
+        }
+        T cached = current.getNow(null);
+        Long cachedVersion = cached != null ? versionOf.apply(cached) : null;
+        Long version = versionOf.apply(entity);
+        return cachedVersion != null && version != null && version < cachedVersion;
+    }
+
+    /**
+     * Caché subyacente, expuesta para publicar aciertos, tiempo de carga y tamaño; nula si está inactiva.
+     */
+    public AsyncCache<Long, T> asyncCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,78 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Caché acotada de ids que se sabe que existen. Solo se recuerdan respuestas positivas: un id
+ * inexistente siempre vuelve a consultarse, así que una alta posterior nunca queda oculta.
+ * Las consultas concurrentes por el mismo id comparten una sola carga. Las entradas expiran
+ * a los {@code ttl} de escritas, lo que acota el tiempo que sobrevive un borrado hecho fuera de la API.
+ */
+public final class ExistenceCache {
+
+    private static final ExistenceCache DISABLED = new ExistenceCache(null);
+
+    private final AsyncCache<Long, Boolean> cache;
+
+    public ExistenceCache(long maximumSize, Duration ttl) {
+        this(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<Long, Boolean>buildAsync());
+    }
+
+    private ExistenceCache(AsyncCache<Long, Boolean> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Caché inactiva: cada comprobación va directa a la consulta.
+     */
+    public static ExistenceCache disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public Mono<Boolean> exists(Long id, Function<Long, Mono<Boolean>> loader) {
+        if (cache == null || id == null) {
+            return loader.apply(id);
+        }
+        // Una carga vacía completa el futuro con null y Caffeine descarta la entrada.
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) ->
+                        loader.apply(key).filter(Boolean.TRUE::equals).toFuture()), true)
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Registra un id recién creado para que la primera comprobación no vaya a la base de datos.
+     */
+    public void markExisting(Long id) {
+        if (cache != null && id != null) {
+            cache.put(id, CompletableFuture.completedFuture(true));
+        }
+    }
+
+    public void invalidate(Long id) {
+        if (cache != null && id != null) {
+            cache.synchronous().invalidate(id);
+        }
+    }
+
+    /**
+     * Caché subyacente, expuesta para publicar sus estadísticas (aciertos, fallos, desalojos);
+     * nula si la caché está inactiva.
+     */
+    public AsyncCache<Long, Boolean> asyncCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,105 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caché de vida corta de ids que se sabe que no existen, para rechazar en memoria los ids
+ * inventados que algunos clientes repiten. Un alta por la API limpia su id y una importación
+ * limpia la entidad completa. El {@code ttl} corto acota lo que dura una entrada obsoleta cuando
+ * el alta llega por otra instancia o por una carrera con la propia consulta.
+ */
+public final class NegativeCache {
+
+    private static final NegativeCache DISABLED = new NegativeCache(null);
+
+    private final Cache<Long, Boolean> cache;
+
+    public NegativeCache(long maximumSize, Duration ttl) {
+        this(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<Long, Boolean>build());
+    }
+
+    private NegativeCache(Cache<Long, Boolean> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Caché inactiva: nunca rechaza ni recuerda nada.
+     */
+    public static NegativeCache disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public boolean isKnownMissing(Long id) {
+        return cache != null && id != null && cache.getIfPresent(id) != null;
+    }
+
+    public void markMissing(Long id) {
+        if (cache != null && id != null) {
+            cache.put(id, Boolean.TRUE);
+        }
+    }
+
+    public void clear(Long id) {
+        if (cache != null && id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public void clearAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Lectura por id cuyo resultado vacío significa que el id no existe: se rechaza en memoria
+     * si ya se sabe inexistente y, si no, un resultado vacío lo recuerda.
+     */
+    public <T> Mono<T> find(Long id, Function<Long, Mono<T>> loader) {
+        if (isKnownMissing(id)) {
+            return Mono.empty();
+        }
+        return loader.apply(id).switchIfEmpty(Mono.fromRunnable(() -> markMissing(id)));
+    }
+
+    public Mono<Boolean> exists(Long id, Function<Long, Mono<Boolean>> loader) {
+        if (isKnownMissing(id)) {
+            return Mono.just(false);
+        }
+        return loader.apply(id).doOnNext(exists -> {
+            if (!Boolean.TRUE.equals(exists)) {
+                markMissing(id);
+            }
+        });
+    }
+
+    /**
+     * Operación cuyo resultado vacío es ambiguo (p. ej. una versión obsoleta): se rechaza en memoria
+     * si el id ya se sabe inexistente, pero su resultado no se recuerda.
+     */
+    public <T> Mono<T> unlessMissing(Long id, Supplier<Mono<T>> operation) {
+        return isKnownMissing(id) ? Mono.empty() : operation.get();
+    }
+
+    /**
+     * Caché subyacente, expuesta para publicar sus estadísticas; un acierto es una consulta evitada.
+     * Nula si la caché está inactiva.
+     */
+    public Cache<Long, Boolean> cache() {
+        return cache;
+    }
+}
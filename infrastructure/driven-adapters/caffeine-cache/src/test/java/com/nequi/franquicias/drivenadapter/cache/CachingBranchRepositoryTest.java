@@ -0,0 +1,67 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.nequi.franquicias.model.Branch;
+import com.nequi.franquicias.model.port.BranchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingBranchRepository")
+class CachingBranchRepositoryTest {
+
+    @Mock
+    private BranchRepository delegate;
+
+    private CachingBranchRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingBranchRepository(delegate, new ExistenceCache(100, Duration.ofMinutes(1)),
+                NegativeCache.disabled());
+    }
+
+    @Test
+    @DisplayName("consulta la existencia una sola vez por id")
+    void consultaExistenciaUnaVez() {
+        when(delegate.existsById(10L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(repository.existsById(10L)).expectNext(true).verifyComplete();
+        StepVerifier.create(repository.existsById(10L)).expectNext(true).verifyComplete();
+
+        verify(delegate, times(1)).existsById(10L);
+    }
+
+    @Test
+    @DisplayName("una sucursal recién creada se conoce sin consultar")
+    void sucursalCreadaSeConoce() {
+        Branch branch = new Branch(null, "Sucursal", 1L, null);
+        when(delegate.insertIfFranchiseExists(branch)).thenReturn(Mono.just(new Branch(20L, "Sucursal", 1L, null, 0L)));
+
+        StepVerifier.create(repository.insertIfFranchiseExists(branch)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.existsById(20L)).expectNext(true).verifyComplete();
+
+        verify(delegate, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("delega la comprobación por franquicia sin caché")
+    void delegaComprobacionPorFranquicia() {
+        when(delegate.existsByIdAndFranchiseId(10L, 1L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(repository.existsByIdAndFranchiseId(10L, 1L)).expectNext(false).verifyComplete();
+    }
+}
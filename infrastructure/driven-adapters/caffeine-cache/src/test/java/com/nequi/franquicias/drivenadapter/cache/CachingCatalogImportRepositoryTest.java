@@ -0,0 +1,46 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.nequi.franquicias.model.CatalogEntity;
+import com.nequi.franquicias.model.port.CatalogImportRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingCatalogImportRepository")
+class CachingCatalogImportRepositoryTest {
+
+    @Mock
+    private CatalogImportRepository delegate;
+
+    @Test
+    @DisplayName("limpia los ids inexistentes recordados de la entidad importada")
+    void limpiaIdsDeLaEntidadImportada() {
+        NegativeCache branches = new NegativeCache(100, Duration.ofSeconds(30));
+        NegativeCache products = new NegativeCache(100, Duration.ofSeconds(30));
+        branches.markMissing(1L);
+        products.markMissing(1L);
+        Flux<ByteBuffer> csv = Flux.empty();
+        when(delegate.importCsv(CatalogEntity.PRODUCTS, csv)).thenReturn(Mono.just(3L));
+
+        CachingCatalogImportRepository repository =
+                new CachingCatalogImportRepository(delegate, NegativeCache.disabled(), branches, products);
+
+        StepVerifier.create(repository.importCsv(CatalogEntity.PRODUCTS, csv)).expectNext(3L).verifyComplete();
+
+        assertFalse(products.isKnownMissing(1L));
+        assertTrue(branches.isKnownMissing(1L));
+    }
+}
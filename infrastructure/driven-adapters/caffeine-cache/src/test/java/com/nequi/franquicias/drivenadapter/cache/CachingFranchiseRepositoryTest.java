@@ -0,0 +1,87 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.nequi.franquicias.model.Franchise;
+import com.nequi.franquicias.model.port.FranchiseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingFranchiseRepository")
+class CachingFranchiseRepositoryTest {
+
+    @Mock
+    private FranchiseRepository delegate;
+
+    private CachingFranchiseRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingFranchiseRepository(delegate, new ExistenceCache(100, Duration.ofMinutes(1)),
+                new EntityCache<>(100, Duration.ofMinutes(1), Franchise::id, Franchise::version),
+                new NegativeCache(100, Duration.ofSeconds(30)));
+    }
+
+    @Test
+    @DisplayName("rechaza en memoria un id que ya se sabe inexistente")
+    void rechazaIdInexistenteEnMemoria() {
+        when(delegate.existsById(999L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(repository.existsById(999L)).expectNext(false).verifyComplete();
+        StepVerifier.create(repository.existsById(999L)).expectNext(false).verifyComplete();
+        StepVerifier.create(repository.findById(999L)).verifyComplete();
+
+        verify(delegate, times(1)).existsById(999L);
+        verify(delegate, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("el alta limpia el id recordado como inexistente")
+    void altaLimpiaIdInexistente() {
+        Franchise franchise = new Franchise(null, "Franquicia", null);
+        when(delegate.existsById(2L)).thenReturn(Mono.just(false));
+        when(delegate.save(franchise)).thenReturn(Mono.just(new Franchise(2L, "Franquicia", null, 0L)));
+
+        StepVerifier.create(repository.existsById(2L)).expectNext(false).verifyComplete();
+        StepVerifier.create(repository.save(franchise)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.existsById(2L)).expectNext(true).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("una franquicia guardada se conoce sin consultar")
+    void franquiciaGuardadaSeConoce() {
+        Franchise franchise = new Franchise(null, "Franquicia", null);
+        when(delegate.save(franchise)).thenReturn(Mono.just(new Franchise(1L, "Franquicia", null, 0L)));
+
+        StepVerifier.create(repository.save(franchise)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.existsById(1L)).expectNext(true).verifyComplete();
+
+        verify(delegate, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("el renombrado actualiza la franquicia en memoria")
+    void renombradoActualizaMemoria() {
+        when(delegate.updateNombre(1L, "Nuevo", null)).thenReturn(Mono.just(new Franchise(1L, "Nuevo", null, 1L)));
+
+        StepVerifier.create(repository.updateNombre(1L, "Nuevo", null)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.findById(1L))
+                .expectNextMatches(f -> f.nombre().equals("Nuevo"))
+                .verifyComplete();
+
+        verify(delegate, never()).findById(anyLong());
+    }
+}
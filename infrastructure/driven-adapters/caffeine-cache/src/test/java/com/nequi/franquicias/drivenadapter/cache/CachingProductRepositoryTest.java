@@ -0,0 +1,83 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.port.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingProductRepository")
+class CachingProductRepositoryTest {
+
+    @Mock
+    private ProductRepository delegate;
+
+    private CachingProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingProductRepository(delegate, new NegativeCache(100, Duration.ofSeconds(30)));
+    }
+
+    @Test
+    @DisplayName("el borrado marca el id como inexistente")
+    void borradoMarcaInexistente() {
+        when(delegate.deleteByIdAndBranchId(1L, 10L)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(repository.deleteByIdAndBranchId(1L, 10L)).expectNext(1L).verifyComplete();
+        StepVerifier.create(repository.findById(1L)).verifyComplete();
+
+        verify(delegate, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("un cambio de stock sobre un id inexistente no vuelve a consultar")
+    void stockDeIdInexistenteNoVuelveAConsultar() {
+        when(delegate.updateStock(999L, 5, null)).thenReturn(Mono.empty());
+
+        StepVerifier.create(repository.updateStock(999L, 5, null)).verifyComplete();
+        StepVerifier.create(repository.updateStock(999L, 5, null)).verifyComplete();
+        StepVerifier.create(repository.existsById(999L)).expectNext(false).verifyComplete();
+
+        verify(delegate, times(1)).updateStock(999L, 5, null);
+        verify(delegate, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("un vacío con versión esperada no marca el id como inexistente")
+    void vacioConVersionNoMarca() {
+        when(delegate.updateStock(1L, 5, 3L)).thenReturn(Mono.empty());
+        when(delegate.existsById(1L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(repository.updateStock(1L, 5, 3L)).verifyComplete();
+        StepVerifier.create(repository.existsById(1L)).expectNext(true).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("el alta en lote limpia los ids recordados como inexistentes")
+    void altaEnLoteLimpiaIds() {
+        List<Product> products = List.of(new Product(null, "P", 1, 10L));
+        when(delegate.existsById(7L)).thenReturn(Mono.just(false)).thenReturn(Mono.just(true));
+        when(delegate.insertAll(10L, products)).thenReturn(Flux.just(new Product(7L, "P", 1, 10L, 0L)));
+
+        StepVerifier.create(repository.existsById(7L)).expectNext(false).verifyComplete();
+        StepVerifier.create(repository.insertAll(10L, products)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.existsById(7L)).expectNext(true).verifyComplete();
+    }
+}
@@ -0,0 +1,92 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import com.nequi.franquicias.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("EntityCache")
+class EntityCacheTest {
+
+    private final EntityCache<Product> cache =
+            new EntityCache<>(100, Duration.ofMinutes(1), Product::id, Product::version);
+
+    private static Function<Long, Mono<Product>> counting(AtomicInteger calls, Product product) {
+        return id -> Mono.fromCallable(() -> {
+            calls.incrementAndGet();
+            return product;
+        });
+    }
+
+    @Test
+    @DisplayName("carga una vez y responde desde memoria")
+    void cargaUnaVez() {
+        AtomicInteger calls = new AtomicInteger();
+        Product product = new Product(1L, "P", 5, 10L, 0L);
+
+        StepVerifier.create(cache.get(1L, counting(calls, product))).expectNext(product).verifyComplete();
+        StepVerifier.create(cache.get(1L, counting(calls, product))).expectNext(product).verifyComplete();
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("no recuerda ids inexistentes")
+    void noRecuerdaInexistentes() {
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(cache.get(2L, id -> Mono.<Product>empty().doOnSubscribe(s -> calls.incrementAndGet())))
+                .verifyComplete();
+        StepVerifier.create(cache.get(2L, counting(calls, new Product(2L, "P", 1, 10L, 0L))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("una escritura con versión menor no reemplaza la guardada")
+    void versionMenorNoReemplaza() {
+        cache.put(new Product(3L, "Nuevo", 5, 10L, 2L));
+        cache.put(new Product(3L, "Viejo", 5, 10L, 1L));
+
+        StepVerifier.create(cache.get(3L, id -> Mono.error(new AssertionError("no debe consultar"))))
+                .expectNextMatches(p -> p.nombre().equals("Nuevo"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("vuelve a cargar tras invalidar")
+    void recargaTrasInvalidar() {
+        AtomicInteger calls = new AtomicInteger();
+        cache.put(new Product(4L, "P", 5, 10L, 0L));
+        cache.invalidate(4L);
+
+        StepVerifier.create(cache.get(4L, counting(calls, new Product(4L, "P", 7, 10L, 0L))))
+                .expectNextMatches(p -> p.stock() == 7)
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("inactiva delega cada lectura")
+    void inactivaDelega() {
+        AtomicInteger calls = new AtomicInteger();
+        EntityCache<Product> disabled = EntityCache.disabled();
+        disabled.put(new Product(5L, "P", 5, 10L, 0L));
+
+        StepVerifier.create(disabled.get(5L, counting(calls, new Product(5L, "P", 5, 10L, 0L))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,84 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("ExistenceCache")
+class ExistenceCacheTest {
+
+    private final ExistenceCache cache = new ExistenceCache(100, Duration.ofMinutes(1));
+
+    private static Function<Long, Mono<Boolean>> counting(AtomicInteger calls, boolean exists) {
+        return id -> Mono.fromCallable(() -> {
+            calls.incrementAndGet();
+            return exists;
+        });
+    }
+
+    @Test
+    @DisplayName("recuerda los ids existentes y no vuelve a consultarlos")
+    void recuerdaIdsExistentes() {
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(cache.exists(1L, counting(calls, true))).expectNext(true).verifyComplete();
+        StepVerifier.create(cache.exists(1L, counting(calls, true))).expectNext(true).verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.asyncCache().synchronous().stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("no recuerda los ids inexistentes")
+    void noRecuerdaIdsInexistentes() {
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(cache.exists(2L, counting(calls, false))).expectNext(false).verifyComplete();
+        StepVerifier.create(cache.exists(2L, counting(calls, true))).expectNext(true).verifyComplete();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("responde sin consultar los ids marcados como creados")
+    void respondeIdsMarcados() {
+        AtomicInteger calls = new AtomicInteger();
+        cache.markExisting(3L);
+
+        StepVerifier.create(cache.exists(3L, counting(calls, false))).expectNext(true).verifyComplete();
+
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    @DisplayName("vuelve a consultar tras invalidar")
+    void vuelveAConsultarTrasInvalidar() {
+        AtomicInteger calls = new AtomicInteger();
+        cache.markExisting(4L);
+        cache.invalidate(4L);
+
+        StepVerifier.create(cache.exists(4L, counting(calls, false))).expectNext(false).verifyComplete();
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("propaga el error de la consulta sin guardarlo")
+    void propagaErrorSinGuardarlo() {
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(cache.exists(5L, id -> Mono.error(new RuntimeException("DB error"))))
+                .expectError(RuntimeException.class)
+                .verify();
+        StepVerifier.create(cache.exists(5L, counting(calls, true))).expectNext(true).verifyComplete();
+
+        assertEquals(1, calls.get());
+    }
+}
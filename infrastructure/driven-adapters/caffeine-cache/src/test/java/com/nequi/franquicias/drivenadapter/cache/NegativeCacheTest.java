@@ -0,0 +1,76 @@
+package com.nequi.franquicias.drivenadapter.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("NegativeCache")
+class NegativeCacheTest {
+
+    private final NegativeCache cache = new NegativeCache(100, Duration.ofSeconds(30));
+
+    @Test
+    @DisplayName("recuerda un resultado vacío y rechaza el id sin consultar")
+    void recuerdaResultadoVacio() {
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(cache.find(1L, id -> Mono.<String>empty().doOnSubscribe(s -> calls.incrementAndGet())))
+                .verifyComplete();
+        StepVerifier.create(cache.find(1L, id -> Mono.just("no debe consultar"))).verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.cache().stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("recuerda una existencia negativa pero no una positiva")
+    void recuerdaSoloExistenciaNegativa() {
+        StepVerifier.create(cache.exists(2L, id -> Mono.just(false))).expectNext(false).verifyComplete();
+        StepVerifier.create(cache.exists(3L, id -> Mono.just(true))).expectNext(true).verifyComplete();
+
+        assertTrue(cache.isKnownMissing(2L));
+        assertFalse(cache.isKnownMissing(3L));
+    }
+
+    @Test
+    @DisplayName("una operación ambigua se rechaza si el id se sabe inexistente pero no marca")
+    void operacionAmbiguaNoMarca() {
+        StepVerifier.create(cache.unlessMissing(4L, Mono::<String>empty)).verifyComplete();
+        assertFalse(cache.isKnownMissing(4L));
+
+        cache.markMissing(4L);
+        StepVerifier.create(cache.unlessMissing(4L, () -> Mono.just("no debe ejecutarse"))).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("limpiar un id o toda la caché vuelve a consultar")
+    void limpiarVuelveAConsultar() {
+        cache.markMissing(5L);
+        cache.markMissing(6L);
+        cache.clear(5L);
+
+        assertFalse(cache.isKnownMissing(5L));
+        assertTrue(cache.isKnownMissing(6L));
+
+        cache.clearAll();
+        assertFalse(cache.isKnownMissing(6L));
+    }
+
+    @Test
+    @DisplayName("inactiva nunca rechaza")
+    void inactivaNuncaRechaza() {
+        NegativeCache disabled = NegativeCache.disabled();
+        disabled.markMissing(7L);
+
+        assertFalse(disabled.isKnownMissing(7L));
+        StepVerifier.create(disabled.find(7L, id -> Mono.just("consultado"))).expectNext("consultado").verifyComplete();
+    }
+}
@@ -1,8 +1,10 @@
 package com.nequi.franquicias.drivenadapter.r2dbc;
 
 import com.nequi.franquicias.model.Branch;
+import com.nequi.franquicias.model.BranchTopProduct;
 import com.nequi.franquicias.model.port.BranchRepository;
 import com.nequi.franquicias.drivenadapter.r2dbc.entity.BranchEntity;
+import com.nequi.franquicias.drivenadapter.r2dbc.entity.BranchTopProductRow;
 import com.nequi.franquicias.drivenadapter.r2dbc.repository.BranchR2dbcRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,13 +30,30 @@ public class BranchRepositoryAdapter implements BranchRepository {
 
     @Override
     public Mono<Branch> save(Branch branch) {
-        BranchEntity entity = new BranchEntity(branch.id(), branch.nombre(), branch.franchiseId());
+        BranchEntity entity = new BranchEntity(branch.id(), branch.nombre(), branch.franchiseId(), branch.version());
         return r2dbcRepository.save(entity)
                 .map(this::toDomain)
                 .doOnSuccess(b -> log.debug("Sucursal guardada: id={}", b.id()))
                 .doOnError(e -> log.error("Error guardando sucursal: {}", e.getMessage()));
     }
 
+    @Override
+    public Mono<Branch> insertIfFranchiseExists(Branch branch) {
+        return r2dbcRepository.insertIfFranchiseExists(branch.nombre(), branch.franchiseId())
+                .onErrorResume(ForeignKeyViolations::isForeignKeyViolation, e -> Mono.empty())
+                .map(this::toDomain)
+                .doOnSuccess(b -> log.debug("Sucursal insertada: id={}", b != null ? b.id() : null))
+                .doOnError(e -> log.error("Error insertando sucursal: {}", e.getMessage()));
+    }
+
+    @Override
+    public Mono<Branch> updateNombre(Long id, String nombre, Long expectedVersion) {
+        return r2dbcRepository.updateNombre(id, nombre, expectedVersion)
+                .map(this::toDomain)
+                .doOnSuccess(b -> log.debug("Sucursal renombrada: id={}, encontrada={}", id, b != null))
+                .doOnError(e -> log.error("Error renombrando sucursal: {}", e.getMessage()));
+    }
+
     @Override
     public Mono<Branch> findById(Long id) {
         return r2dbcRepository.findById(id)
@@ -47,6 +66,12 @@ public class BranchRepositoryAdapter implements BranchRepository {
                 .map(this::toDomain);
     }
 
+    @Override
+    public Flux<Branch> findPageByFranchiseId(Long franchiseId, Long afterId, int limit) {
+        return r2dbcRepository.findPageByFranchiseId(franchiseId, afterId, limit)
+                .map(this::toDomain);
+    }
+
     @Override
     public Mono<Boolean> existsById(Long id) {
         return r2dbcRepository.existsById(id);
@@ -57,7 +82,18 @@ public class BranchRepositoryAdapter implements BranchRepository {
         return r2dbcRepository.existsByIdAndFranchiseId(id, franchiseId);
     }
 
+    @Override
+    public Flux<BranchTopProduct> findTopProductsByFranchiseId(Long franchiseId) {
+        return r2dbcRepository.findTopProductsByFranchiseId(franchiseId)
+                .map(this::toDomain);
+    }
+
     private Branch toDomain(BranchEntity entity) {
-        return new Branch(entity.id(), entity.nombre(), entity.franchiseId(), Collections.emptyList());
+        return new Branch(entity.id(), entity.nombre(), entity.franchiseId(), Collections.emptyList(), entity.version());
+    }
+
+    private BranchTopProduct toDomain(BranchTopProductRow row) {
+        return new BranchTopProduct(row.productId(), row.productName(), row.stock(), row.branchId(), row.branchName(),
+                row.franchiseId());
     }
 }
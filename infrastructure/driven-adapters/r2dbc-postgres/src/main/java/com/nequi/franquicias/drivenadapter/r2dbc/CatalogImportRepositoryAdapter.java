@@ -0,0 +1,122 @@
+package com.nequi.franquicias.drivenadapter.r2dbc;
+
+import com.nequi.franquicias.model.CatalogEntity;
+import com.nequi.franquicias.model.port.CatalogImportRepository;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.Wrapped;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Adaptador de importación masiva basado en {@code COPY ... FROM STDIN} de PostgreSQL.
+ * El CSV se envía al servidor a medida que llega, sin acumularlo, y el servidor lo parsea.
+ * Como se conservan los ids de origen, la secuencia de la tabla se ajusta dentro de la misma
+ * transacción que el COPY, con la tabla bloqueada ({@code SHARE ROW EXCLUSIVE}) desde el inicio:
+ * un alta concurrente que toma su id de la secuencia espera al commit y nunca recibe un id que
+ * la carga acaba de insertar. Mientras dura la importación las escrituras sobre esa tabla esperan;
+ * las lecturas siguen.
+ */
+@Repository
+public class CatalogImportRepositoryAdapter implements CatalogImportRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportRepositoryAdapter.class);
+
+    private final DatabaseClient databaseClient;
+
+    public CatalogImportRepositoryAdapter(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<Long> importCsv(CatalogEntity entity, Flux<ByteBuffer> csv) {
+        String table = tableOf(entity);
+        return databaseClient.inConnection(connection -> {
+                    PostgresqlConnection postgres = unwrap(connection);
+                    return Mono.usingWhen(Mono.from(postgres.beginTransaction()).thenReturn(postgres),
+                            tx -> execute(tx, lockSql(table))
+                                    .then(tx.copyIn(copySql(entity, table), csv.map(Unpooled::wrappedBuffer)))
+                                    .flatMap(count -> execute(tx, syncSequenceSql(table)).thenReturn(count)),
+                            PostgresqlConnection::commitTransaction,
+                            (tx, e) -> tx.rollbackTransaction(),
+                            PostgresqlConnection::rollbackTransaction);
+                })
+                .onErrorMap(CatalogImportRepositoryAdapter::isDataError,
+                        e -> new IllegalArgumentException("Importación rechazada: " + e.getMessage(), e))
+                .doOnSuccess(count -> log.debug("COPY completado: tabla={}, filas={}", table, count))
+                .doOnError(e -> log.error("Error importando {}: {}", table, e.getMessage()));
+    }
+
+    private static Mono<Void> execute(PostgresqlConnection connection, String sql) {
+        return connection.createStatement(sql).execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .then();
+    }
+
+    /**
+     * Bloquea las escrituras de otras transacciones sobre la tabla (incluido el propio
+     * {@code nextval} de sus altas, que se evalúa después de tomar el candado) hasta el commit.
+     */
+    static String lockSql(String table) {
+        return "LOCK TABLE " + table + " IN SHARE ROW EXCLUSIVE MODE";
+    }
+
+    static String copySql(CatalogEntity entity, String table) {
+        String columns = switch (entity) {
+            case FRANCHISES -> "id, nombre";
+            case BRANCHES -> "id, franchise_id, nombre";
+            case PRODUCTS -> "id, branch_id, nombre, stock";
+        };
+        return "COPY " + table + " (" + columns + ") FROM STDIN WITH (FORMAT csv, HEADER true)";
+    }
+
+    /**
+     * La secuencia nunca retrocede: puede ir por delante de MAX(id) si hay bloques de ids
+     * reservados en memoria ({@link SequenceIdAllocator}) que aún no se han insertado.
+     */
+    static String syncSequenceSql(String table) {
+        return "SELECT setval(s.seq, COALESCE(v.last_id, 1), v.last_id IS NOT NULL)"
+                + " FROM (SELECT pg_get_serial_sequence('" + table + "', 'id') AS seq) s,"
+                + " LATERAL (SELECT GREATEST((SELECT MAX(id) FROM " + table + "),"
+                + " pg_sequence_last_value(CAST(s.seq AS regclass))) AS last_id) v";
+    }
+
+    private static String tableOf(CatalogEntity entity) {
+        return switch (entity) {
+            case FRANCHISES -> "franchises";
+            case BRANCHES -> "branches";
+            case PRODUCTS -> "products";
+        };
+    }
+
+    /**
+     * La conexión llega envuelta (proxy de Spring, pool); COPY solo existe en la conexión nativa.
+     */
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (current instanceof PostgresqlConnection postgresqlConnection) {
+            return postgresqlConnection;
+        }
+        throw new IllegalStateException("La importación masiva requiere una conexión PostgreSQL");
+    }
+
+    /**
+     * Errores de formato (clase 22) o de integridad (clase 23) se deben al contenido enviado.
+     */
+    private static boolean isDataError(Throwable e) {
+        return e instanceof R2dbcException r2dbc && r2dbc.getSqlState() != null
+                && (r2dbc.getSqlState().startsWith("22") || r2dbc.getSqlState().startsWith("23"));
+    }
+}
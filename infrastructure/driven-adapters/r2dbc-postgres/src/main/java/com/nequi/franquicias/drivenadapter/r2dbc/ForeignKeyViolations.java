@@ -0,0 +1,26 @@
+package com.nequi.franquicias.drivenadapter.r2dbc;
+
+import io.r2dbc.spi.R2dbcException;
+
+/**
+ * Reconoce violaciones de clave foránea (SQLSTATE 23503) en la cadena de causas.
+ * Con {@code INSERT ... WHERE EXISTS} la verificación del padre y la inserción van juntas, pero
+ * si el padre se elimina entre ambas la restricción FK es la que rechaza la fila; para el
+ * dominio es el mismo caso que un padre inexistente.
+ */
+final class ForeignKeyViolations {
+
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    private ForeignKeyViolations() {
+    }
+
+    static boolean isForeignKeyViolation(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof R2dbcException r2dbc && FOREIGN_KEY_VIOLATION.equals(r2dbc.getSqlState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package com.nequi.franquicias.drivenadapter.r2dbc;
 
 import com.nequi.franquicias.model.Franchise;
+import com.nequi.franquicias.model.FranchiseCatalogEntry;
 import com.nequi.franquicias.model.port.FranchiseRepository;
 import com.nequi.franquicias.drivenadapter.r2dbc.entity.FranchiseEntity;
 import com.nequi.franquicias.drivenadapter.r2dbc.repository.FranchiseR2dbcRepository;
@@ -29,13 +30,21 @@ public class FranchiseRepositoryAdapter implements FranchiseRepository {
 
     @Override
     public Mono<Franchise> save(Franchise franchise) {
-        FranchiseEntity entity = new FranchiseEntity(franchise.id(), franchise.nombre());
+        FranchiseEntity entity = new FranchiseEntity(franchise.id(), franchise.nombre(), franchise.version());
         return r2dbcRepository.save(entity)
                 .map(this::toDomain)
                 .doOnSuccess(f -> log.debug("Franquicia guardada: id={}", f.id()))
                 .doOnError(e -> log.error("Error guardando franquicia: {}", e.getMessage()));
     }
 
+    @Override
+    public Mono<Franchise> updateNombre(Long id, String nombre, Long expectedVersion) {
+        return r2dbcRepository.updateNombre(id, nombre, expectedVersion)
+                .map(this::toDomain)
+                .doOnSuccess(f -> log.debug("Franquicia renombrada: id={}, encontrada={}", id, f != null))
+                .doOnError(e -> log.error("Error renombrando franquicia: {}", e.getMessage()));
+    }
+
     @Override
     public Mono<Franchise> findById(Long id) {
         return r2dbcRepository.findById(id)
@@ -48,12 +57,25 @@ public class FranchiseRepositoryAdapter implements FranchiseRepository {
                 .map(this::toDomain);
     }
 
+    @Override
+    public Flux<Franchise> findPage(Long afterId, int limit) {
+        return r2dbcRepository.findPage(afterId, limit)
+                .map(this::toDomain);
+    }
+
     @Override
     public Mono<Boolean> existsById(Long id) {
         return r2dbcRepository.existsById(id);
     }
 
+    @Override
+    public Flux<FranchiseCatalogEntry> streamCatalog(Long franchiseId) {
+        return r2dbcRepository.streamCatalog(franchiseId)
+                .map(r -> new FranchiseCatalogEntry(r.franchiseId(), r.franchiseName(), r.branchId(), r.branchName(),
+                        r.productId(), r.productName(), r.stock()));
+    }
+
     private Franchise toDomain(FranchiseEntity entity) {
-        return new Franchise(entity.id(), entity.nombre(), Collections.emptyList());
+        return new Franchise(entity.id(), entity.nombre(), Collections.emptyList(), entity.version());
     }
 }
@@ -1,14 +1,25 @@
 package com.nequi.franquicias.drivenadapter.r2dbc;
 
+import com.nequi.franquicias.model.BranchTopProduct;
 import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.StockStatistics;
+import com.nequi.franquicias.model.CatalogEntity;
+import com.nequi.franquicias.model.StockUpdate;
+import com.nequi.franquicias.model.port.IdAllocator;
 import com.nequi.franquicias.model.port.ProductRepository;
+import com.nequi.franquicias.drivenadapter.r2dbc.entity.BranchTopProductRow;
 import com.nequi.franquicias.drivenadapter.r2dbc.entity.ProductEntity;
+import com.nequi.franquicias.drivenadapter.r2dbc.entity.StockStatisticsRow;
 import com.nequi.franquicias.drivenadapter.r2dbc.repository.ProductR2dbcRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Adaptador de persistencia para productos.
@@ -18,33 +29,132 @@ public class ProductRepositoryAdapter implements ProductRepository {
 
     private static final Logger log = LoggerFactory.getLogger(ProductRepositoryAdapter.class);
 
+    /**
+     * Reintentos de una carga multi-fila cuyos ids reservados ya trajo una importación: tras descartar
+     * lo reservado, los ids nuevos salen de la secuencia ya ajustada, así que basta con uno salvo que
+     * entre medio termine otra importación.
+     */
+    static final int DUPLICATE_ID_RETRIES = 2;
+
     private final ProductR2dbcRepository r2dbcRepository;
+    private final IdAllocator idAllocator;
 
-    public ProductRepositoryAdapter(ProductR2dbcRepository r2dbcRepository) {
+    public ProductRepositoryAdapter(ProductR2dbcRepository r2dbcRepository, IdAllocator idAllocator) {
         this.r2dbcRepository = r2dbcRepository;
+        this.idAllocator = idAllocator;
     }
 
     @Override
     public Mono<Product> save(Product product) {
-        ProductEntity entity = new ProductEntity(product.id(), product.nombre(), product.stock(), product.branchId());
+        ProductEntity entity = new ProductEntity(product.id(), product.nombre(), product.stock(), product.branchId(),
+                product.version());
         return r2dbcRepository.save(entity)
                 .map(this::toDomain)
                 .doOnSuccess(p -> log.debug("Producto guardado: id={}", p.id()))
                 .doOnError(e -> log.error("Error guardando producto: {}", e.getMessage()));
     }
 
+    @Override
+    public Mono<Product> insertIfBranchExists(Product product) {
+        return r2dbcRepository.insertIfBranchExists(product.nombre(), product.stock(), product.branchId())
+                .onErrorResume(ForeignKeyViolations::isForeignKeyViolation, e -> Mono.empty())
+                .map(this::toDomain)
+                .doOnSuccess(p -> log.debug("Producto insertado: id={}", p != null ? p.id() : null))
+                .doOnError(e -> log.error("Error insertando producto: {}", e.getMessage()));
+    }
+
+    @Override
+    public Flux<Product> insertAll(Long branchId, List<Product> products) {
+        String[] nombres = products.stream().map(Product::nombre).toArray(String[]::new);
+        Integer[] stocks = products.stream().map(Product::stock).toArray(Integer[]::new);
+        return Mono.defer(() -> idAllocator.allocate(CatalogEntity.PRODUCTS, products.size()))
+                .flatMap(ids -> r2dbcRepository.insertAll(branchId, ids.toArray(Long[]::new), nombres, stocks)
+                        .filter(inserted -> inserted > 0)
+                        .map(inserted -> ids))
+                .retryWhen(Retry.max(DUPLICATE_ID_RETRIES)
+                        .filter(UniqueViolations::isUniqueViolation)
+                        .doBeforeRetry(signal -> {
+                            log.warn("Ids reservados ya ocupados por una importación; se reservan otros");
+                            idAllocator.discard(CatalogEntity.PRODUCTS);
+                        })
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .onErrorResume(ForeignKeyViolations::isForeignKeyViolation, e -> Mono.empty())
+                .flatMapMany(ids -> Flux.fromStream(IntStream.range(0, products.size())
+                        .mapToObj(i -> new Product(ids.get(i), nombres[i], stocks[i], branchId, 0L))))
+                .doOnError(e -> log.error("Error insertando productos en lote: {}", e.getMessage()));
+    }
+
+    @Override
+    public Mono<Product> updateNombre(Long id, String nombre, Long expectedVersion) {
+        return r2dbcRepository.updateNombre(id, nombre, expectedVersion)
+                .map(this::toDomain)
+                .doOnSuccess(p -> log.debug("Producto renombrado: id={}, encontrado={}", id, p != null))
+                .doOnError(e -> log.error("Error renombrando producto: {}", e.getMessage()));
+    }
+
     @Override
     public Mono<Product> findById(Long id) {
         return r2dbcRepository.findById(id)
                 .map(this::toDomain);
     }
 
+    @Override
+    public Mono<Product> updateStock(Long id, Integer stock, Long expectedVersion) {
+        return r2dbcRepository.updateStock(id, stock, expectedVersion)
+                .map(this::toDomain)
+                .doOnSuccess(p -> log.debug("Stock actualizado: id={}", id))
+                .doOnError(e -> log.error("Error actualizando stock: {}", e.getMessage()));
+    }
+
+    @Override
+    public Mono<Product> adjustStock(Long id, Integer delta) {
+        return r2dbcRepository.adjustStock(id, delta)
+                .map(this::toDomain)
+                .doOnError(e -> log.error("Error ajustando stock: {}", e.getMessage()));
+    }
+
+    @Override
+    public Mono<Product> setStockStripes(Long id, int stripes) {
+        return r2dbcRepository.setStockStripes(id, stripes)
+                .map(this::toDomain)
+                .doOnSuccess(p -> log.debug("Franjas de stock configuradas: id={}, franjas={}", id, stripes))
+                .doOnError(e -> log.error("Error configurando franjas de stock: {}", e.getMessage()));
+    }
+
+    @Override
+    public Flux<Product> foldStockStripes() {
+        return r2dbcRepository.foldStockStripes()
+                .map(this::toDomain)
+                .doOnError(e -> log.error("Error plegando franjas de stock: {}", e.getMessage()));
+    }
+
+    @Override
+    public Flux<Product> updateStocks(List<StockUpdate> updates) {
+        Long[] ids = updates.stream().map(StockUpdate::productId).toArray(Long[]::new);
+        Integer[] stocks = updates.stream().map(StockUpdate::stock).toArray(Integer[]::new);
+        return r2dbcRepository.updateStocks(ids, stocks)
+                .map(this::toDomain)
+                .doOnError(e -> log.error("Error en actualización masiva de stock: {}", e.getMessage()));
+    }
+
     @Override
     public Flux<Product> findByBranchId(Long branchId) {
         return r2dbcRepository.findByBranchId(branchId)
                 .map(this::toDomain);
     }
 
+    @Override
+    public Flux<Product> findPageByBranchId(Long branchId, Long afterId, int limit) {
+        return r2dbcRepository.findPageByBranchId(branchId, afterId, limit)
+                .map(this::toDomain);
+    }
+
+    @Override
+    public Flux<Product> findByFranchiseId(Long franchiseId) {
+        return r2dbcRepository.findByFranchiseId(franchiseId)
+                .map(this::toDomain);
+    }
+
     @Override
     public Mono<Void> deleteById(Long id) {
         return r2dbcRepository.deleteById(id)
@@ -52,6 +162,13 @@ public class ProductRepositoryAdapter implements ProductRepository {
                 .doOnError(e -> log.error("Error eliminando producto: {}", e.getMessage()));
     }
 
+    @Override
+    public Mono<Long> deleteByIdAndBranchId(Long id, Long branchId) {
+        return r2dbcRepository.deleteByIdAndBranchId(id, branchId)
+                .doOnSuccess(count -> log.debug("Producto eliminado: id={}, branchId={}, filas={}", id, branchId, count))
+                .doOnError(e -> log.error("Error eliminando producto: {}", e.getMessage()));
+    }
+
     @Override
     public Mono<Boolean> existsById(Long id) {
         return r2dbcRepository.existsById(id);
@@ -62,7 +179,41 @@ public class ProductRepositoryAdapter implements ProductRepository {
         return r2dbcRepository.existsByIdAndBranchId(id, branchId);
     }
 
+    @Override
+    public Flux<BranchTopProduct> findTopStockByFranchiseId(Long franchiseId, int limitPerBranch) {
+        return r2dbcRepository.findTopStockByFranchiseId(franchiseId, limitPerBranch)
+                .map(this::toDomain);
+    }
+
+    @Override
+    public Flux<BranchTopProduct> findTopStockPerBranch() {
+        return r2dbcRepository.findTopStockPerBranch()
+                .map(this::toDomain);
+    }
+
+    @Override
+    public Mono<BranchTopProduct> findTopStockByBranchId(Long branchId) {
+        return r2dbcRepository.findTopStockByBranchId(branchId)
+                .map(this::toDomain);
+    }
+
+    @Override
+    public Flux<StockStatistics> findStockStatisticsByFranchiseId(Long franchiseId) {
+        return r2dbcRepository.findStockStatisticsByFranchiseId(franchiseId)
+                .map(this::toDomain);
+    }
+
     private Product toDomain(ProductEntity entity) {
-        return new Product(entity.id(), entity.nombre(), entity.stock(), entity.branchId());
+        return new Product(entity.id(), entity.nombre(), entity.stock(), entity.branchId(), entity.version());
+    }
+
+    private BranchTopProduct toDomain(BranchTopProductRow row) {
+        return new BranchTopProduct(row.productId(), row.productName(), row.stock(), row.branchId(), row.branchName(),
+                row.franchiseId());
+    }
+
+    private StockStatistics toDomain(StockStatisticsRow row) {
+        return new StockStatistics(row.branchId(), row.branchName(), row.productCount(), row.totalStock(),
+                row.minStock(), row.maxStock(), row.avgStock(), row.p50Stock(), row.p95Stock());
     }
 }
@@ -0,0 +1,119 @@
+package com.nequi.franquicias.drivenadapter.r2dbc;
+
+import com.nequi.franquicias.model.CatalogEntity;
+import com.nequi.franquicias.model.port.IdAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reserva ids por bloques de la secuencia de cada tabla ({@code nextval} sobre {@code generate_series})
+ * y los entrega desde memoria. Una petición que no cabe en lo reservado pide un bloque de al menos
+ * {@code franquicias.id-allocation.block-size} ids en una sola consulta. Los ids reservados y no usados
+ * al apagar la aplicación se pierden como huecos, igual que con nextval.
+ */
+@Component
+public class SequenceIdAllocator implements IdAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceIdAllocator.class);
+
+    private final DatabaseClient databaseClient;
+    private final int blockSize;
+    private final Map<CatalogEntity, IdBlock> blocks = new EnumMap<>(CatalogEntity.class);
+
+    public SequenceIdAllocator(DatabaseClient databaseClient,
+                               @Value("${franquicias.id-allocation.block-size:1000}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("El tamaño de bloque de ids debe ser positivo");
+        }
+        this.databaseClient = databaseClient;
+        this.blockSize = blockSize;
+        for (CatalogEntity entity : CatalogEntity.values()) {
+            blocks.put(entity, new IdBlock());
+        }
+    }
+
+    /**
+     * Ids reservados y aún no entregados de una secuencia; guardado por su propio monitor.
+     */
+    private static final class IdBlock {
+        private final ArrayDeque<Long> available = new ArrayDeque<>();
+
+        synchronized List<Long> take(int count) {
+            if (available.size() < count) {
+                return null;
+            }
+            List<Long> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(available.poll());
+            }
+            return ids;
+        }
+
+        synchronized List<Long> addAndTake(List<Long> reserved, int count) {
+            available.addAll(reserved);
+            return take(count);
+        }
+
+        synchronized int clear() {
+            int discarded = available.size();
+            available.clear();
+            return discarded;
+        }
+    }
+
+    @Override
+    public Mono<List<Long>> allocate(CatalogEntity entity, int count) {
+        if (count < 1) {
+            return Mono.just(List.of());
+        }
+        IdBlock block = blocks.get(entity);
+        return Mono.defer(() -> {
+            List<Long> ids = block.take(count);
+            if (ids != null) {
+                return Mono.just(ids);
+            }
+            return reserve(entity, Math.max(count, blockSize))
+                    .map(reserved -> block.addAndTake(reserved, count));
+        });
+    }
+
+    @Override
+    public void discard(CatalogEntity entity) {
+        int discarded = blocks.get(entity).clear();
+        if (discarded > 0) {
+            log.debug("Ids reservados descartados: entidad={}, cantidad={}", entity, discarded);
+        }
+    }
+
+    private Mono<List<Long>> reserve(CatalogEntity entity, int count) {
+        return databaseClient.sql(reserveSql(entity))
+                .bind(0, count)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collectList()
+                .doOnNext(ids -> log.debug("Bloque de ids reservado: entidad={}, cantidad={}", entity, ids.size()))
+                .doOnError(e -> log.error("Error reservando ids para {}: {}", entity, e.getMessage()));
+    }
+
+    static String reserveSql(CatalogEntity entity) {
+        return "SELECT nextval('" + sequenceOf(entity) + "') AS id FROM generate_series(1, $1)";
+    }
+
+    static String sequenceOf(CatalogEntity entity) {
+        return switch (entity) {
+            case FRANCHISES -> "franchises_id_seq";
+            case BRANCHES -> "branches_id_seq";
+            case PRODUCTS -> "products_id_seq";
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.nequi.franquicias.drivenadapter.r2dbc;
+
+import io.r2dbc.spi.R2dbcException;
+
+/**
+ * Reconoce violaciones de unicidad (SQLSTATE 23505) en la cadena de causas.
+ * Con ids reservados de antemano ({@link SequenceIdAllocator}) la única fuente de duplicados es una
+ * importación que trajo, con sus ids de origen, ids que ya estaban reservados en memoria.
+ */
+final class UniqueViolations {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private UniqueViolations() {
+    }
+
+    static boolean isUniqueViolation(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof R2dbcException r2dbc && UNIQUE_VIOLATION.equals(r2dbc.getSqlState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
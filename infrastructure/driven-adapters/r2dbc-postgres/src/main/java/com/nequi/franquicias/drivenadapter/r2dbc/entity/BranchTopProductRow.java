@@ -0,0 +1,13 @@
+package com.nequi.franquicias.drivenadapter.r2dbc.entity;
+
+import org.springframework.data.relational.core.mapping.Column;
+
+/**
+ * Fila de proyección para las consultas de producto con mayor stock por sucursal.
+ */
+public record BranchTopProductRow(@Column("product_id") Long productId,
+                                  @Column("product_name") String productName,
+                                  Integer stock,
+                                  @Column("branch_id") Long branchId,
+                                  @Column("branch_name") String branchName,
+                                  @Column("franchise_id") Long franchiseId) {}
@@ -0,0 +1,14 @@
+package com.nequi.franquicias.drivenadapter.r2dbc.entity;
+
+import org.springframework.data.relational.core.mapping.Column;
+
+/**
+ * Fila de proyección para la exportación del catálogo de una franquicia.
+ */
+public record FranchiseCatalogEntryRow(@Column("franchise_id") Long franchiseId,
+                                       @Column("franchise_name") String franchiseName,
+                                       @Column("branch_id") Long branchId,
+                                       @Column("branch_name") String branchName,
+                                       @Column("product_id") Long productId,
+                                       @Column("product_name") String productName,
+                                       Integer stock) {}
@@ -1,7 +1,8 @@
 package com.nequi.franquicias.drivenadapter.r2dbc.entity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Table;
 
 @Table("franchises")
-public record FranchiseEntity(@Id Long id, String nombre) {}
+public record FranchiseEntity(@Id Long id, String nombre, @Version Long version) {}
@@ -0,0 +1,16 @@
+package com.nequi.franquicias.drivenadapter.r2dbc.entity;
+
+import org.springframework.data.relational.core.mapping.Column;
+
+/**
+ * Fila de proyección para la consulta de estadísticas de stock por sucursal y franquicia.
+ */
+public record StockStatisticsRow(@Column("branch_id") Long branchId,
+                                 @Column("branch_name") String branchName,
+                                 @Column("product_count") Long productCount,
+                                 @Column("total_stock") Long totalStock,
+                                 @Column("min_stock") Integer minStock,
+                                 @Column("max_stock") Integer maxStock,
+                                 @Column("avg_stock") Double avgStock,
+                                 @Column("p50_stock") Double p50Stock,
+                                 @Column("p95_stock") Double p95Stock) {}
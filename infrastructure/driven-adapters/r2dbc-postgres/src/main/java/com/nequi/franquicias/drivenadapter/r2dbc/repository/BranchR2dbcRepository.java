@@ -1,6 +1,8 @@
 package com.nequi.franquicias.drivenadapter.r2dbc.repository;
 
 import com.nequi.franquicias.drivenadapter.r2dbc.entity.BranchEntity;
+import com.nequi.franquicias.drivenadapter.r2dbc.entity.BranchTopProductRow;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -8,6 +10,36 @@ import reactor.core.publisher.Mono;
 public interface BranchR2dbcRepository extends R2dbcRepository<BranchEntity, Long> {
 
     Flux<BranchEntity> findByFranchiseId(Long franchiseId);
+
+    @Query("""
+            UPDATE branches SET nombre = :nombre, version = version + 1
+            WHERE id = :id AND (CAST(:expectedVersion AS BIGINT) IS NULL OR version = :expectedVersion)
+            RETURNING *
+            """)
+    Mono<BranchEntity> updateNombre(Long id, String nombre, Long expectedVersion);
+
+    @Query("""
+            INSERT INTO branches (nombre, franchise_id)
+            SELECT :nombre, :franchiseId
+            WHERE EXISTS (SELECT 1 FROM franchises WHERE id = :franchiseId)
+            RETURNING *
+            """)
+    Mono<BranchEntity> insertIfFranchiseExists(String nombre, Long franchiseId);
+
+    @Query("SELECT * FROM branches WHERE franchise_id = :franchiseId AND id > :afterId ORDER BY id LIMIT :limit")
+    Flux<BranchEntity> findPageByFranchiseId(Long franchiseId, Long afterId, int limit);
     Mono<Boolean> existsById(Long id);
     Mono<Boolean> existsByIdAndFranchiseId(Long id, Long franchiseId);
+
+    /**
+     * Rango sobre idx_branches_franchise_id_id unido por clave primaria a branch_top_product.
+     */
+    @Query("""
+            SELECT t.product_id, t.product_name, t.stock, b.id AS branch_id, b.nombre AS branch_name, b.franchise_id
+            FROM branches b
+            JOIN branch_top_product t ON t.branch_id = b.id
+            WHERE b.franchise_id = :franchiseId
+            ORDER BY b.id
+            """)
+    Flux<BranchTopProductRow> findTopProductsByFranchiseId(Long franchiseId);
 }
@@ -1,10 +1,44 @@
 package com.nequi.franquicias.drivenadapter.r2dbc.repository;
 
+import com.nequi.franquicias.drivenadapter.r2dbc.entity.FranchiseCatalogEntryRow;
 import com.nequi.franquicias.drivenadapter.r2dbc.entity.FranchiseEntity;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface FranchiseR2dbcRepository extends R2dbcRepository<FranchiseEntity, Long> {
 
     Mono<Boolean> existsById(Long id);
+
+    /**
+     * Cada UPDATE incrementa {@code version}; con {@code expectedVersion} nulo no se condiciona.
+     */
+    @Query("""
+            UPDATE franchises SET nombre = :nombre, version = version + 1
+            WHERE id = :id AND (CAST(:expectedVersion AS BIGINT) IS NULL OR version = :expectedVersion)
+            RETURNING *
+            """)
+    Mono<FranchiseEntity> updateNombre(Long id, String nombre, Long expectedVersion);
+
+    @Query("SELECT * FROM franchises WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<FranchiseEntity> findPage(Long afterId, int limit);
+
+    /**
+     * Recorre idx_branches_franchise_id_id e idx_products_branch_id_id en orden; con fetchSize
+     * configurado el driver lee por lotes del portal según la demanda. El stock es el vigente:
+     * en productos repartidos, la suma de sus franjas.
+     */
+    @Query("""
+            SELECT f.id AS franchise_id, f.nombre AS franchise_name,
+                   b.id AS branch_id, b.nombre AS branch_name,
+                   p.id AS product_id, p.nombre AS product_name,\s""" + ProductR2dbcRepository.EFFECTIVE_STOCK + """
+            AS stock
+            FROM franchises f
+            LEFT JOIN branches b ON b.franchise_id = f.id
+            LEFT JOIN products p ON p.branch_id = b.id
+            WHERE f.id = :franchiseId
+            ORDER BY b.id, p.id
+            """)
+    Flux<FranchiseCatalogEntryRow> streamCatalog(Long franchiseId);
 }
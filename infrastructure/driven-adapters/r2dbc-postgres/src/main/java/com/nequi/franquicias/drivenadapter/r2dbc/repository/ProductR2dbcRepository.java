@@ -1,13 +1,244 @@
 package com.nequi.franquicias.drivenadapter.r2dbc.repository;
 
+import com.nequi.franquicias.drivenadapter.r2dbc.entity.BranchTopProductRow;
 import com.nequi.franquicias.drivenadapter.r2dbc.entity.ProductEntity;
+import com.nequi.franquicias.drivenadapter.r2dbc.entity.StockStatisticsRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface ProductR2dbcRepository extends R2dbcRepository<ProductEntity, Long> {
 
+    /**
+     * Columnas de producto con el stock vigente: en productos repartidos en franjas
+     * (V7) es la suma de las franjas y no la columna plegada.
+     */
+    String PRODUCT_COLUMNS = "p.id, p.nombre, product_effective_stock(p.id, p.stock, p.stock_stripes) AS stock, "
+            + "p.branch_id, p.version";
+
+    /**
+     * Stock vigente de {@code p} para agregar u ordenar: solo llama a product_effective_stock en los
+     * productos repartidos y es nulo si {@code p} viene vacío de un LEFT JOIN.
+     */
+    String EFFECTIVE_STOCK = "CASE WHEN p.stock_stripes > 0 "
+            + "THEN product_effective_stock(p.id, p.stock, p.stock_stripes) ELSE p.stock END";
+
+    @Override
+    @Query("SELECT " + PRODUCT_COLUMNS + " FROM products p WHERE p.id = :id")
+    Mono<ProductEntity> findById(Long id);
+
+    @Query("SELECT " + PRODUCT_COLUMNS + " FROM products p WHERE p.branch_id = :branchId")
     Flux<ProductEntity> findByBranchId(Long branchId);
+
+    @Query("""
+            INSERT INTO products (nombre, stock, branch_id)
+            SELECT :nombre, :stock, :branchId
+            WHERE EXISTS (SELECT 1 FROM branches WHERE id = :branchId)
+            RETURNING *
+            """)
+    Mono<ProductEntity> insertIfBranchExists(String nombre, Integer stock, Long branchId);
+
+    /**
+     * Inserción multi-fila con ids ya reservados (ver SequenceIdAllocator): ids, nombres y stocks
+     * viajan como arreglos y se expanden con unnest. Sin RETURNING; retorna el número de filas insertadas,
+     * 0 si la sucursal ya no existe (igual que {@link #insertIfBranchExists}).
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO products (id, nombre, stock, branch_id)
+            SELECT v.id, v.nombre, v.stock, :branchId
+            FROM unnest(CAST(:ids AS BIGINT[]), CAST(:nombres AS VARCHAR[]), CAST(:stocks AS INTEGER[])) AS v(id, nombre, stock)
+            WHERE EXISTS (SELECT 1 FROM branches b WHERE b.id = :branchId)
+            """)
+    Mono<Long> insertAll(Long branchId, Long[] ids, String[] nombres, Integer[] stocks);
+
+    @Query("""
+            UPDATE products p SET nombre = :nombre, version = p.version + 1
+            WHERE p.id = :id AND (CAST(:expectedVersion AS BIGINT) IS NULL OR p.version = :expectedVersion)
+            RETURNING\s""" + PRODUCT_COLUMNS)
+    Mono<ProductEntity> updateNombre(Long id, String nombre, Long expectedVersion);
+
+    /**
+     * En un producto repartido el valor absoluto también se reparte entre sus franjas,
+     * después de bloquear la fila de products (mismo orden que set_product_stock_stripes).
+     * Con {@code expectedVersion} un producto repartido nunca se actualiza: los ajustes sobre sus
+     * franjas no incrementan version, así que la versión no garantiza que el stock leído siga vigente.
+     */
+    @Query("""
+            WITH updated AS (
+                UPDATE products SET stock = :stock, version = version + 1
+                WHERE id = :id
+                  AND (CAST(:expectedVersion AS BIGINT) IS NULL OR (version = :expectedVersion AND stock_stripes = 0))
+                RETURNING *
+            ), s AS (
+                UPDATE product_stock_stripes st
+                SET stock = u.stock / u.stock_stripes + CASE WHEN st.stripe < u.stock % u.stock_stripes THEN 1 ELSE 0 END
+                FROM updated u
+                WHERE st.product_id = u.id AND u.stock_stripes > 0
+            )
+            SELECT * FROM updated
+            """)
+    Mono<ProductEntity> updateStock(Long id, Integer stock, Long expectedVersion);
+
+    /**
+     * adjust_product_stock (V7) aplica el UPDATE condicional sobre products o, si el producto
+     * está repartido, sobre una de sus franjas; la condición se evalúa en BIGINT para que un
+     * delta grande no desborde la columna INTEGER.
+     */
+    @Query("SELECT * FROM adjust_product_stock(:id, :delta)")
+    Mono<ProductEntity> adjustStock(Long id, Integer delta);
+
+    @Query("SELECT * FROM set_product_stock_stripes(:id, :stripes)")
+    Mono<ProductEntity> setStockStripes(Long id, int stripes);
+
+    /**
+     * Escribe en products.stock la suma de las franjas de los productos que cambiaron,
+     * bloqueando sus filas en orden de id. No incrementa version: el stock vigente ya cambió
+     * con cada ajuste y aquí solo se alinea la copia plegada. Solo recorre los productos
+     * repartidos (idx_products_branch_striped, V8) y, con varias instancias, una sola pliega a la
+     * vez: las demás no obtienen el candado consultivo de la transacción y no tocan ninguna fila.
+     */
+    @Query("""
+            WITH guard AS (
+                SELECT pg_try_advisory_xact_lock(hashtext('fold_stock_stripes'), 0) AS acquired
+            ), locked AS (
+                SELECT p.id, product_effective_stock(p.id, p.stock, p.stock_stripes) AS total
+                FROM products p
+                WHERE p.stock_stripes > 0
+                  AND p.stock <> product_effective_stock(p.id, p.stock, p.stock_stripes)
+                  AND (SELECT acquired FROM guard)
+                ORDER BY p.id
+                FOR UPDATE OF p
+            )
+            UPDATE products p SET stock = l.total
+            FROM locked l
+            WHERE p.id = l.id
+            RETURNING p.*
+            """)
+    Flux<ProductEntity> foldStockStripes();
+
+    /**
+     * Actualización por conjunto: los arreglos se envían como dos parámetros y se expanden con unnest.
+     */
+    @Query("""
+            WITH updated AS (
+                UPDATE products p SET stock = v.stock, version = p.version + 1
+                FROM unnest(CAST(:ids AS BIGINT[]), CAST(:stocks AS INTEGER[])) AS v(id, stock)
+                WHERE p.id = v.id
+                RETURNING p.*
+            ), s AS (
+                UPDATE product_stock_stripes st
+                SET stock = u.stock / u.stock_stripes + CASE WHEN st.stripe < u.stock % u.stock_stripes THEN 1 ELSE 0 END
+                FROM updated u
+                WHERE st.product_id = u.id AND u.stock_stripes > 0
+            )
+            SELECT * FROM updated
+            """)
+    Flux<ProductEntity> updateStocks(Long[] ids, Integer[] stocks);
+
+    @Query("SELECT " + PRODUCT_COLUMNS + " FROM products p WHERE p.branch_id = :branchId AND p.id > :afterId ORDER BY p.id LIMIT :limit")
+    Flux<ProductEntity> findPageByBranchId(Long branchId, Long afterId, int limit);
     Mono<Boolean> existsById(Long id);
     Mono<Boolean> existsByIdAndBranchId(Long id, Long branchId);
+
+    @Modifying
+    @Query("DELETE FROM products WHERE id = :id AND branch_id = :branchId")
+    Mono<Long> deleteByIdAndBranchId(Long id, Long branchId);
+
+    @Query("""
+            SELECT\s""" + PRODUCT_COLUMNS + """
+            FROM products p
+            JOIN branches b ON b.id = p.branch_id
+            WHERE b.franchise_id = :franchiseId
+            ORDER BY p.branch_id, p.id
+            """)
+    Flux<ProductEntity> findByFranchiseId(Long franchiseId);
+
+    /**
+     * Selección acotada por sucursal: cada subconsulta lateral lee como máximo {@code limit} filas
+     * sin franjas de idx_products_branch_stock más los productos repartidos de la sucursal
+     * (idx_products_branch_striped, V8) con la suma de sus franjas.
+     */
+    @Query("""
+            SELECT p.id AS product_id, p.nombre AS product_name, p.stock, b.id AS branch_id, b.nombre AS branch_name,
+                   b.franchise_id
+            FROM branches b
+            CROSS JOIN LATERAL (
+                SELECT c.id, c.nombre, c.stock
+                FROM (
+                    (SELECT id, nombre, stock
+                     FROM products
+                     WHERE branch_id = b.id AND stock_stripes = 0
+                     ORDER BY stock DESC, id
+                     LIMIT :limit)
+                    UNION ALL
+                    SELECT id, nombre, product_effective_stock(id, stock, stock_stripes)
+                    FROM products
+                    WHERE branch_id = b.id AND stock_stripes > 0
+                ) c
+                ORDER BY c.stock DESC, c.id
+                LIMIT :limit
+            ) p
+            WHERE b.franchise_id = :franchiseId
+            ORDER BY b.id, p.stock DESC, p.id
+            """)
+    Flux<BranchTopProductRow> findTopStockByFranchiseId(Long franchiseId, int limit);
+
+    @Query("""
+            SELECT DISTINCT ON (p.branch_id)
+                   p.id AS product_id, p.nombre AS product_name, e.stock, b.id AS branch_id, b.nombre AS branch_name,
+                   b.franchise_id
+            FROM products p
+            JOIN branches b ON b.id = p.branch_id
+            CROSS JOIN LATERAL (SELECT\s""" + EFFECTIVE_STOCK + """
+            AS stock) e
+            ORDER BY p.branch_id, e.stock DESC, p.id
+            """)
+    Flux<BranchTopProductRow> findTopStockPerBranch();
+
+    @Query("""
+            SELECT p.id AS product_id, p.nombre AS product_name, p.stock, b.id AS branch_id, b.nombre AS branch_name,
+                   b.franchise_id
+            FROM branches b
+            CROSS JOIN LATERAL (
+                (SELECT id, nombre, stock
+                 FROM products
+                 WHERE branch_id = b.id AND stock_stripes = 0
+                 ORDER BY stock DESC, id
+                 LIMIT 1)
+                UNION ALL
+                SELECT id, nombre, product_effective_stock(id, stock, stock_stripes)
+                FROM products
+                WHERE branch_id = b.id AND stock_stripes > 0
+            ) p
+            WHERE b.id = :branchId
+            ORDER BY p.stock DESC, p.id
+            LIMIT 1
+            """)
+    Mono<BranchTopProductRow> findTopStockByBranchId(Long branchId);
+
+    /**
+     * Una sola pasada agregada: GROUPING SETS produce las filas por sucursal y la fila total
+     * (branch_id nulo), que se ordena al final.
+     */
+    @Query("""
+            SELECT b.id AS branch_id, b.nombre AS branch_name,
+                   COUNT(p.id) AS product_count,
+                   COALESCE(SUM(e.stock), 0) AS total_stock,
+                   MIN(e.stock) AS min_stock,
+                   MAX(e.stock) AS max_stock,
+                   CAST(AVG(e.stock) AS DOUBLE PRECISION) AS avg_stock,
+                   percentile_cont(0.5) WITHIN GROUP (ORDER BY e.stock) AS p50_stock,
+                   percentile_cont(0.95) WITHIN GROUP (ORDER BY e.stock) AS p95_stock
+            FROM branches b
+            LEFT JOIN products p ON p.branch_id = b.id
+            CROSS JOIN LATERAL (SELECT\s""" + EFFECTIVE_STOCK + """
+            AS stock) e
+            WHERE b.franchise_id = :franchiseId
+            GROUP BY GROUPING SETS ((b.id, b.nombre), ())
+            ORDER BY b.id NULLS LAST
+            """)
+    Flux<StockStatisticsRow> findStockStatisticsByFranchiseId(Long franchiseId);
 }
@@ -1,8 +1,11 @@
 package com.nequi.franquicias.drivenadapter.r2dbc;
 
 import com.nequi.franquicias.drivenadapter.r2dbc.entity.BranchEntity;
+import com.nequi.franquicias.drivenadapter.r2dbc.entity.BranchTopProductRow;
 import com.nequi.franquicias.drivenadapter.r2dbc.repository.BranchR2dbcRepository;
 import com.nequi.franquicias.model.Branch;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -33,7 +36,7 @@ class BranchRepositoryAdapterTest {
     @Test
     @DisplayName("guarda sucursal")
     void guardaSucursal() {
-        BranchEntity entity = new BranchEntity(1L, "Sucursal", 10L);
+        BranchEntity entity = new BranchEntity(1L, "Sucursal", 10L, 0L);
         when(r2dbcRepository.save(any(BranchEntity.class))).thenReturn(Mono.just(entity));
 
         Branch input = new Branch(null, "Sucursal", 10L, java.util.List.of());
@@ -47,8 +50,8 @@ class BranchRepositoryAdapterTest {
     @DisplayName("busca por franchiseId")
     void buscaPorFranchiseId() {
         when(r2dbcRepository.findByFranchiseId(10L)).thenReturn(Flux.just(
-                new BranchEntity(1L, "Sucursal A", 10L),
-                new BranchEntity(2L, "Sucursal B", 10L)));
+                new BranchEntity(1L, "Sucursal A", 10L, 0L),
+                new BranchEntity(2L, "Sucursal B", 10L, 0L)));
 
         StepVerifier.create(adapter.findByFranchiseId(10L))
                 .expectNextCount(2)
@@ -68,7 +71,7 @@ class BranchRepositoryAdapterTest {
     @Test
     @DisplayName("busca por id")
     void buscaPorId() {
-        BranchEntity entity = new BranchEntity(1L, "Sucursal Centro", 10L);
+        BranchEntity entity = new BranchEntity(1L, "Sucursal Centro", 10L, 0L);
         when(r2dbcRepository.findById(1L)).thenReturn(Mono.just(entity));
 
         StepVerifier.create(adapter.findById(1L))
@@ -94,4 +97,69 @@ class BranchRepositoryAdapterTest {
         StepVerifier.create(adapter.findById(999L))
                 .verifyComplete();
     }
+
+    @Test
+    @DisplayName("lee resumen de mayor stock por franchiseId")
+    void leeResumenDeMayorStockPorFranchiseId() {
+        when(r2dbcRepository.findTopProductsByFranchiseId(10L)).thenReturn(Flux.just(
+                new BranchTopProductRow(5L, "Producto A", 40, 1L, "Sucursal A", 10L),
+                new BranchTopProductRow(9L, "Producto B", 15, 2L, "Sucursal B", 10L)));
+
+        StepVerifier.create(adapter.findTopProductsByFranchiseId(10L))
+                .expectNextMatches(t -> t.productId() == 5L && t.branchId() == 1L && "Sucursal A".equals(t.branchName()))
+                .expectNextMatches(t -> t.productId() == 9L && t.stock() == 15 && t.franchiseId() == 10L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("lee página de sucursales por cursor")
+    void leePaginaPorCursor() {
+        when(r2dbcRepository.findPageByFranchiseId(10L, 0L, 2)).thenReturn(Flux.just(
+                new BranchEntity(1L, "Sucursal A", 10L, 0L)));
+
+        StepVerifier.create(adapter.findPageByFranchiseId(10L, 0L, 2))
+                .expectNextMatches(b -> b.id() == 1L && b.franchiseId() == 10L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("inserta sucursal verificando la franquicia en la misma sentencia")
+    void insertaSiFranquiciaExiste() {
+        when(r2dbcRepository.insertIfFranchiseExists("Sucursal", 10L)).thenReturn(Mono.just(new BranchEntity(1L, "Sucursal", 10L, 0L)));
+
+        StepVerifier.create(adapter.insertIfFranchiseExists(new Branch(null, "Sucursal", 10L, java.util.List.of())))
+                .expectNextMatches(b -> b.id() == 1L && b.franchiseId() == 10L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("trata la violación de clave foránea como franquicia inexistente")
+    void violacionFkComoVacio() {
+        when(r2dbcRepository.insertIfFranchiseExists("Sucursal", 10L)).thenReturn(Mono.error(
+                new DataIntegrityViolationException("fk", new R2dbcDataIntegrityViolationException("fk", "23503"))));
+
+        StepVerifier.create(adapter.insertIfFranchiseExists(new Branch(null, "Sucursal", 10L, java.util.List.of())))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("propaga otras violaciones de integridad")
+    void propagaOtrasViolaciones() {
+        when(r2dbcRepository.insertIfFranchiseExists("Sucursal", 10L)).thenReturn(Mono.error(
+                new DataIntegrityViolationException("not null", new R2dbcDataIntegrityViolationException("nn", "23502"))));
+
+        StepVerifier.create(adapter.insertIfFranchiseExists(new Branch(null, "Sucursal", 10L, java.util.List.of())))
+                .expectError(DataIntegrityViolationException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("renombra sucursal con una sola sentencia")
+    void renombraSucursal() {
+        when(r2dbcRepository.updateNombre(1L, "Nuevo", null)).thenReturn(Mono.just(new BranchEntity(1L, "Nuevo", 10L, 0L)));
+
+        StepVerifier.create(adapter.updateNombre(1L, "Nuevo", null))
+                .expectNextMatches(b -> "Nuevo".equals(b.nombre()) && b.franchiseId() == 10L)
+                .verifyComplete();
+    }
 }
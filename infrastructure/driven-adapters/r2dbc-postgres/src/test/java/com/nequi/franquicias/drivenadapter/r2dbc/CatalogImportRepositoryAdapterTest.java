@@ -0,0 +1,144 @@
+package com.nequi.franquicias.drivenadapter.r2dbc;
+
+import com.nequi.franquicias.model.CatalogEntity;
+import io.netty.buffer.ByteBuf;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import io.r2dbc.spi.Wrapped;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogImportRepositoryAdapter")
+class CatalogImportRepositoryAdapterTest {
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private PostgresqlConnection postgresqlConnection;
+
+    @Mock
+    private PostgresqlStatement statement;
+
+    @Mock
+    private PostgresqlResult result;
+
+    private CatalogImportRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new CatalogImportRepositoryAdapter(databaseClient);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenConnection(Connection connection) {
+        when(databaseClient.inConnection(any())).thenAnswer(inv ->
+                inv.<Function<Connection, Mono<Long>>>getArgument(0).apply(connection));
+        when(postgresqlConnection.beginTransaction()).thenReturn(Mono.empty());
+    }
+
+    private void givenStatements() {
+        when(postgresqlConnection.createStatement(anyString())).thenReturn(statement);
+        when(statement.execute()).thenReturn(Flux.just(result));
+        when(result.getRowsUpdated()).thenReturn(Mono.just(1L));
+    }
+
+    @Test
+    @DisplayName("bloquea la tabla, envía el CSV por COPY y ajusta la secuencia en una sola transacción")
+    void enviaCsvPorCopy() {
+        givenConnection(postgresqlConnection);
+        givenStatements();
+        when(postgresqlConnection.commitTransaction()).thenReturn(Mono.empty());
+        StringBuilder sent = new StringBuilder();
+        when(postgresqlConnection.copyIn(eq("COPY products (id, branch_id, nombre, stock) FROM STDIN WITH (FORMAT csv, HEADER true)"), any()))
+                .thenAnswer(inv -> Flux.from(inv.<Publisher<ByteBuf>>getArgument(1))
+                        .doOnNext(b -> sent.append(b.toString(StandardCharsets.UTF_8)))
+                        .count());
+        StepVerifier.create(adapter.importCsv(CatalogEntity.PRODUCTS, Flux.just(
+                        ByteBuffer.wrap("id,sucursal_id,nombre,stock\n".getBytes(StandardCharsets.UTF_8)),
+                        ByteBuffer.wrap("1,10,\"A\",5\n".getBytes(StandardCharsets.UTF_8)))))
+                .expectNext(2L)
+                .verifyComplete();
+
+        assertEquals("id,sucursal_id,nombre,stock\n1,10,\"A\",5\n", sent.toString());
+        InOrder inOrder = inOrder(postgresqlConnection);
+        inOrder.verify(postgresqlConnection).beginTransaction();
+        inOrder.verify(postgresqlConnection).createStatement("LOCK TABLE products IN SHARE ROW EXCLUSIVE MODE");
+        inOrder.verify(postgresqlConnection).copyIn(anyString(), any());
+        inOrder.verify(postgresqlConnection).createStatement(CatalogImportRepositoryAdapter.syncSequenceSql("products"));
+        inOrder.verify(postgresqlConnection).commitTransaction();
+        verify(postgresqlConnection, never()).rollbackTransaction();
+    }
+
+    @Test
+    @DisplayName("desenvuelve la conexión del pool hasta la conexión nativa")
+    @SuppressWarnings("unchecked")
+    void desenvuelveConexion() {
+        Connection pooled = mock(Connection.class, withSettings().extraInterfaces(Wrapped.class));
+        when(((Wrapped<Connection>) pooled).unwrap()).thenReturn(postgresqlConnection);
+        givenConnection(pooled);
+        givenStatements();
+        when(postgresqlConnection.copyIn(anyString(), any())).thenReturn(Mono.just(1L));
+        when(postgresqlConnection.commitTransaction()).thenReturn(Mono.empty());
+
+        StepVerifier.create(adapter.importCsv(CatalogEntity.FRANCHISES, Flux.empty()))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("traduce violaciones de integridad a IllegalArgumentException y revierte la transacción")
+    void traduceViolacionesDeIntegridad() {
+        givenConnection(postgresqlConnection);
+        givenStatements();
+        when(postgresqlConnection.rollbackTransaction()).thenReturn(Mono.empty());
+        when(postgresqlConnection.copyIn(anyString(), any()))
+                .thenReturn(Mono.error(new R2dbcDataIntegrityViolationException("fk", "23503")));
+
+        StepVerifier.create(adapter.importCsv(CatalogEntity.BRANCHES, Flux.empty()))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(postgresqlConnection, never()).createStatement(CatalogImportRepositoryAdapter.syncSequenceSql("branches"));
+        verify(postgresqlConnection, never()).commitTransaction();
+        verify(postgresqlConnection).rollbackTransaction();
+    }
+
+    @Test
+    @DisplayName("genera la sentencia COPY con las columnas de cada entidad")
+    void generaSentenciaCopy() {
+        assertEquals("COPY franchises (id, nombre) FROM STDIN WITH (FORMAT csv, HEADER true)",
+                CatalogImportRepositoryAdapter.copySql(CatalogEntity.FRANCHISES, "franchises"));
+        assertEquals("COPY branches (id, franchise_id, nombre) FROM STDIN WITH (FORMAT csv, HEADER true)",
+                CatalogImportRepositoryAdapter.copySql(CatalogEntity.BRANCHES, "branches"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.nequi.franquicias.drivenadapter.r2dbc;
 
+import com.nequi.franquicias.drivenadapter.r2dbc.entity.FranchiseCatalogEntryRow;
 import com.nequi.franquicias.drivenadapter.r2dbc.entity.FranchiseEntity;
 import com.nequi.franquicias.drivenadapter.r2dbc.repository.FranchiseR2dbcRepository;
 import com.nequi.franquicias.model.Franchise;
@@ -33,7 +34,7 @@ class FranchiseRepositoryAdapterTest {
     @Test
     @DisplayName("guarda franquicia y mapea a dominio")
     void guardaFranquicia() {
-        FranchiseEntity entity = new FranchiseEntity(1L, "Franquicia Test");
+        FranchiseEntity entity = new FranchiseEntity(1L, "Franquicia Test", 0L);
         when(r2dbcRepository.save(any(FranchiseEntity.class))).thenReturn(Mono.just(entity));
 
         Franchise input = new Franchise(null, "Franquicia Test", java.util.List.of());
@@ -46,7 +47,7 @@ class FranchiseRepositoryAdapterTest {
     @Test
     @DisplayName("busca por id")
     void buscaPorId() {
-        FranchiseEntity entity = new FranchiseEntity(1L, "Franquicia");
+        FranchiseEntity entity = new FranchiseEntity(1L, "Franquicia", 0L);
         when(r2dbcRepository.findById(1L)).thenReturn(Mono.just(entity));
 
         StepVerifier.create(adapter.findById(1L))
@@ -58,8 +59,8 @@ class FranchiseRepositoryAdapterTest {
     @DisplayName("busca todos")
     void buscaTodos() {
         when(r2dbcRepository.findAll()).thenReturn(Flux.just(
-                new FranchiseEntity(1L, "A"),
-                new FranchiseEntity(2L, "B")));
+                new FranchiseEntity(1L, "A", 0L),
+                new FranchiseEntity(2L, "B", 0L)));
 
         StepVerifier.create(adapter.findAll())
                 .expectNextCount(2)
@@ -84,4 +85,43 @@ class FranchiseRepositoryAdapterTest {
         StepVerifier.create(adapter.findById(999L))
                 .verifyComplete();
     }
+
+    @Test
+    @DisplayName("lee página de franquicias por cursor")
+    void leePaginaPorCursor() {
+        when(r2dbcRepository.findPage(5L, 2)).thenReturn(Flux.just(
+                new FranchiseEntity(6L, "F6", 0L),
+                new FranchiseEntity(9L, "F9", 0L)));
+
+        StepVerifier.create(adapter.findPage(5L, 2))
+                .expectNextMatches(f -> f.id() == 6L)
+                .expectNextMatches(f -> f.id() == 9L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("transmite el catálogo plano conservando filas sin producto")
+    void transmiteCatalogo() {
+        when(r2dbcRepository.streamCatalog(1L)).thenReturn(Flux.just(
+                new FranchiseCatalogEntryRow(1L, "F", 2L, "S1", 3L, "P", 7),
+                new FranchiseCatalogEntryRow(1L, "F", 4L, "S2", null, null, null)));
+
+        StepVerifier.create(adapter.streamCatalog(1L))
+                .expectNextMatches(e -> e.hasProduct() && e.stock() == 7 && e.branchName().equals("S1"))
+                .expectNextMatches(e -> e.branchId() == 4L && !e.hasProduct())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("renombra franquicia con una sola sentencia")
+    void renombraFranquicia() {
+        when(r2dbcRepository.updateNombre(1L, "Nuevo", null)).thenReturn(Mono.just(new FranchiseEntity(1L, "Nuevo", 0L)));
+        when(r2dbcRepository.updateNombre(999L, "Nuevo", null)).thenReturn(Mono.empty());
+
+        StepVerifier.create(adapter.updateNombre(1L, "Nuevo", null))
+                .expectNextMatches(f -> f.id() == 1L && "Nuevo".equals(f.nombre()))
+                .verifyComplete();
+        StepVerifier.create(adapter.updateNombre(999L, "Nuevo", null))
+                .verifyComplete();
+    }
 }
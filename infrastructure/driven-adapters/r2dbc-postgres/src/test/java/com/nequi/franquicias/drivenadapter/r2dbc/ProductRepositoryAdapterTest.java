@@ -1,8 +1,15 @@
 package com.nequi.franquicias.drivenadapter.r2dbc;
 
+import com.nequi.franquicias.drivenadapter.r2dbc.entity.BranchTopProductRow;
 import com.nequi.franquicias.drivenadapter.r2dbc.entity.ProductEntity;
+import com.nequi.franquicias.drivenadapter.r2dbc.entity.StockStatisticsRow;
 import com.nequi.franquicias.drivenadapter.r2dbc.repository.ProductR2dbcRepository;
+import com.nequi.franquicias.model.CatalogEntity;
 import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.StockUpdate;
+import com.nequi.franquicias.model.port.IdAllocator;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,7 +20,12 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,17 +35,20 @@ class ProductRepositoryAdapterTest {
     @Mock
     private ProductR2dbcRepository r2dbcRepository;
 
+    @Mock
+    private IdAllocator idAllocator;
+
     private ProductRepositoryAdapter adapter;
 
     @BeforeEach
     void setUp() {
-        adapter = new ProductRepositoryAdapter(r2dbcRepository);
+        adapter = new ProductRepositoryAdapter(r2dbcRepository, idAllocator);
     }
 
     @Test
     @DisplayName("guarda producto")
     void guardaProducto() {
-        ProductEntity entity = new ProductEntity(1L, "Producto", 10, 5L);
+        ProductEntity entity = new ProductEntity(1L, "Producto", 10, 5L, 0L);
         when(r2dbcRepository.save(any(ProductEntity.class))).thenReturn(Mono.just(entity));
 
         Product input = new Product(null, "Producto", 10, 5L);
@@ -47,8 +62,8 @@ class ProductRepositoryAdapterTest {
     @DisplayName("busca por branchId")
     void buscaPorBranchId() {
         when(r2dbcRepository.findByBranchId(5L)).thenReturn(Flux.just(
-                new ProductEntity(1L, "P1", 5, 5L),
-                new ProductEntity(2L, "P2", 10, 5L)));
+                new ProductEntity(1L, "P1", 5, 5L, 0L),
+                new ProductEntity(2L, "P2", 10, 5L, 0L)));
 
         StepVerifier.create(adapter.findByBranchId(5L))
                 .expectNextCount(2)
@@ -77,7 +92,7 @@ class ProductRepositoryAdapterTest {
     @Test
     @DisplayName("busca por id")
     void buscaPorId() {
-        ProductEntity entity = new ProductEntity(1L, "Producto", 10, 5L);
+        ProductEntity entity = new ProductEntity(1L, "Producto", 10, 5L, 0L);
         when(r2dbcRepository.findById(1L)).thenReturn(Mono.just(entity));
 
         StepVerifier.create(adapter.findById(1L))
@@ -103,4 +118,233 @@ class ProductRepositoryAdapterTest {
         StepVerifier.create(adapter.findById(999L))
                 .verifyComplete();
     }
+
+    @Test
+    @DisplayName("busca producto con mayor stock por sucursal de una franquicia")
+    void buscaTopStockPorFranquicia() {
+        when(r2dbcRepository.findTopStockByFranchiseId(1L, 1)).thenReturn(Flux.just(
+                new BranchTopProductRow(2L, "P2", 15, 10L, "Sucursal A", 1L),
+                new BranchTopProductRow(3L, "P3", 8, 20L, "Sucursal B", 1L)));
+
+        StepVerifier.create(adapter.findTopStockByFranchiseId(1L, 1))
+                .expectNextMatches(t -> t.productId() == 2L && t.stock() == 15 && "Sucursal A".equals(t.branchName()))
+                .expectNextMatches(t -> t.productId() == 3L && t.branchId() == 20L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("busca los K productos con mayor stock por sucursal")
+    void buscaTopKPorFranquicia() {
+        when(r2dbcRepository.findTopStockByFranchiseId(1L, 2)).thenReturn(Flux.just(
+                new BranchTopProductRow(2L, "P2", 15, 10L, "Sucursal A", 1L),
+                new BranchTopProductRow(1L, "P1", 9, 10L, "Sucursal A", 1L)));
+
+        StepVerifier.create(adapter.findTopStockByFranchiseId(1L, 2))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("busca producto con mayor stock de una sucursal")
+    void buscaTopStockPorSucursal() {
+        when(r2dbcRepository.findTopStockByBranchId(10L))
+                .thenReturn(Mono.just(new BranchTopProductRow(2L, "P2", 15, 10L, "Sucursal A", 1L)));
+
+        StepVerifier.create(adapter.findTopStockByBranchId(10L))
+                .expectNextMatches(t -> t.productId() == 2L && t.franchiseId() == 1L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("mapea estadísticas de stock por sucursal y total de franquicia")
+    void mapeaEstadisticasDeStock() {
+        when(r2dbcRepository.findStockStatisticsByFranchiseId(1L)).thenReturn(Flux.just(
+                new StockStatisticsRow(10L, "Sucursal A", 2L, 30L, 10, 20, 15.0, 15.0, 19.5),
+                new StockStatisticsRow(null, null, 2L, 30L, 10, 20, 15.0, 15.0, 19.5)));
+
+        StepVerifier.create(adapter.findStockStatisticsByFranchiseId(1L))
+                .expectNextMatches(s -> s.branchId() == 10L && s.totalStock() == 30L && s.p95Stock() == 19.5)
+                .expectNextMatches(s -> s.isFranchiseTotal() && s.productCount() == 2L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("busca productos de todas las sucursales de una franquicia")
+    void buscaPorFranchiseId() {
+        when(r2dbcRepository.findByFranchiseId(1L)).thenReturn(Flux.just(
+                new ProductEntity(1L, "P1", 5, 10L, 0L),
+                new ProductEntity(2L, "P2", 7, 20L, 0L)));
+
+        StepVerifier.create(adapter.findByFranchiseId(1L))
+                .expectNextMatches(p -> p.id() == 1L && p.branchId() == 10L)
+                .expectNextMatches(p -> p.id() == 2L && p.branchId() == 20L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("lee página de productos por cursor")
+    void leePaginaPorCursor() {
+        when(r2dbcRepository.findPageByBranchId(10L, 1L, 2)).thenReturn(Flux.just(
+                new ProductEntity(2L, "P2", 5, 10L, 0L)));
+
+        StepVerifier.create(adapter.findPageByBranchId(10L, 1L, 2))
+                .expectNextMatches(p -> p.id() == 2L && p.branchId() == 10L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("actualiza stock y retorna la fila actualizada")
+    void actualizaStock() {
+        when(r2dbcRepository.updateStock(1L, 20, null)).thenReturn(Mono.just(new ProductEntity(1L, "Producto", 20, 5L, 0L)));
+
+        StepVerifier.create(adapter.updateStock(1L, 20, null))
+                .expectNextMatches(p -> p.id() == 1L && p.stock() == 20 && p.branchId() == 5L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("updateStock retorna vacío cuando el producto no existe")
+    void actualizaStockProductoInexistente() {
+        when(r2dbcRepository.updateStock(999L, 20, null)).thenReturn(Mono.empty());
+
+        StepVerifier.create(adapter.updateStock(999L, 20, null))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("updateStock condicional propaga la versión esperada y devuelve la nueva")
+    void actualizaStockCondicional() {
+        when(r2dbcRepository.updateStock(1L, 20, 3L)).thenReturn(Mono.just(new ProductEntity(1L, "Producto", 20, 5L, 4L)));
+
+        StepVerifier.create(adapter.updateStock(1L, 20, 3L))
+                .expectNextMatches(p -> p.version() == 4L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("configura franjas de stock y mapea el total")
+    void configuraFranjasDeStock() {
+        when(r2dbcRepository.setStockStripes(1L, 8)).thenReturn(Mono.just(new ProductEntity(1L, "Producto", 40, 5L, 2L)));
+
+        StepVerifier.create(adapter.setStockStripes(1L, 8))
+                .expectNextMatches(p -> p.id() == 1L && p.stock() == 40)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("pliega franjas y devuelve los productos que cambiaron")
+    void plegaFranjasDeStock() {
+        when(r2dbcRepository.foldStockStripes()).thenReturn(Flux.just(new ProductEntity(1L, "Producto", 37, 5L, 2L)));
+
+        StepVerifier.create(adapter.foldStockStripes())
+                .expectNextMatches(p -> p.id() == 1L && p.stock() == 37)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("ajusta stock de forma relativa")
+    void ajustaStock() {
+        when(r2dbcRepository.adjustStock(1L, -3)).thenReturn(Mono.just(new ProductEntity(1L, "Producto", 7, 5L, 0L)));
+
+        StepVerifier.create(adapter.adjustStock(1L, -3))
+                .expectNextMatches(p -> p.stock() == 7)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("envía el lote de stocks como arreglos paralelos")
+    void actualizaStocksEnLote() {
+        when(r2dbcRepository.updateStocks(aryEq(new Long[]{1L, 2L}), aryEq(new Integer[]{10, 0})))
+                .thenReturn(Flux.just(new ProductEntity(1L, "P1", 10, 5L, 0L)));
+
+        StepVerifier.create(adapter.updateStocks(List.of(new StockUpdate(1L, 10), new StockUpdate(2L, 0))))
+                .expectNextMatches(p -> p.id() == 1L && p.stock() == 10)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("inserta productos en lote con ids reservados y sin RETURNING")
+    void insertaProductosEnLote() {
+        when(idAllocator.allocate(CatalogEntity.PRODUCTS, 2)).thenReturn(Mono.just(List.of(11L, 12L)));
+        when(r2dbcRepository.insertAll(eq(5L), aryEq(new Long[]{11L, 12L}), aryEq(new String[]{"P1", "P2"}),
+                aryEq(new Integer[]{3, 0}))).thenReturn(Mono.just(2L));
+
+        StepVerifier.create(adapter.insertAll(5L, List.of(new Product(null, "P1", 3, 5L), new Product(null, "P2", 0, 5L))))
+                .expectNextMatches(p -> p.id() == 11L && p.nombre().equals("P1") && p.version() == 0L)
+                .expectNextMatches(p -> p.id() == 12L && p.branchId() == 5L && p.stock() == 0)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("no devuelve productos si la sucursal ya no existe al insertar el lote")
+    void loteSinSucursalComoVacio() {
+        when(idAllocator.allocate(CatalogEntity.PRODUCTS, 1)).thenReturn(Mono.just(List.of(11L)));
+        when(r2dbcRepository.insertAll(eq(5L), aryEq(new Long[]{11L}), aryEq(new String[]{"P1"}), aryEq(new Integer[]{3})))
+                .thenReturn(Mono.just(0L));
+
+        StepVerifier.create(adapter.insertAll(5L, List.of(new Product(null, "P1", 3, 5L))))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("si una importación ya ocupó los ids reservados, los descarta y reintenta con otros")
+    void reintentaConIdsNuevosTrasDuplicado() {
+        when(idAllocator.allocate(CatalogEntity.PRODUCTS, 1))
+                .thenReturn(Mono.just(List.of(11L)), Mono.just(List.of(2000L)));
+        when(r2dbcRepository.insertAll(eq(5L), aryEq(new Long[]{11L}), aryEq(new String[]{"P1"}), aryEq(new Integer[]{3})))
+                .thenReturn(Mono.error(new DataIntegrityViolationException("pk",
+                        new R2dbcDataIntegrityViolationException("pk", "23505"))));
+        when(r2dbcRepository.insertAll(eq(5L), aryEq(new Long[]{2000L}), aryEq(new String[]{"P1"}), aryEq(new Integer[]{3})))
+                .thenReturn(Mono.just(1L));
+
+        StepVerifier.create(adapter.insertAll(5L, List.of(new Product(null, "P1", 3, 5L))))
+                .expectNextMatches(p -> p.id() == 2000L)
+                .verifyComplete();
+
+        verify(idAllocator).discard(CatalogEntity.PRODUCTS);
+    }
+
+    @Test
+    @DisplayName("inserta producto verificando la sucursal en la misma sentencia")
+    void insertaSiSucursalExiste() {
+        when(r2dbcRepository.insertIfBranchExists("P", 5, 10L)).thenReturn(Mono.just(new ProductEntity(1L, "P", 5, 10L, 0L)));
+
+        StepVerifier.create(adapter.insertIfBranchExists(new Product(null, "P", 5, 10L)))
+                .expectNextMatches(p -> p.id() == 1L && p.branchId() == 10L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("trata la violación de clave foránea como sucursal inexistente")
+    void violacionFkComoVacio() {
+        when(r2dbcRepository.insertIfBranchExists("P", 5, 10L)).thenReturn(Mono.error(
+                new DataIntegrityViolationException("fk", new R2dbcDataIntegrityViolationException("fk", "23503"))));
+
+        StepVerifier.create(adapter.insertIfBranchExists(new Product(null, "P", 5, 10L)))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("elimina por id y sucursal retornando las filas afectadas")
+    void eliminaPorIdYSucursal() {
+        when(r2dbcRepository.deleteByIdAndBranchId(1L, 5L)).thenReturn(Mono.just(1L));
+        when(r2dbcRepository.deleteByIdAndBranchId(2L, 5L)).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(adapter.deleteByIdAndBranchId(1L, 5L))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(adapter.deleteByIdAndBranchId(2L, 5L))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("renombra producto conservando el stock persistido")
+    void renombraProducto() {
+        when(r2dbcRepository.updateNombre(1L, "Nuevo", null)).thenReturn(Mono.just(new ProductEntity(1L, "Nuevo", 42, 10L, 0L)));
+
+        StepVerifier.create(adapter.updateNombre(1L, "Nuevo", null))
+                .expectNextMatches(p -> "Nuevo".equals(p.nombre()) && p.stock() == 42)
+                .verifyComplete();
+    }
 }
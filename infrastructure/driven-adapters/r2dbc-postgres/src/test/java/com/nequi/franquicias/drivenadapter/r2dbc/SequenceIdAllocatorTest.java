@@ -0,0 +1,120 @@
+package com.nequi.franquicias.drivenadapter.r2dbc;
+
+import com.nequi.franquicias.model.CatalogEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SequenceIdAllocator")
+class SequenceIdAllocatorTest {
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private DatabaseClient.GenericExecuteSpec executeSpec;
+
+    @Mock
+    private RowsFetchSpec<Long> rowsSpec;
+
+    private SequenceIdAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new SequenceIdAllocator(databaseClient, 4);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenReserved(CatalogEntity entity, int count, long first) {
+        when(databaseClient.sql(SequenceIdAllocator.reserveSql(entity))).thenReturn(executeSpec);
+        when(executeSpec.bind(0, count)).thenReturn(executeSpec);
+        when(executeSpec.map(any(Function.class))).thenReturn(rowsSpec);
+        when(rowsSpec.all()).thenReturn(Flux.fromIterable(LongStream.range(first, first + count).boxed().toList()));
+    }
+
+    @Test
+    @DisplayName("reserva un bloque y entrega los siguientes ids desde memoria")
+    void reservaBloqueYEntregaDesdeMemoria() {
+        givenReserved(CatalogEntity.PRODUCTS, 4, 100L);
+
+        StepVerifier.create(allocator.allocate(CatalogEntity.PRODUCTS, 2))
+                .expectNext(List.of(100L, 101L))
+                .verifyComplete();
+        StepVerifier.create(allocator.allocate(CatalogEntity.PRODUCTS, 2))
+                .expectNext(List.of(102L, 103L))
+                .verifyComplete();
+
+        verify(databaseClient, times(1)).sql(anyString());
+    }
+
+    @Test
+    @DisplayName("tras descartar lo reservado vuelve a reservar de la secuencia")
+    void descartaLoReservado() {
+        givenReserved(CatalogEntity.PRODUCTS, 4, 100L);
+
+        StepVerifier.create(allocator.allocate(CatalogEntity.PRODUCTS, 1))
+                .expectNext(List.of(100L))
+                .verifyComplete();
+        allocator.discard(CatalogEntity.PRODUCTS);
+        StepVerifier.create(allocator.allocate(CatalogEntity.PRODUCTS, 1))
+                .expectNext(List.of(100L))
+                .verifyComplete();
+
+        verify(databaseClient, times(2)).sql(anyString());
+    }
+
+    @Test
+    @DisplayName("reserva tantos ids como se pidan si superan el bloque")
+    void reservaMasQueElBloque() {
+        givenReserved(CatalogEntity.BRANCHES, 6, 1L);
+
+        StepVerifier.create(allocator.allocate(CatalogEntity.BRANCHES, 6))
+                .expectNext(List.of(1L, 2L, 3L, 4L, 5L, 6L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("no consulta la secuencia si no se piden ids")
+    void noConsultaSinIds() {
+        StepVerifier.create(allocator.allocate(CatalogEntity.FRANCHISES, 0))
+                .expectNext(List.of())
+                .verifyComplete();
+
+        verify(databaseClient, never()).sql(anyString());
+    }
+
+    @Test
+    @DisplayName("usa la secuencia de la tabla de cada entidad")
+    void usaSecuenciaDeCadaTabla() {
+        assertEquals("SELECT nextval('products_id_seq') AS id FROM generate_series(1, $1)",
+                SequenceIdAllocator.reserveSql(CatalogEntity.PRODUCTS));
+        assertEquals("franchises_id_seq", SequenceIdAllocator.sequenceOf(CatalogEntity.FRANCHISES));
+    }
+
+    @Test
+    @DisplayName("rechaza un tamaño de bloque no positivo")
+    void rechazaBloqueNoPositivo() {
+        assertThrows(IllegalArgumentException.class, () -> new SequenceIdAllocator(databaseClient, 0));
+    }
+}
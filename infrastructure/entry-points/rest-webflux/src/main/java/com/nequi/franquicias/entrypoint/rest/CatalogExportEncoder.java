@@ -0,0 +1,79 @@
+package com.nequi.franquicias.entrypoint.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nequi.franquicias.entrypoint.rest.dto.FranchiseCatalogEntryResponse;
+import com.nequi.franquicias.model.FranchiseCatalogEntry;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Codifica el catálogo exportado directamente a {@link DataBuffer}s (CSV o NDJSON).
+ * Agrupa {@link #ROWS_PER_BUFFER} líneas por buffer para no escribir al socket fila a fila;
+ * la agrupación solo pide al cursor esas líneas por cada buffer que el socket acepta.
+ * El encabezado CSV viaja con el primer bloque, de modo que un error previo a la primera
+ * línea (p. ej. franquicia inexistente) todavía puede responderse como error HTTP.
+ */
+final class CatalogExportEncoder {
+
+    static final int ROWS_PER_BUFFER = 256;
+    static final String CSV_HEADER = "franquicia_id,franquicia,sucursal_id,sucursal,producto_id,producto,stock\n";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private CatalogExportEncoder() {
+    }
+
+    static Flux<DataBuffer> csv(Flux<FranchiseCatalogEntry> entries) {
+        return encode(entries, CSV_HEADER, CatalogExportEncoder::csvLine);
+    }
+
+    static Flux<DataBuffer> ndjson(Flux<FranchiseCatalogEntry> entries) {
+        return encode(entries, "", CatalogExportEncoder::jsonLine);
+    }
+
+    private static Flux<DataBuffer> encode(Flux<FranchiseCatalogEntry> entries, String header,
+                                           Function<FranchiseCatalogEntry, String> line) {
+        return entries.buffer(ROWS_PER_BUFFER)
+                .index()
+                .map(t -> toDataBuffer(t.getT1() == 0 ? header : "", t.getT2(), line));
+    }
+
+    private static DataBuffer toDataBuffer(String prefix, List<FranchiseCatalogEntry> chunk,
+                                           Function<FranchiseCatalogEntry, String> line) {
+        StringBuilder sb = new StringBuilder(prefix);
+        chunk.forEach(e -> sb.append(line.apply(e)));
+        return DefaultDataBufferFactory.sharedInstance.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String csvLine(FranchiseCatalogEntry e) {
+        return String.join(",",
+                value(e.franchiseId()), quote(e.franchiseName()),
+                value(e.branchId()), quote(e.branchName()),
+                value(e.productId()), quote(e.productName()),
+                value(e.stock())) + "\n";
+    }
+
+    static String jsonLine(FranchiseCatalogEntry e) {
+        try {
+            return MAPPER.writeValueAsString(new FranchiseCatalogEntryResponse(e.franchiseId(), e.franchiseName(),
+                    e.branchId(), e.branchName(), e.productId(), e.productName(), e.stock())) + "\n";
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String value(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String quote(String value) {
+        return value == null ? "" : '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,43 @@
+package com.nequi.franquicias.entrypoint.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica el id de continuación de un listado como cursor opaco (Base64 URL-safe),
+ * para que los clientes no dependan de su formato interno.
+ */
+final class CursorCodec {
+
+    private static final String PREFIX = "id:";
+
+    private CursorCodec() {
+    }
+
+    static String encode(Long afterId) {
+        if (afterId == null) {
+            return null;
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + afterId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            long afterId = Long.parseLong(raw.substring(PREFIX.length()));
+            if (afterId < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return afterId;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
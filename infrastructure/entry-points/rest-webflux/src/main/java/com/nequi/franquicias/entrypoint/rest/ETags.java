@@ -0,0 +1,42 @@
+package com.nequi.franquicias.entrypoint.rest;
+
+/**
+ * Traduce la versión de una fila a ETag y de vuelta desde la cabecera If-Match.
+ * El ETag es la versión entre comillas; se acepta también su forma débil (W/"n").
+ */
+final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    /**
+     * Sin cabecera o con {@code *} no hay condición (nulo). Solo se admite un ETag.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith(WEAK_PREFIX)) {
+            tag = tag.substring(WEAK_PREFIX.length());
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("Cabecera If-Match inválida");
+        }
+        try {
+            long version = Long.parseLong(tag.substring(1, tag.length() - 1));
+            if (version < 0) {
+                throw new IllegalArgumentException("Cabecera If-Match inválida");
+            }
+            return version;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cabecera If-Match inválida", e);
+        }
+    }
+}
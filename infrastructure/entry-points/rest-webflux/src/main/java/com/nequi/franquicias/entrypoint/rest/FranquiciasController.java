@@ -1,6 +1,10 @@
 package com.nequi.franquicias.entrypoint.rest;
 
 import com.nequi.franquicias.entrypoint.rest.dto.*;
+import com.nequi.franquicias.model.CatalogEntity;
+import com.nequi.franquicias.model.CursorPage;
+import com.nequi.franquicias.model.FranchiseCatalogEntry;
+import com.nequi.franquicias.model.StockUpdate;
 import com.nequi.franquicias.usecase.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,16 +13,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Adaptador REST para la API de franquicias.
@@ -32,34 +47,70 @@ public class FranquiciasController {
 
     private static final Logger log = LoggerFactory.getLogger(FranquiciasController.class);
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE + ";charset=UTF-8");
+
     private final AddFranchiseUseCase addFranchiseUseCase;
     private final UpdateFranchiseNameUseCase updateFranchiseNameUseCase;
     private final AddBranchUseCase addBranchUseCase;
     private final UpdateBranchNameUseCase updateBranchNameUseCase;
     private final AddProductUseCase addProductUseCase;
+    private final AddProductsBatchUseCase addProductsBatchUseCase;
     private final UpdateProductNameUseCase updateProductNameUseCase;
     private final DeleteProductUseCase deleteProductUseCase;
     private final UpdateProductStockUseCase updateProductStockUseCase;
+    private final AdjustProductStockUseCase adjustProductStockUseCase;
+    private final ConfigureProductStockStripesUseCase configureStockStripesUseCase;
+    private final BulkUpdateProductStockUseCase bulkUpdateProductStockUseCase;
     private final GetMaxStockProductsByFranchiseUseCase getMaxStockProductsUseCase;
+    private final GetFranchiseStockStatisticsUseCase getStockStatisticsUseCase;
+    private final GetFranchiseTreeUseCase getFranchiseTreeUseCase;
+    private final ListFranchisesUseCase listFranchisesUseCase;
+    private final ListBranchesByFranchiseUseCase listBranchesUseCase;
+    private final ListProductsByBranchUseCase listProductsUseCase;
+    private final ImportCatalogUseCase importCatalogUseCase;
+    private final ExportFranchiseCatalogUseCase exportCatalogUseCase;
 
     public FranquiciasController(AddFranchiseUseCase addFranchiseUseCase,
                                   UpdateFranchiseNameUseCase updateFranchiseNameUseCase,
                                   AddBranchUseCase addBranchUseCase,
                                   UpdateBranchNameUseCase updateBranchNameUseCase,
                                   AddProductUseCase addProductUseCase,
+                                  AddProductsBatchUseCase addProductsBatchUseCase,
                                   UpdateProductNameUseCase updateProductNameUseCase,
                                   DeleteProductUseCase deleteProductUseCase,
                                   UpdateProductStockUseCase updateProductStockUseCase,
-                                  GetMaxStockProductsByFranchiseUseCase getMaxStockProductsUseCase) {
+                                  AdjustProductStockUseCase adjustProductStockUseCase,
+                                  ConfigureProductStockStripesUseCase configureStockStripesUseCase,
+                                  BulkUpdateProductStockUseCase bulkUpdateProductStockUseCase,
+                                  GetMaxStockProductsByFranchiseUseCase getMaxStockProductsUseCase,
+                                  GetFranchiseStockStatisticsUseCase getStockStatisticsUseCase,
+                                  GetFranchiseTreeUseCase getFranchiseTreeUseCase,
+                                  ListFranchisesUseCase listFranchisesUseCase,
+                                  ListBranchesByFranchiseUseCase listBranchesUseCase,
+                                  ListProductsByBranchUseCase listProductsUseCase,
+                                  ImportCatalogUseCase importCatalogUseCase,
+                                  ExportFranchiseCatalogUseCase exportCatalogUseCase) {
         this.addFranchiseUseCase = addFranchiseUseCase;
         this.updateFranchiseNameUseCase = updateFranchiseNameUseCase;
         this.addBranchUseCase = addBranchUseCase;
         this.updateBranchNameUseCase = updateBranchNameUseCase;
         this.addProductUseCase = addProductUseCase;
+        this.addProductsBatchUseCase = addProductsBatchUseCase;
         this.updateProductNameUseCase = updateProductNameUseCase;
         this.deleteProductUseCase = deleteProductUseCase;
         this.updateProductStockUseCase = updateProductStockUseCase;
+        this.adjustProductStockUseCase = adjustProductStockUseCase;
+        this.configureStockStripesUseCase = configureStockStripesUseCase;
+        this.bulkUpdateProductStockUseCase = bulkUpdateProductStockUseCase;
         this.getMaxStockProductsUseCase = getMaxStockProductsUseCase;
+        this.getStockStatisticsUseCase = getStockStatisticsUseCase;
+        this.getFranchiseTreeUseCase = getFranchiseTreeUseCase;
+        this.listFranchisesUseCase = listFranchisesUseCase;
+        this.listBranchesUseCase = listBranchesUseCase;
+        this.listProductsUseCase = listProductsUseCase;
+        this.importCatalogUseCase = importCatalogUseCase;
+        this.exportCatalogUseCase = exportCatalogUseCase;
     }
 
     @Operation(summary = "Crear franquicia", description = "Registra una nueva franquicia")
@@ -72,22 +123,26 @@ public class FranquiciasController {
     public Mono<FranchiseResponse> addFranchise(@Valid @RequestBody FranchiseRequest request) {
         log.debug("POST /franquicias - nombre: {}", request.nombre());
         return addFranchiseUseCase.execute(request.nombre())
-                .map(f -> new FranchiseResponse(f.id(), f.nombre()));
+                .map(f -> new FranchiseResponse(f.id(), f.nombre(), f.version()));
     }
 
     @Operation(summary = "Actualizar nombre de franquicia")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Nombre actualizado", content = @Content(schema = @Schema(implementation = FranchiseResponse.class))),
             @ApiResponse(responseCode = "400", description = "Error de validación"),
-            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")
+            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada"),
+            @ApiResponse(responseCode = "412", description = "If-Match no coincide con la versión vigente")
     })
     @PatchMapping("/franquicias/{franchiseId}/nombre")
-    public Mono<FranchiseResponse> updateFranchiseName(
+    public Mono<ResponseEntity<FranchiseResponse>> updateFranchiseName(
             @PathVariable("franchiseId") @Positive(message = "El ID de franquicia debe ser positivo") Long franchiseId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody FranchiseNameUpdateRequest request) {
-        log.debug("PATCH /franquicias/{}/nombre - nombre: {}", franchiseId, request.nombre());
-        return updateFranchiseNameUseCase.execute(franchiseId, request.nombre())
-                .map(f -> new FranchiseResponse(f.id(), f.nombre()));
+        log.debug("PATCH /franquicias/{}/nombre - nombre: {}, If-Match: {}", franchiseId, request.nombre(), ifMatch);
+        return Mono.fromCallable(() -> Optional.ofNullable(ETags.parseIfMatch(ifMatch)))
+                .flatMap(version -> updateFranchiseNameUseCase.execute(franchiseId, request.nombre(), version.orElse(null)))
+                .map(f -> ResponseEntity.ok().eTag(ETags.of(f.version()))
+                        .body(new FranchiseResponse(f.id(), f.nombre(), f.version())));
     }
 
     @Operation(summary = "Crear sucursal", description = "Registra una nueva sucursal en una franquicia")
@@ -101,22 +156,26 @@ public class FranquiciasController {
     public Mono<BranchResponse> addBranch(@Valid @RequestBody BranchRequest request) {
         log.debug("POST /sucursales - franchiseId: {}, nombre: {}", request.franchiseId(), request.nombre());
         return addBranchUseCase.execute(request.franchiseId(), request.nombre())
-                .map(b -> new BranchResponse(b.id(), b.nombre(), b.franchiseId()));
+                .map(b -> new BranchResponse(b.id(), b.nombre(), b.franchiseId(), b.version()));
     }
 
     @Operation(summary = "Actualizar nombre de sucursal")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Nombre actualizado", content = @Content(schema = @Schema(implementation = BranchResponse.class))),
             @ApiResponse(responseCode = "400", description = "Error de validación"),
-            @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")
+            @ApiResponse(responseCode = "404", description = "Sucursal no encontrada"),
+            @ApiResponse(responseCode = "412", description = "If-Match no coincide con la versión vigente")
     })
     @PatchMapping("/sucursales/{branchId}/nombre")
-    public Mono<BranchResponse> updateBranchName(
+    public Mono<ResponseEntity<BranchResponse>> updateBranchName(
             @PathVariable("branchId") @Positive(message = "El ID de sucursal debe ser positivo") Long branchId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody BranchNameUpdateRequest request) {
-        log.debug("PATCH /sucursales/{}/nombre - nombre: {}", branchId, request.nombre());
-        return updateBranchNameUseCase.execute(branchId, request.nombre())
-                .map(b -> new BranchResponse(b.id(), b.nombre(), b.franchiseId()));
+        log.debug("PATCH /sucursales/{}/nombre - nombre: {}, If-Match: {}", branchId, request.nombre(), ifMatch);
+        return Mono.fromCallable(() -> Optional.ofNullable(ETags.parseIfMatch(ifMatch)))
+                .flatMap(version -> updateBranchNameUseCase.execute(branchId, request.nombre(), version.orElse(null)))
+                .map(b -> ResponseEntity.ok().eTag(ETags.of(b.version()))
+                        .body(new BranchResponse(b.id(), b.nombre(), b.franchiseId(), b.version())));
     }
 
     @Operation(summary = "Crear producto", description = "Registra un nuevo producto en una sucursal")
@@ -130,22 +189,47 @@ public class FranquiciasController {
     public Mono<ProductResponse> addProduct(@Valid @RequestBody ProductRequest request) {
         log.debug("POST /productos - branchId: {}, nombre: {}, stock: {}", request.branchId(), request.nombre(), request.stock());
         return addProductUseCase.execute(request.branchId(), request.nombre(), request.stock())
-                .map(p -> new ProductResponse(p.id(), p.nombre(), p.stock(), p.branchId()));
+                .map(p -> new ProductResponse(p.id(), p.nombre(), p.stock(), p.branchId(), p.version()));
+    }
+
+    @Operation(summary = "Crear productos en lote",
+            description = "Registra muchos productos en una sucursal con inserciones multi-fila; emite cada producto creado con su id, en el orden recibido")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Productos creados", content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductResponse.class)),
+                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ProductResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Error de validación o sucursal no encontrada")
+    })
+    @PostMapping(value = "/sucursales/{branchId}/productos:batch",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    public Flux<ProductResponse> addProductsBatch(
+            @PathVariable("branchId") @Positive(message = "El ID de sucursal debe ser positivo") Long branchId,
+            @Valid @RequestBody BatchProductRequest request) {
+        log.debug("POST /sucursales/{}/productos:batch - cantidad: {}", branchId, request.productos().size());
+        return addProductsBatchUseCase.execute(branchId, request.productos().stream()
+                        .map(i -> new AddProductsBatchUseCase.NewProduct(i.nombre(), i.stock()))
+                        .toList())
+                .map(p -> new ProductResponse(p.id(), p.nombre(), p.stock(), p.branchId(), p.version()));
     }
 
     @Operation(summary = "Actualizar nombre de producto")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Nombre actualizado", content = @Content(schema = @Schema(implementation = ProductResponse.class))),
             @ApiResponse(responseCode = "400", description = "Error de validación"),
-            @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+            @ApiResponse(responseCode = "412", description = "If-Match no coincide con la versión vigente")
     })
     @PatchMapping("/productos/{productId}/nombre")
-    public Mono<ProductResponse> updateProductName(
+    public Mono<ResponseEntity<ProductResponse>> updateProductName(
             @PathVariable("productId") @Positive(message = "El ID de producto debe ser positivo") Long productId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ProductNameUpdateRequest request) {
-        log.debug("PATCH /productos/{}/nombre - nombre: {}", productId, request.nombre());
-        return updateProductNameUseCase.execute(productId, request.nombre())
-                .map(p -> new ProductResponse(p.id(), p.nombre(), p.stock(), p.branchId()));
+        log.debug("PATCH /productos/{}/nombre - nombre: {}, If-Match: {}", productId, request.nombre(), ifMatch);
+        return Mono.fromCallable(() -> Optional.ofNullable(ETags.parseIfMatch(ifMatch)))
+                .flatMap(version -> updateProductNameUseCase.execute(productId, request.nombre(), version.orElse(null)))
+                .map(p -> ResponseEntity.ok().eTag(ETags.of(p.version()))
+                        .body(new ProductResponse(p.id(), p.nombre(), p.stock(), p.branchId(), p.version())));
     }
 
     @Operation(summary = "Eliminar producto", description = "Elimina un producto de una sucursal")
@@ -167,18 +251,109 @@ public class FranquiciasController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Stock actualizado", content = @Content(schema = @Schema(implementation = ProductResponse.class))),
             @ApiResponse(responseCode = "400", description = "Error de validación"),
-            @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+            @ApiResponse(responseCode = "412", description = "If-Match no coincide con la versión vigente")
     })
     @PatchMapping("/productos/{productId}/stock")
-    public Mono<ProductResponse> updateProductStock(
+    public Mono<ResponseEntity<ProductResponse>> updateProductStock(
             @PathVariable("productId") @Positive(message = "El ID de producto debe ser positivo") Long productId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody StockUpdateRequest request) {
-        log.debug("PATCH /productos/{}/stock - nuevoStock: {}", productId, request.stock());
-        return updateProductStockUseCase.execute(productId, request.stock())
-                .map(p -> new ProductResponse(p.id(), p.nombre(), p.stock(), p.branchId()));
+        log.debug("PATCH /productos/{}/stock - nuevoStock: {}, If-Match: {}", productId, request.stock(), ifMatch);
+        return Mono.fromCallable(() -> Optional.ofNullable(ETags.parseIfMatch(ifMatch)))
+                .flatMap(version -> updateProductStockUseCase.execute(productId, request.stock(), version.orElse(null)))
+                .map(p -> ResponseEntity.ok().eTag(ETags.of(p.version()))
+                        .body(new ProductResponse(p.id(), p.nombre(), p.stock(), p.branchId(), p.version())));
+    }
+
+    @Operation(summary = "Ajustar stock de producto",
+            description = "Suma un delta (positivo o negativo) al stock de forma atómica; falla con 409 si el stock quedaría negativo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock ajustado", content = @Content(schema = @Schema(implementation = ProductResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Error de validación"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Stock insuficiente para el ajuste")
+    })
+    @PostMapping("/productos/{productId}/stock/ajuste")
+    public Mono<ProductResponse> adjustProductStock(
+            @PathVariable("productId") @Positive(message = "El ID de producto debe ser positivo") Long productId,
+            @Valid @RequestBody StockAdjustmentRequest request) {
+        log.debug("POST /productos/{}/stock/ajuste - delta: {}", productId, request.delta());
+        return adjustProductStockUseCase.execute(productId, request.delta())
+                .map(p -> new ProductResponse(p.id(), p.nombre(), p.stock(), p.branchId(), p.version()));
+    }
+
+    @Operation(summary = "Repartir stock en franjas",
+            description = "Para productos muy concurridos: el stock se reparte en N franjas y cada ajuste toca una al azar; "
+                    + "0 vuelve a una sola fila. El total y el contrato de los demás endpoints no cambian")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Franjas configuradas", content = @Content(schema = @Schema(implementation = ProductResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Error de validación"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Reparto en franjas desactivado")
+    })
+    @PutMapping("/productos/{productId}/stock/franjas")
+    public Mono<ProductResponse> configureProductStockStripes(
+            @PathVariable("productId") @Positive(message = "El ID de producto debe ser positivo") Long productId,
+            @Valid @RequestBody StockStripesRequest request) {
+        log.debug("PUT /productos/{}/stock/franjas - franjas: {}", productId, request.franjas());
+        return configureStockStripesUseCase.execute(productId, request.franjas())
+                .map(p -> new ProductResponse(p.id(), p.nombre(), p.stock(), p.branchId(), p.version()));
+    }
+
+    @Operation(summary = "Actualizar stock en lote",
+            description = "Fija el stock de muchos productos; se aplica en bloques por conjunto y se emite un resultado por producto (si un id se repite gana el último valor)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por producto", content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockUpdateResultResponse.class)),
+                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = StockUpdateResultResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Error de validación")
+    })
+    @PatchMapping(value = "/productos/stock", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<StockUpdateResultResponse> bulkUpdateProductStock(@Valid @RequestBody BulkStockUpdateRequest request) {
+        log.debug("PATCH /productos/stock - cantidad: {}", request.items().size());
+        return bulkUpdateProductStockUseCase.execute(request.items().stream()
+                        .map(i -> new StockUpdate(i.productId(), i.stock()))
+                        .toList())
+                .map(r -> new StockUpdateResultResponse(r.productId(), r.stock(), r.updated() ? "ACTUALIZADO" : "NO_ENCONTRADO"));
+    }
+
+    @Operation(summary = "Importar catálogo (CSV)",
+            description = "Carga masiva en streaming con COPY; entidad: franquicias, sucursales o productos. "
+                    + "Columnas: id,nombre | id,franquicia_id,nombre | id,sucursal_id,nombre,stock (con encabezado)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Filas importadas", content = @Content(schema = @Schema(implementation = CatalogImportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Entidad desconocida o contenido inválido; no se importa ninguna fila")
+    })
+    @PostMapping(value = "/importaciones/{entidad}", consumes = TEXT_CSV_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<CatalogImportResponse> importCatalogCsv(@PathVariable("entidad") String entidad,
+                                                        @RequestBody Flux<DataBuffer> body) {
+        log.debug("POST /importaciones/{} - CSV", entidad);
+        return Mono.fromCallable(() -> toCatalogEntity(entidad))
+                .flatMap(entity -> importCatalogUseCase.importCsv(entity, body.map(FranquiciasController::toByteBuffer)))
+                .map(count -> new CatalogImportResponse(entidad, count));
+    }
+
+    @Operation(summary = "Importar catálogo (NDJSON)",
+            description = "Carga masiva en streaming; cada línea es un objeto con nombre, id opcional (si falta se asigna uno nuevo) y, según la entidad, franquiciaId, sucursalId y stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Filas importadas", content = @Content(schema = @Schema(implementation = CatalogImportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Entidad desconocida o contenido inválido; no se importa ninguna fila")
+    })
+    @PostMapping(value = "/importaciones/{entidad}", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<CatalogImportResponse> importCatalogNdjson(@PathVariable("entidad") String entidad,
+                                                           @RequestBody Flux<CatalogImportRowRequest> rows) {
+        log.debug("POST /importaciones/{} - NDJSON", entidad);
+        return Mono.fromCallable(() -> toCatalogEntity(entidad))
+                .flatMap(entity -> importCatalogUseCase.importRows(entity, rows.map(r -> new ImportCatalogUseCase.ImportRow(
+                        r.id(), entity == CatalogEntity.BRANCHES ? r.franquiciaId() : r.sucursalId(), r.nombre(), r.stock()))))
+                .map(count -> new CatalogImportResponse(entidad, count));
     }
 
-    @Operation(summary = "Productos con mayor stock", description = "Obtiene el producto con mayor stock por cada sucursal de una franquicia")
+    @Operation(summary = "Productos con mayor stock",
+            description = "Obtiene los k productos con mayor stock por cada sucursal de una franquicia (por defecto k=1); los empates se ordenan por id de producto")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de productos", content = @Content(schema = @Schema(implementation = MaxStockProductsResponse.class))),
             @ApiResponse(responseCode = "400", description = "Error de validación"),
@@ -186,16 +361,179 @@ public class FranquiciasController {
     })
     @GetMapping("/franquicias/{franchiseId}/productos-mayor-stock")
     public Mono<MaxStockProductsResponse> getMaxStockProductsByFranchise(
-            @PathVariable("franchiseId") @Positive(message = "El ID de franquicia debe ser positivo") Long franchiseId) {
-        log.debug("GET /franquicias/{}/productos-mayor-stock", franchiseId);
-        return getMaxStockProductsUseCase.execute(franchiseId)
+            @PathVariable("franchiseId") @Positive(message = "El ID de franquicia debe ser positivo") Long franchiseId,
+            @RequestParam(name = "k", defaultValue = "1")
+            @Min(value = 1, message = "k debe ser al menos 1")
+            @Max(value = GetMaxStockProductsByFranchiseUseCase.MAX_PRODUCTS_PER_BRANCH, message = "k no puede superar 100") Integer k) {
+        log.debug("GET /franquicias/{}/productos-mayor-stock - k: {}", franchiseId, k);
+        return getMaxStockProductsUseCase.execute(franchiseId, k)
                 .map(list -> {
                     List<ProductWithBranchResponse> productos = list.stream()
-                            .map(p -> new ProductWithBranchResponse(
-                                    p.productId(), p.productName(), p.stock(),
-                                    p.branchId(), p.branchName()))
+                            .map(this::toResponse)
                             .toList();
                     return new MaxStockProductsResponse(franchiseId, productos);
                 });
     }
+
+    @Operation(summary = "Productos con mayor stock (streaming)",
+            description = "Igual que productos-mayor-stock, pero emite cada producto en cuanto se resuelve (NDJSON o Server-Sent Events)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de productos", content = {
+                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ProductWithBranchResponse.class)),
+                    @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = ProductWithBranchResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Error de validación")
+    })
+    @GetMapping(value = "/franquicias/{franchiseId}/productos-mayor-stock",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<ProductWithBranchResponse> streamMaxStockProductsByFranchise(
+            @PathVariable("franchiseId") @Positive(message = "El ID de franquicia debe ser positivo") Long franchiseId,
+            @RequestParam(name = "k", defaultValue = "1")
+            @Min(value = 1, message = "k debe ser al menos 1")
+            @Max(value = GetMaxStockProductsByFranchiseUseCase.MAX_PRODUCTS_PER_BRANCH, message = "k no puede superar 100") Integer k) {
+        log.debug("GET /franquicias/{}/productos-mayor-stock (stream) - k: {}", franchiseId, k);
+        return getMaxStockProductsUseCase.stream(franchiseId, k)
+                .map(this::toResponse);
+    }
+
+    @Operation(summary = "Estadísticas de stock",
+            description = "Cantidad de productos, stock total, mínimo, máximo, promedio, p50 y p95 por sucursal y para la franquicia completa (fila con branchId nulo, al final)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas de stock", content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = StockStatisticsResponse.class)),
+                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = StockStatisticsResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Error de validación"),
+            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")
+    })
+    @GetMapping(value = "/franquicias/{franchiseId}/estadisticas-stock",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<StockStatisticsResponse> getStockStatisticsByFranchise(
+            @PathVariable("franchiseId") @Positive(message = "El ID de franquicia debe ser positivo") Long franchiseId) {
+        log.debug("GET /franquicias/{}/estadisticas-stock", franchiseId);
+        return getStockStatisticsUseCase.execute(franchiseId)
+                .map(s -> new StockStatisticsResponse(s.branchId(), s.branchName(), s.productCount(), s.totalStock(),
+                        s.minStock(), s.maxStock(), s.avgStock(), s.p50Stock(), s.p95Stock()));
+    }
+
+    @Operation(summary = "Árbol de franquicia", description = "Obtiene la franquicia con todas sus sucursales y los productos de cada una")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Árbol de la franquicia", content = @Content(schema = @Schema(implementation = FranchiseTreeResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Error de validación"),
+            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")
+    })
+    @GetMapping("/franquicias/{franchiseId}/arbol")
+    public Mono<FranchiseTreeResponse> getFranchiseTree(
+            @PathVariable("franchiseId") @Positive(message = "El ID de franquicia debe ser positivo") Long franchiseId) {
+        log.debug("GET /franquicias/{}/arbol", franchiseId);
+        return getFranchiseTreeUseCase.execute(franchiseId)
+                .map(f -> new FranchiseTreeResponse(f.id(), f.nombre(), f.sucursales().stream()
+                        .map(b -> new BranchTreeResponse(b.id(), b.nombre(), b.productos().stream()
+                                .map(p -> new ProductResponse(p.id(), p.nombre(), p.stock(), p.branchId(), p.version()))
+                                .toList()))
+                        .toList()));
+    }
+
+    @Operation(summary = "Exportar catálogo de franquicia",
+            description = "Emite en streaming todas las sucursales y productos de la franquicia desde un único cursor, "
+                    + "en CSV (por defecto) o NDJSON; el ritmo de lectura lo marca el cliente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catálogo de la franquicia"),
+            @ApiResponse(responseCode = "400", description = "Formato o ID inválido"),
+            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")
+    })
+    @GetMapping(value = "/franquicias/{franchiseId}/export", produces = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Flux<DataBuffer>> exportFranchiseCatalog(
+            @PathVariable("franchiseId") @Positive(message = "El ID de franquicia debe ser positivo") Long franchiseId,
+            @RequestParam(name = "format", defaultValue = "csv")
+            @Pattern(regexp = "csv|ndjson", message = "format debe ser csv o ndjson") String format) {
+        log.debug("GET /franquicias/{}/export - format: {}", franchiseId, format);
+        Flux<FranchiseCatalogEntry> entries = exportCatalogUseCase.execute(franchiseId);
+        return "ndjson".equals(format)
+                ? ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(CatalogExportEncoder.ndjson(entries))
+                : ResponseEntity.ok().contentType(TEXT_CSV).body(CatalogExportEncoder.csv(entries));
+    }
+
+    @Operation(summary = "Listar franquicias", description = "Listado paginado por cursor; usar el campo next de la respuesta como cursor de la página siguiente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de franquicias"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido")
+    })
+    @GetMapping("/franquicias")
+    public Mono<PageResponse<FranchiseResponse>> listFranchises(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "" + CursorPage.DEFAULT_LIMIT)
+            @Min(value = 1, message = "limit debe ser al menos 1")
+            @Max(value = CursorPage.MAX_LIMIT, message = "limit no puede superar 500") Integer limit) {
+        log.debug("GET /franquicias - cursor: {}, limit: {}", cursor, limit);
+        return Mono.fromCallable(() -> Optional.ofNullable(CursorCodec.decode(cursor)))
+                .flatMap(afterId -> listFranchisesUseCase.execute(afterId.orElse(null), limit))
+                .map(page -> toPageResponse(page, f -> new FranchiseResponse(f.id(), f.nombre(), f.version())));
+    }
+
+    @Operation(summary = "Listar sucursales de una franquicia", description = "Listado paginado por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de sucursales"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido"),
+            @ApiResponse(responseCode = "404", description = "Franquicia no encontrada")
+    })
+    @GetMapping("/franquicias/{franchiseId}/sucursales")
+    public Mono<PageResponse<BranchResponse>> listBranchesByFranchise(
+            @PathVariable("franchiseId") @Positive(message = "El ID de franquicia debe ser positivo") Long franchiseId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "" + CursorPage.DEFAULT_LIMIT)
+            @Min(value = 1, message = "limit debe ser al menos 1")
+            @Max(value = CursorPage.MAX_LIMIT, message = "limit no puede superar 500") Integer limit) {
+        log.debug("GET /franquicias/{}/sucursales - cursor: {}, limit: {}", franchiseId, cursor, limit);
+        return Mono.fromCallable(() -> Optional.ofNullable(CursorCodec.decode(cursor)))
+                .flatMap(afterId -> listBranchesUseCase.execute(franchiseId, afterId.orElse(null), limit))
+                .map(page -> toPageResponse(page, b -> new BranchResponse(b.id(), b.nombre(), b.franchiseId(), b.version())));
+    }
+
+    @Operation(summary = "Listar productos de una sucursal", description = "Listado paginado por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de productos"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido"),
+            @ApiResponse(responseCode = "404", description = "Sucursal no encontrada")
+    })
+    @GetMapping("/sucursales/{branchId}/productos")
+    public Mono<PageResponse<ProductResponse>> listProductsByBranch(
+            @PathVariable("branchId") @Positive(message = "El ID de sucursal debe ser positivo") Long branchId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "" + CursorPage.DEFAULT_LIMIT)
+            @Min(value = 1, message = "limit debe ser al menos 1")
+            @Max(value = CursorPage.MAX_LIMIT, message = "limit no puede superar 500") Integer limit) {
+        log.debug("GET /sucursales/{}/productos - cursor: {}, limit: {}", branchId, cursor, limit);
+        return Mono.fromCallable(() -> Optional.ofNullable(CursorCodec.decode(cursor)))
+                .flatMap(afterId -> listProductsUseCase.execute(branchId, afterId.orElse(null), limit))
+                .map(page -> toPageResponse(page, p -> new ProductResponse(p.id(), p.nombre(), p.stock(), p.branchId(), p.version())));
+    }
+
+    private static CatalogEntity toCatalogEntity(String entidad) {
+        return switch (entidad) {
+            case "franquicias" -> CatalogEntity.FRANCHISES;
+            case "sucursales" -> CatalogEntity.BRANCHES;
+            case "productos" -> CatalogEntity.PRODUCTS;
+            default -> throw new IllegalArgumentException("Entidad de importación desconocida: " + entidad);
+        };
+    }
+
+    /**
+     * Copia el contenido y libera el buffer de inmediato: así la memoria retenida no crece con el archivo.
+     */
+    private static ByteBuffer toByteBuffer(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return ByteBuffer.wrap(bytes);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private <T, R> PageResponse<R> toPageResponse(CursorPage<T> page, Function<T, R> mapper) {
+        return new PageResponse<>(page.items().stream().map(mapper).toList(), CursorCodec.encode(page.nextAfterId()));
+    }
+
+    private ProductWithBranchResponse toResponse(GetMaxStockProductsByFranchiseUseCase.ProductWithBranch p) {
+        return new ProductWithBranchResponse(p.productId(), p.productName(), p.stock(), p.branchId(), p.branchName());
+    }
 }
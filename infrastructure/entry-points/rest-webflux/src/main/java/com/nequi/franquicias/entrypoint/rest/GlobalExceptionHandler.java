@@ -27,9 +27,14 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<ProblemDetail> handleResponseStatus(ResponseStatusException ex) {
         HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
-        log.warn("Recurso no encontrado: {} - {}", status, ex.getReason());
+        log.warn("Solicitud rechazada: {} - {}", status, ex.getReason());
         var problem = ProblemDetail.forStatusAndDetail(status, ex.getReason() != null ? ex.getReason() : "Recurso no encontrado");
-        problem.setTitle(status == HttpStatus.NOT_FOUND ? "No encontrado" : "Error en la solicitud");
+        problem.setTitle(switch (status) {
+            case NOT_FOUND -> "No encontrado";
+            case CONFLICT -> "Conflicto";
+            case PRECONDITION_FAILED -> "Precondición fallida";
+            default -> "Error en la solicitud";
+        });
         return ResponseEntity.status(status).body(problem);
     }
 
@@ -0,0 +1,13 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchProductRequest(
+        @NotEmpty(message = "Debe enviar al menos un producto")
+        @Size(max = 10_000, message = "El lote no puede superar 10000 productos")
+        List<@Valid @NotNull BatchProductItemRequest> productos) {}
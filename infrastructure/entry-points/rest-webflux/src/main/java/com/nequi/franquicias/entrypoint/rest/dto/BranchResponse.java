@@ -6,4 +6,5 @@ import io.swagger.v3.oas.annotations.media.Schema;
 public record BranchResponse(
         @Schema(description = "ID de la sucursal") Long id,
         @Schema(description = "Nombre de la sucursal") String nombre,
-        @Schema(description = "ID de la franquicia padre") Long franchiseId) {}
+        @Schema(description = "ID de la franquicia padre") Long franchiseId,
+        @Schema(description = "Versión de la fila; se envía en If-Match para actualizaciones condicionales") Long version) {}
@@ -0,0 +1,11 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Sucursal con sus productos")
+public record BranchTreeResponse(
+        @Schema(description = "ID de la sucursal") Long id,
+        @Schema(description = "Nombre de la sucursal") String nombre,
+        @Schema(description = "Productos de la sucursal") List<ProductResponse> productos) {}
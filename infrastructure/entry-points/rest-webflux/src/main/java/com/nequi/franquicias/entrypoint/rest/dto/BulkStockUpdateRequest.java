@@ -0,0 +1,13 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkStockUpdateRequest(
+        @NotEmpty(message = "Debe enviar al menos una actualización")
+        @Size(max = 50_000, message = "El lote no puede superar 50000 actualizaciones")
+        List<@Valid @NotNull StockUpdateItemRequest> items) {}
@@ -0,0 +1,3 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+public record CatalogImportResponse(String entidad, Long filas) {}
@@ -0,0 +1,7 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+/**
+ * Fila NDJSON de importación; sin {@code id} se asigna uno reservado. Según la entidad aplica {@code franquiciaId} (sucursales),
+ * {@code sucursalId} y {@code stock} (productos); la validación se hace fila a fila en el caso de uso.
+ */
+public record CatalogImportRowRequest(Long id, Long franquiciaId, Long sucursalId, String nombre, Integer stock) {}
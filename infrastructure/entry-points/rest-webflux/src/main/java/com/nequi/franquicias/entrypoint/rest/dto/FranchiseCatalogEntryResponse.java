@@ -0,0 +1,5 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+public record FranchiseCatalogEntryResponse(Long franchiseId, String franchiseName,
+                                            Long branchId, String branchName,
+                                            Long productId, String productName, Integer stock) {}
@@ -5,4 +5,5 @@ import io.swagger.v3.oas.annotations.media.Schema;
 @Schema(description = "Respuesta de franquicia")
 public record FranchiseResponse(
         @Schema(description = "ID de la franquicia") Long id,
-        @Schema(description = "Nombre de la franquicia") String nombre) {}
+        @Schema(description = "Nombre de la franquicia") String nombre,
+        @Schema(description = "Versión de la fila; se envía en If-Match para actualizaciones condicionales") Long version) {}
@@ -0,0 +1,11 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Franquicia con sus sucursales y productos")
+public record FranchiseTreeResponse(
+        @Schema(description = "ID de la franquicia") Long id,
+        @Schema(description = "Nombre de la franquicia") String nombre,
+        @Schema(description = "Sucursales de la franquicia") List<BranchTreeResponse> sucursales) {}
@@ -0,0 +1,10 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página de un listado paginado por cursor")
+public record PageResponse<T>(
+        @Schema(description = "Elementos de la página, ordenados por id") List<T> items,
+        @Schema(description = "Cursor opaco para pedir la página siguiente; nulo si no hay más elementos") String next) {}
@@ -7,4 +7,5 @@ public record ProductResponse(
         @Schema(description = "ID del producto") Long id,
         @Schema(description = "Nombre del producto") String nombre,
         @Schema(description = "Stock disponible") Integer stock,
-        @Schema(description = "ID de la sucursal") Long branchId) {}
+        @Schema(description = "ID de la sucursal") Long branchId,
+        @Schema(description = "Versión de la fila; se envía en If-Match para actualizaciones condicionales") Long version) {}
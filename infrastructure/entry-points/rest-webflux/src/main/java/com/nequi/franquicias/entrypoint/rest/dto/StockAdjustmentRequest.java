@@ -0,0 +1,6 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record StockAdjustmentRequest(
+        @NotNull(message = "El ajuste de stock es requerido") Integer delta) {}
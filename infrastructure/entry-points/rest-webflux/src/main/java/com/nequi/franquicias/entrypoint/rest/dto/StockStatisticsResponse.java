@@ -0,0 +1,15 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Estadísticas de stock de una sucursal o del total de la franquicia")
+public record StockStatisticsResponse(
+        @Schema(description = "ID de la sucursal; nulo en la fila total de la franquicia") Long branchId,
+        @Schema(description = "Nombre de la sucursal; nulo en la fila total de la franquicia") String branchName,
+        @Schema(description = "Cantidad de productos") Long productCount,
+        @Schema(description = "Stock total") Long totalStock,
+        @Schema(description = "Stock mínimo") Integer minStock,
+        @Schema(description = "Stock máximo") Integer maxStock,
+        @Schema(description = "Stock promedio") Double avgStock,
+        @Schema(description = "Percentil 50 del stock") Double p50Stock,
+        @Schema(description = "Percentil 95 del stock") Double p95Stock) {}
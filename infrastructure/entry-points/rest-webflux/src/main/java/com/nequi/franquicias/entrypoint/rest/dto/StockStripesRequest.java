@@ -0,0 +1,10 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record StockStripesRequest(
+        @NotNull(message = "La cantidad de franjas es requerida")
+        @Min(value = 0, message = "La cantidad de franjas no puede ser negativa")
+        @Max(value = 64, message = "La cantidad de franjas no puede superar 64") Integer franjas) {}
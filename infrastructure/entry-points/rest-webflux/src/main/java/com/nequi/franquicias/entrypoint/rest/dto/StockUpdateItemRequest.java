@@ -0,0 +1,13 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record StockUpdateItemRequest(
+        @NotNull(message = "El ID de producto es requerido")
+        @Positive(message = "El ID de producto debe ser positivo")
+        Long productId,
+        @NotNull(message = "El stock es requerido")
+        @Min(value = 0, message = "El stock no puede ser negativo")
+        Integer stock) {}
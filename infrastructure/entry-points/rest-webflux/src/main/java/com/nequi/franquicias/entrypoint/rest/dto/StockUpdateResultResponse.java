@@ -0,0 +1,9 @@
+package com.nequi.franquicias.entrypoint.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado de una actualización de stock dentro de un lote")
+public record StockUpdateResultResponse(
+        @Schema(description = "ID del producto") Long productId,
+        @Schema(description = "Stock solicitado") Integer stock,
+        @Schema(description = "ACTUALIZADO o NO_ENCONTRADO") String resultado) {}
@@ -1,8 +1,14 @@
 package com.nequi.franquicias.entrypoint.rest;
 
+import com.nequi.franquicias.entrypoint.rest.dto.ProductWithBranchResponse;
 import com.nequi.franquicias.model.Branch;
+import com.nequi.franquicias.model.CatalogEntity;
+import com.nequi.franquicias.model.CursorPage;
 import com.nequi.franquicias.model.Franchise;
+import com.nequi.franquicias.model.FranchiseCatalogEntry;
 import com.nequi.franquicias.model.Product;
+import com.nequi.franquicias.model.StockStatistics;
+import com.nequi.franquicias.model.StockUpdate;
 import com.nequi.franquicias.usecase.*;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,15 +16,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(controllers = FranquiciasController.class)
@@ -40,13 +54,35 @@ class FranquiciasControllerTest {
     @MockBean
     private AddProductUseCase addProductUseCase;
     @MockBean
+    private AddProductsBatchUseCase addProductsBatchUseCase;
+    @MockBean
     private UpdateProductNameUseCase updateProductNameUseCase;
     @MockBean
     private DeleteProductUseCase deleteProductUseCase;
     @MockBean
     private UpdateProductStockUseCase updateProductStockUseCase;
     @MockBean
+    private AdjustProductStockUseCase adjustProductStockUseCase;
+    @MockBean
+    private BulkUpdateProductStockUseCase bulkUpdateProductStockUseCase;
+    @MockBean
     private GetMaxStockProductsByFranchiseUseCase getMaxStockProductsUseCase;
+    @MockBean
+    private GetFranchiseStockStatisticsUseCase getStockStatisticsUseCase;
+    @MockBean
+    private GetFranchiseTreeUseCase getFranchiseTreeUseCase;
+    @MockBean
+    private ListFranchisesUseCase listFranchisesUseCase;
+    @MockBean
+    private ListBranchesByFranchiseUseCase listBranchesUseCase;
+    @MockBean
+    private ListProductsByBranchUseCase listProductsUseCase;
+    @MockBean
+    private ImportCatalogUseCase importCatalogUseCase;
+    @MockBean
+    private ExportFranchiseCatalogUseCase exportCatalogUseCase;
+    @MockBean
+    private ConfigureProductStockStripesUseCase configureStockStripesUseCase;
 
     @Test
     @DisplayName("POST /franquicias retorna 201")
@@ -110,7 +146,7 @@ class FranquiciasControllerTest {
     @DisplayName("GET /franquicias/{id}/productos-mayor-stock retorna 200")
     void obtenerProductosMayorStockRetorna200() {
         var pwb = new GetMaxStockProductsByFranchiseUseCase.ProductWithBranch(1L, "Prod", 10, 5L, "Sucursal");
-        when(getMaxStockProductsUseCase.execute(1L)).thenReturn(Mono.just(List.of(pwb)));
+        when(getMaxStockProductsUseCase.execute(1L, 1)).thenReturn(Mono.just(List.of(pwb)));
 
         webTestClient.get().uri("/api/v1/franquicias/1/productos-mayor-stock")
                 .exchange()
@@ -121,11 +157,404 @@ class FranquiciasControllerTest {
                 .jsonPath("$.productos[0].stock").isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("GET /franquicias/{id}/productos-mayor-stock?k=2 retorna top-K por sucursal")
+    void obtenerTopKProductosRetorna200() {
+        var p1 = new GetMaxStockProductsByFranchiseUseCase.ProductWithBranch(1L, "Prod", 10, 5L, "Sucursal");
+        var p2 = new GetMaxStockProductsByFranchiseUseCase.ProductWithBranch(2L, "Prod 2", 7, 5L, "Sucursal");
+        when(getMaxStockProductsUseCase.execute(1L, 2)).thenReturn(Mono.just(List.of(p1, p2)));
+
+        webTestClient.get().uri("/api/v1/franquicias/1/productos-mayor-stock?k=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.productos.length()").isEqualTo(2)
+                .jsonPath("$.productos[1].productId").isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/productos-mayor-stock con Accept NDJSON emite una línea por producto")
+    void obtenerProductosMayorStockComoNdjson() {
+        var p1 = new GetMaxStockProductsByFranchiseUseCase.ProductWithBranch(1L, "Prod", 10, 5L, "Sucursal");
+        var p2 = new GetMaxStockProductsByFranchiseUseCase.ProductWithBranch(2L, "Prod 2", 7, 6L, "Sucursal 2");
+        when(getMaxStockProductsUseCase.stream(1L, 1)).thenReturn(Flux.just(p1, p2));
+
+        webTestClient.get().uri("/api/v1/franquicias/1/productos-mayor-stock")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ProductWithBranchResponse.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextMatches(p -> p.productId() == 1L && p.branchId() == 5L)
+                .expectNextMatches(p -> p.productId() == 2L && p.branchId() == 6L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/productos-mayor-stock con Accept text/event-stream emite eventos")
+    void obtenerProductosMayorStockComoSse() {
+        var p1 = new GetMaxStockProductsByFranchiseUseCase.ProductWithBranch(1L, "Prod", 10, 5L, "Sucursal");
+        when(getMaxStockProductsUseCase.stream(1L, 3)).thenReturn(Flux.just(p1));
+
+        webTestClient.get().uri("/api/v1/franquicias/1/productos-mayor-stock?k=3")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(ProductWithBranchResponse.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextMatches(p -> p.productId() == 1L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/productos-mayor-stock?k=0 retorna 400")
+    void obtenerTopKConKInvalidoRetorna400() {
+        webTestClient.get().uri("/api/v1/franquicias/1/productos-mayor-stock?k=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Error de validación");
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/estadisticas-stock retorna filas por sucursal y total")
+    void obtenerEstadisticasStockRetorna200() {
+        when(getStockStatisticsUseCase.execute(1L)).thenReturn(Flux.just(
+                new StockStatistics(10L, "Sucursal A", 2L, 30L, 10, 20, 15.0, 15.0, 19.5),
+                new StockStatistics(null, null, 2L, 30L, 10, 20, 15.0, 15.0, 19.5)));
+
+        webTestClient.get().uri("/api/v1/franquicias/1/estadisticas-stock")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].branchId").isEqualTo(10)
+                .jsonPath("$[0].p95Stock").isEqualTo(19.5)
+                .jsonPath("$[1].branchId").isEmpty()
+                .jsonPath("$[1].totalStock").isEqualTo(30);
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/estadisticas-stock con franquicia inexistente retorna 404")
+    void obtenerEstadisticasStockFranquiciaInexistenteRetorna404() {
+        when(getStockStatisticsUseCase.execute(999L)).thenReturn(Flux.error(
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Franquicia no encontrada: 999")));
+
+        webTestClient.get().uri("/api/v1/franquicias/999/estadisticas-stock")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/arbol retorna sucursales con productos")
+    void obtenerArbolFranquiciaRetorna200() {
+        Branch branch = new Branch(10L, "Sucursal A", 1L, List.of(new Product(5L, "Producto", 7, 10L)));
+        when(getFranchiseTreeUseCase.execute(1L)).thenReturn(Mono.just(new Franchise(1L, "Franquicia", List.of(branch))));
+
+        webTestClient.get().uri("/api/v1/franquicias/1/arbol")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.sucursales[0].id").isEqualTo(10)
+                .jsonPath("$.sucursales[0].productos[0].nombre").isEqualTo("Producto")
+                .jsonPath("$.sucursales[0].productos[0].stock").isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/arbol con franquicia inexistente retorna 404")
+    void obtenerArbolFranquiciaInexistenteRetorna404() {
+        when(getFranchiseTreeUseCase.execute(999L)).thenReturn(Mono.error(
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Franquicia no encontrada: 999")));
+
+        webTestClient.get().uri("/api/v1/franquicias/999/arbol")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("GET /franquicias retorna página con cursor opaco que se puede reenviar")
+    void listarFranquiciasConCursor() {
+        when(listFranchisesUseCase.execute(null, 2)).thenReturn(Mono.just(new CursorPage<>(List.of(
+                new Franchise(1L, "F1", List.of()),
+                new Franchise(2L, "F2", List.of())), 2L)));
+        when(listFranchisesUseCase.execute(2L, 2)).thenReturn(Mono.just(new CursorPage<>(List.of(
+                new Franchise(3L, "F3", List.of())), null)));
+
+        String next = webTestClient.get().uri("/api/v1/franquicias?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody()
+                .replaceAll(".*\"next\":\"([^\"]+)\".*", "$1");
+
+        webTestClient.get().uri("/api/v1/franquicias?limit=2&cursor=" + next)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].id").isEqualTo(3)
+                .jsonPath("$.next").isEmpty();
+    }
+
+    @Test
+    @DisplayName("GET /franquicias con cursor inválido retorna 400")
+    void listarFranquiciasConCursorInvalidoRetorna400() {
+        webTestClient.get().uri("/api/v1/franquicias?cursor=no-es-un-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("GET /franquicias con limit fuera de rango retorna 400")
+    void listarFranquiciasConLimitInvalidoRetorna400() {
+        webTestClient.get().uri("/api/v1/franquicias?limit=501")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/sucursales retorna página de sucursales")
+    void listarSucursalesRetorna200() {
+        when(listBranchesUseCase.execute(1L, null, CursorPage.DEFAULT_LIMIT)).thenReturn(Mono.just(new CursorPage<>(List.of(
+                new Branch(10L, "Sucursal A", 1L, List.of())), null)));
+
+        webTestClient.get().uri("/api/v1/franquicias/1/sucursales")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].nombre").isEqualTo("Sucursal A")
+                .jsonPath("$.next").isEmpty();
+    }
+
+    @Test
+    @DisplayName("GET /sucursales/{id}/productos con sucursal inexistente retorna 404")
+    void listarProductosSucursalInexistenteRetorna404() {
+        when(listProductsUseCase.execute(999L, null, CursorPage.DEFAULT_LIMIT)).thenReturn(Mono.error(
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Sucursal no encontrada: 999")));
+
+        webTestClient.get().uri("/api/v1/sucursales/999/productos")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("POST /productos/{id}/stock/ajuste retorna 200 con el stock resultante")
+    void ajustarStockRetorna200() {
+        when(adjustProductStockUseCase.execute(1L, -3)).thenReturn(Mono.just(new Product(1L, "Producto", 7, 5L)));
+
+        webTestClient.post().uri("/api/v1/productos/1/stock/ajuste")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"delta\":-3}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.stock").isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("POST /productos/{id}/stock/ajuste con stock insuficiente retorna 409")
+    void ajustarStockInsuficienteRetorna409() {
+        when(adjustProductStockUseCase.execute(1L, -30)).thenReturn(Mono.error(
+                new ResponseStatusException(HttpStatus.CONFLICT, "Stock insuficiente")));
+
+        webTestClient.post().uri("/api/v1/productos/1/stock/ajuste")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"delta\":-30}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Conflicto");
+    }
+
+    @Test
+    @DisplayName("PUT /productos/{id}/stock/franjas retorna 200 con el stock total")
+    void configurarFranjasRetorna200() {
+        when(configureStockStripesUseCase.execute(1L, 8)).thenReturn(Mono.just(new Product(1L, "Producto", 40, 5L, 2L)));
+
+        webTestClient.put().uri("/api/v1/productos/1/stock/franjas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"franjas\":8}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.stock").isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("PUT /productos/{id}/stock/franjas fuera de rango retorna 400")
+    void configurarFranjasFueraDeRangoRetorna400() {
+        webTestClient.put().uri("/api/v1/productos/1/stock/franjas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"franjas\":65}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("PATCH /productos/stock retorna resultado por producto")
+    void actualizarStockEnLoteRetorna200() {
+        when(bulkUpdateProductStockUseCase.execute(List.of(new StockUpdate(1L, 10), new StockUpdate(2L, 3))))
+                .thenReturn(Flux.just(
+                        new BulkUpdateProductStockUseCase.Result(1L, 10, true),
+                        new BulkUpdateProductStockUseCase.Result(2L, 3, false)));
+
+        webTestClient.patch().uri("/api/v1/productos/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"items\":[{\"productId\":1,\"stock\":10},{\"productId\":2,\"stock\":3}]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].resultado").isEqualTo("ACTUALIZADO")
+                .jsonPath("$[1].resultado").isEqualTo("NO_ENCONTRADO");
+    }
+
+    @Test
+    @DisplayName("PATCH /productos/stock con item inválido retorna 400")
+    void actualizarStockEnLoteInvalidoRetorna400() {
+        webTestClient.patch().uri("/api/v1/productos/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"items\":[{\"productId\":1,\"stock\":-1}]}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("POST /sucursales/{id}/productos:batch retorna 201 con los productos creados")
+    void crearProductosEnLoteRetorna201() {
+        when(addProductsBatchUseCase.execute(5L, List.of(
+                new AddProductsBatchUseCase.NewProduct("P1", 3),
+                new AddProductsBatchUseCase.NewProduct("P2", 0))))
+                .thenReturn(Flux.just(new Product(11L, "P1", 3, 5L), new Product(12L, "P2", 0, 5L)));
+
+        webTestClient.post().uri("/api/v1/sucursales/5/productos:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"productos\":[{\"nombre\":\"P1\",\"stock\":3},{\"nombre\":\"P2\",\"stock\":0}]}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(11)
+                .jsonPath("$[1].id").isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("POST /sucursales/{id}/productos:batch con lote vacío retorna 400")
+    void crearProductosEnLoteVacioRetorna400() {
+        webTestClient.post().uri("/api/v1/sucursales/5/productos:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"productos\":[]}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("POST /importaciones/{entidad} con CSV entrega el contenido al caso de uso")
+    void importarCsvRetorna201() {
+        StringBuilder received = new StringBuilder();
+        when(importCatalogUseCase.importCsv(eq(CatalogEntity.PRODUCTS), any())).thenAnswer(inv ->
+                inv.<Flux<ByteBuffer>>getArgument(1)
+                        .doOnNext(b -> received.append(StandardCharsets.UTF_8.decode(b)))
+                        .then(Mono.just(1L)));
+
+        webTestClient.post().uri("/api/v1/importaciones/productos")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue("id,sucursal_id,nombre,stock\n1,10,A,5\n")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.entidad").isEqualTo("productos")
+                .jsonPath("$.filas").isEqualTo(1);
+
+        assertEquals("id,sucursal_id,nombre,stock\n1,10,A,5\n", received.toString());
+    }
+
+    @Test
+    @DisplayName("POST /importaciones/{entidad} con NDJSON mapea la entidad padre según la entidad")
+    void importarNdjsonRetorna201() {
+        when(importCatalogUseCase.importRows(eq(CatalogEntity.BRANCHES), any())).thenAnswer(inv ->
+                inv.<Flux<ImportCatalogUseCase.ImportRow>>getArgument(1)
+                        .filter(r -> r.parentId() == 3L && r.nombre().equals("Centro"))
+                        .count());
+
+        webTestClient.post().uri("/api/v1/importaciones/sucursales")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"id\":1,\"franquiciaId\":3,\"nombre\":\"Centro\"}\n{\"id\":2,\"franquiciaId\":3,\"nombre\":\"Centro\"}\n")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.filas").isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("POST /importaciones/{entidad} con entidad desconocida retorna 400")
+    void importarEntidadDesconocidaRetorna400() {
+        webTestClient.post().uri("/api/v1/importaciones/clientes")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue("id,nombre\n")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/export emite CSV con encabezado y campos escapados")
+    void exportarCatalogoCsv() {
+        when(exportCatalogUseCase.execute(1L)).thenReturn(Flux.just(
+                new FranchiseCatalogEntry(1L, "F", 2L, "Centro", 3L, "Café \"premium\"", 5),
+                new FranchiseCatalogEntry(1L, "F", 4L, "Norte", null, null, null)));
+
+        webTestClient.get().uri("/api/v1/franquicias/1/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.parseMediaType("text/csv"))
+                .expectBody(String.class)
+                .isEqualTo("franquicia_id,franquicia,sucursal_id,sucursal,producto_id,producto,stock\n"
+                        + "1,\"F\",2,\"Centro\",3,\"Café \"\"premium\"\"\",5\n"
+                        + "1,\"F\",4,\"Norte\",,,\n");
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/export?format=ndjson emite una línea JSON por fila")
+    void exportarCatalogoNdjson() {
+        when(exportCatalogUseCase.execute(1L)).thenReturn(Flux.just(
+                new FranchiseCatalogEntry(1L, "F", 2L, "Centro", 3L, "P", 5)));
+
+        webTestClient.get().uri("/api/v1/franquicias/1/export?format=ndjson")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .isEqualTo("{\"franchiseId\":1,\"franchiseName\":\"F\",\"branchId\":2,\"branchName\":\"Centro\","
+                        + "\"productId\":3,\"productName\":\"P\",\"stock\":5}\n");
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/export retorna 404 antes de escribir el cuerpo")
+    void exportarCatalogoInexistenteRetorna404() {
+        when(exportCatalogUseCase.execute(999L)).thenReturn(Flux.error(
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Franquicia no encontrada: 999")));
+
+        webTestClient.get().uri("/api/v1/franquicias/999/export")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("GET /franquicias/{id}/export con formato inválido retorna 400")
+    void exportarCatalogoFormatoInvalidoRetorna400() {
+        webTestClient.get().uri("/api/v1/franquicias/1/export?format=xml")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     @DisplayName("PATCH /franquicias/{id}/nombre retorna 200")
     void actualizarNombreFranquiciaRetorna200() {
         Franchise franchise = new Franchise(1L, "Franquicia Actualizada", List.of());
-        when(updateFranchiseNameUseCase.execute(1L, "Franquicia Actualizada")).thenReturn(Mono.just(franchise));
+        when(updateFranchiseNameUseCase.execute(1L, "Franquicia Actualizada", null)).thenReturn(Mono.just(franchise));
 
         webTestClient.patch().uri("/api/v1/franquicias/1/nombre")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -141,7 +570,7 @@ class FranquiciasControllerTest {
     @DisplayName("PATCH /sucursales/{id}/nombre retorna 200")
     void actualizarNombreSucursalRetorna200() {
         Branch branch = new Branch(1L, "Sucursal Norte", 10L, List.of());
-        when(updateBranchNameUseCase.execute(1L, "Sucursal Norte")).thenReturn(Mono.just(branch));
+        when(updateBranchNameUseCase.execute(1L, "Sucursal Norte", null)).thenReturn(Mono.just(branch));
 
         webTestClient.patch().uri("/api/v1/sucursales/1/nombre")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -157,7 +586,7 @@ class FranquiciasControllerTest {
     @DisplayName("PATCH /productos/{id}/nombre retorna 200")
     void actualizarNombreProductoRetorna200() {
         Product product = new Product(1L, "Producto Actualizado", 10, 5L);
-        when(updateProductNameUseCase.execute(1L, "Producto Actualizado")).thenReturn(Mono.just(product));
+        when(updateProductNameUseCase.execute(1L, "Producto Actualizado", null)).thenReturn(Mono.just(product));
 
         webTestClient.patch().uri("/api/v1/productos/1/nombre")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -173,7 +602,7 @@ class FranquiciasControllerTest {
     @DisplayName("PATCH /productos/{id}/stock retorna 200")
     void actualizarStockProductoRetorna200() {
         Product product = new Product(1L, "Producto", 25, 5L);
-        when(updateProductStockUseCase.execute(1L, 25)).thenReturn(Mono.just(product));
+        when(updateProductStockUseCase.execute(1L, 25, null)).thenReturn(Mono.just(product));
 
         webTestClient.patch().uri("/api/v1/productos/1/stock")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -185,6 +614,65 @@ class FranquiciasControllerTest {
                 .jsonPath("$.stock").isEqualTo(25);
     }
 
+    @Test
+    @DisplayName("PATCH /productos/{id}/stock responde ETag con la versión y aplica If-Match")
+    void actualizarStockConIfMatchRespondeETag() {
+        Product product = new Product(1L, "Producto", 25, 5L, 4L);
+        when(updateProductStockUseCase.execute(1L, 25, 3L)).thenReturn(Mono.just(product));
+
+        webTestClient.patch().uri("/api/v1/productos/1/stock")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"stock\":25}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"4\"")
+                .expectBody()
+                .jsonPath("$.version").isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("PATCH /franquicias/{id}/nombre acepta ETag débil en If-Match")
+    void actualizarNombreFranquiciaConETagDebil() {
+        Franchise franchise = new Franchise(1L, "Nuevo", List.of(), 8L);
+        when(updateFranchiseNameUseCase.execute(1L, "Nuevo", 7L)).thenReturn(Mono.just(franchise));
+
+        webTestClient.patch().uri("/api/v1/franquicias/1/nombre")
+                .header("If-Match", "W/\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"nombre\":\"Nuevo\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"8\"");
+    }
+
+    @Test
+    @DisplayName("PATCH /productos/{id}/nombre con versión obsoleta retorna 412")
+    void actualizarNombreProductoVersionObsoletaRetorna412() {
+        when(updateProductNameUseCase.execute(1L, "Nuevo", 2L)).thenReturn(Mono.error(
+                new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "La versión 2 no es la vigente para id=1")));
+
+        webTestClient.patch().uri("/api/v1/productos/1/nombre")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"nombre\":\"Nuevo\"}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Precondición fallida");
+    }
+
+    @Test
+    @DisplayName("PATCH /sucursales/{id}/nombre con If-Match inválido retorna 400")
+    void actualizarNombreSucursalIfMatchInvalidoRetorna400() {
+        webTestClient.patch().uri("/api/v1/sucursales/1/nombre")
+                .header("If-Match", "abc")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"nombre\":\"Nuevo\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     @DisplayName("POST /franquicias con body inválido retorna 400")
     void crearFranquiciaConBodyInvalidoRetorna400() {
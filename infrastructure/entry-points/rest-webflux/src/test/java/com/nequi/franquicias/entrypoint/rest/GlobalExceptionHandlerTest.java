@@ -57,6 +57,30 @@ class GlobalExceptionHandlerTest {
         assertTrue(response.getBody().getDetail().contains("Recurso no encontrado"));
     }
 
+    @Test
+    @DisplayName("maneja ResponseStatusException CONFLICT")
+    void manejaResponseStatusConflict() {
+        var ex = new ResponseStatusException(HttpStatus.CONFLICT, "Stock insuficiente");
+
+        ResponseEntity<ProblemDetail> response = handler.handleResponseStatus(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Conflicto", response.getBody().getTitle());
+    }
+
+    @Test
+    @DisplayName("maneja ResponseStatusException PRECONDITION_FAILED")
+    void manejaResponseStatusPreconditionFailed() {
+        var ex = new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Versión obsoleta");
+
+        ResponseEntity<ProblemDetail> response = handler.handleResponseStatus(ex);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Precondición fallida", response.getBody().getTitle());
+    }
+
     @Test
     @DisplayName("maneja IllegalArgumentException")
     void manejaIllegalArgumentException() {
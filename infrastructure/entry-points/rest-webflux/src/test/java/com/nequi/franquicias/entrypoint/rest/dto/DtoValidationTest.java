@@ -104,6 +104,24 @@ class DtoValidationTest {
         assertFalse(violations.isEmpty());
     }
 
+    @Test
+    @DisplayName("StockAdjustmentRequest acepta delta negativo")
+    void stockAdjustmentRequestAceptaDeltaNegativo() {
+        var request = new StockAdjustmentRequest(-3);
+        Set<ConstraintViolation<StockAdjustmentRequest>> violations = validator.validate(request);
+
+        assertTrue(violations.isEmpty());
+    }
+
+    @Test
+    @DisplayName("StockAdjustmentRequest rechaza delta nulo")
+    void stockAdjustmentRequestRechazaDeltaNulo() {
+        var request = new StockAdjustmentRequest(null);
+        Set<ConstraintViolation<StockAdjustmentRequest>> violations = validator.validate(request);
+
+        assertFalse(violations.isEmpty());
+    }
+
     @Test
     @DisplayName("FranchiseNameUpdateRequest válido")
     void franchiseNameUpdateRequestValido() {